@@ -0,0 +1,98 @@
+package src.Benchmarks;
+
+/**
+ * AIBenchmark measures how fast the baseline and strategic AIs choose a
+ * card. Choosing does not change the game, so each operation cycles to the
+ * current player of the next of many seeded games.
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.AI.BaselineAI;
+import src.AI.GameAI;
+import src.AI.StrategicAI;
+import src.Model.GamePlay.Game;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIBenchmark
+{
+    /** Seed of the first game */
+    private static final long SEED = 42;
+    /** Number of players in each game */
+    private static final int NUMBER_OF_PLAYERS = 4;
+    /** Number of games the AIs cycle through */
+    private static final int NUMBER_OF_GAMES = 64;
+
+    /** A baseline AI for each game */
+    private GameAI[] BaselineAIPlayers = new GameAI[NUMBER_OF_GAMES];
+    /** A strategic AI for each game */
+    private GameAI[] StrategicAIPlayers = new GameAI[NUMBER_OF_GAMES];
+    /** Index of the next game */
+    private int NextGameIndex = 0;
+
+
+    /**
+     * Creates the seeded games and their AIs
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        for(int i = 0; i < NUMBER_OF_GAMES; ++i)
+        {
+            Game game = new Game(NUMBER_OF_PLAYERS, NUMBER_OF_PLAYERS,
+                NUMBER_OF_PLAYERS / 2, new SplittableRandom(SEED + i));
+            this.BaselineAIPlayers[i] = new BaselineAI(game);
+            this.StrategicAIPlayers[i] = new StrategicAI(game);
+        }
+    }
+
+
+    /**
+     * @param aiPlayers An AI for each game
+     * @return The card index the AI of the next game plays
+     */
+    private int playCard(GameAI[] aiPlayers)
+    {
+        this.NextGameIndex = (this.NextGameIndex + 1) % NUMBER_OF_GAMES;
+        GameAI aiPlayer = aiPlayers[this.NextGameIndex];
+        return aiPlayer.playCard(aiPlayer.getCurrentGame().getCurrentPlayer());
+    }
+
+
+    /**
+     * @return The card index the baseline AI plays
+     */
+    @Benchmark
+    public int baselineAIPlayCard()
+    {
+        return this.playCard(this.BaselineAIPlayers);
+    }
+
+
+    /**
+     * @return The card index the strategic AI plays
+     */
+    @Benchmark
+    public int strategicAIPlayCard()
+    {
+        return this.playCard(this.StrategicAIPlayers);
+    }
+}
@@ -0,0 +1,40 @@
+package src.Benchmarks;
+
+/**
+ * BenchmarkRunner runs the JMH benchmarks with the GC profiler always on,
+ * so every benchmark reports its throughput together with the bytes it
+ * allocates per operation. The arguments are the usual JMH command line
+ * options, for example a regular expression to run only some benchmarks.
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner
+{
+    /**
+     * No BenchmarkRunner objects, use main
+     */
+    private BenchmarkRunner()
+    {
+    }
+
+
+    /**
+     * @param args JMH command line options
+     * @throws CommandLineOptionException If the options are invalid
+     * @throws RunnerException If a benchmark fails
+     */
+    public static void main(String[] args)
+        throws CommandLineOptionException, RunnerException
+    {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                    .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package src.Benchmarks;
+
+/**
+ * EndgameBenchmark measures how fast the endgame solver solves endgames
+ * with every card known, the upper bound any AI could reach from them. The
+ * endgames are where seeded games of baseline AI players first reach one,
+ * and each operation solves the next endgame with an emptied table.
+ */
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.AI.BaselineAI;
+import src.AI.EndgameSolver;
+import src.AI.GameAI;
+import src.AI.TranspositionTable;
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Move;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndgameBenchmark
+{
+    /** Seed of the first game */
+    private static final long SEED = 42;
+    /** Number of seeded games played to an endgame */
+    private static final int NUMBER_OF_GAMES = 256;
+    /** Most turns played to reach an endgame */
+    private static final int MAXIMUM_TURNS = 1000;
+    /** Memory of the transposition table */
+    private static final long TABLE_SIZE = 1 << 16;
+
+    /** Endgames to solve */
+    private ArrayList<Game> Endgames = new ArrayList<Game>();
+    /** Table of the solver, emptied before each solve */
+    private TranspositionTable Table = new TranspositionTable(TABLE_SIZE);
+    /** Solver under test */
+    private EndgameSolver Solver = new EndgameSolver(this.Table);
+    /** Index of the next endgame */
+    private int NextEndgameIndex = 0;
+
+
+    /**
+     * Plays seeded games of two and three baseline AI players until they
+     * reach an endgame
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        for(int i = 0; i < NUMBER_OF_GAMES; ++i)
+        {
+            Game game = new Game(2 + i % 2, 2 + i % 2, 0, new SplittableRandom(SEED + i));
+            GameAI aiPlayer = new BaselineAI(game);
+
+            for(int turns = 0; turns < MAXIMUM_TURNS && !game.isGameOver()
+                && !EndgameSolver.isEndgame(game); ++turns)
+            {
+                game.getCurrentPlayer().tryPlayCard(aiPlayer.chooseMove(game.getCurrentPlayer()));
+            }
+
+            if(EndgameSolver.isEndgame(game))
+            {
+                this.Endgames.add(game);
+            }
+        }
+    }
+
+
+    /**
+     * @return The best move of the next endgame
+     */
+    @Benchmark
+    public Move solve()
+    {
+        this.NextEndgameIndex = (this.NextEndgameIndex + 1) % this.Endgames.size();
+        this.Table.clear();
+        return this.Solver.solve(this.Endgames.get(this.NextEndgameIndex));
+    }
+}
@@ -0,0 +1,89 @@
+package src.Benchmarks;
+
+/**
+ * SimulationBenchmark measures how fast whole games between baseline and
+ * strategic AIs are played, one Game object at a time by the simulator or
+ * many games in lockstep by the batched engine. Each operation plays a
+ * fixed number of games, so the scores compare directly.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.Simulation.BatchedGameEngine;
+import src.Simulation.GameSimulator;
+import src.Simulation.TournamentStatistics;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark
+{
+    /** Seed of the games */
+    private static final long SEED = 42;
+    /** Number of baseline AI players in each game */
+    private static final int NUMBER_OF_BASELINE_AI_PLAYERS = 2;
+    /** Number of strategic AI players in each game */
+    private static final int NUMBER_OF_STRATEGIC_AI_PLAYERS = 2;
+    /** Number of games each operation plays */
+    private static final int NUMBER_OF_GAMES = 4096;
+
+    /** Simulator playing one game at a time */
+    private GameSimulator Simulator;
+    /** Engine playing the games in lockstep */
+    private BatchedGameEngine Engine;
+
+
+    /**
+     * Creates the simulator and the engine
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.Simulator = new GameSimulator(NUMBER_OF_BASELINE_AI_PLAYERS,
+            NUMBER_OF_STRATEGIC_AI_PLAYERS, SEED);
+        this.Engine = new BatchedGameEngine(NUMBER_OF_BASELINE_AI_PLAYERS,
+            NUMBER_OF_STRATEGIC_AI_PLAYERS, BatchedGameEngine.DEFAULT_NUMBER_OF_LANES, SEED);
+    }
+
+
+    /**
+     * @return Statistics of the games played one at a time
+     */
+    @Benchmark
+    public TournamentStatistics simulateGames()
+    {
+        TournamentStatistics statistics = new TournamentStatistics();
+
+        for(int i = 0; i < NUMBER_OF_GAMES; ++i)
+        {
+            statistics.addResult(this.Simulator.simulateGame());
+        }
+
+        return statistics;
+    }
+
+
+    /**
+     * @return Statistics of the games played in lockstep
+     */
+    @Benchmark
+    public TournamentStatistics runBatchedGames()
+    {
+        return this.Engine.run(NUMBER_OF_GAMES);
+    }
+}
@@ -0,0 +1,337 @@
+package src.Model.GamePlay;
+
+/**
+ * GameBenchmark measures the game engine: creating a game, playing a card,
+ * drawing cards, reshuffling the discard deck, and the player's color
+ * queries. It is in the game's package so it can undo each operation
+ * through the package private hooks of Game, which keeps every operation
+ * measured on the same state instead of on a game that drifts or ends.
+ */
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.Model.Card.Card;
+import src.Model.Card.ChangeColorCard;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game.Direction;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark
+{
+    /** Seed of the first game of each benchmark */
+    private static final long SEED = 42;
+    /** Number of players in the games played on */
+    private static final int NUMBER_OF_PLAYERS = 4;
+    /** Number of games the player queries cycle through */
+    private static final int NUMBER_OF_GAMES = 64;
+
+
+    /**
+     * A random number generator for creating games
+     */
+    @State(Scope.Thread)
+    public static class CreateGameState
+    {
+        /** Number of players in each game */
+        @Param({"2", "4", "9"})
+        public int NumberOfPlayers;
+        /** Generator for the games */
+        public SplittableRandom Random;
+
+
+        /**
+         * Seeds the generator
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            this.Random = new SplittableRandom(SEED);
+        }
+    }
+
+
+    /**
+     * A game whose current player has a legal card, and the state to go
+     * back to after the card is played
+     */
+    @State(Scope.Thread)
+    public static class PlayCardState
+    {
+        /** Game to play the card in */
+        public Game Game;
+        /** Player playing the card */
+        public Player Player;
+        /** Card to play */
+        public Card Card;
+        /** Move the card is played with */
+        public Move Move;
+        /** Current player index to go back to */
+        public int CurrentPlayerIndex;
+        /** Direction to go back to */
+        public Direction CurrentDirection;
+        /** Color to go back to */
+        public CardColors CurrentColor;
+
+
+        /**
+         * Finds the first seeded game whose current player has a legal card
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            for(long seed = SEED; this.Card == null; ++seed)
+            {
+                this.Game = new Game(NUMBER_OF_PLAYERS, NUMBER_OF_PLAYERS, 0,
+                    new SplittableRandom(seed));
+                this.Player = this.Game.getCurrentPlayer();
+                long legalMoves = this.Game.legalMoves(this.Player);
+
+                for(int i = 0; i < this.Player.getNumberOfCards(); ++i)
+                {
+                    Card card = this.Player.getCard(i);
+
+                    if(((legalMoves >>> card.getCardCode()) & 1L) != 0)
+                    {
+                        this.Card = card;
+                        this.Move = (card instanceof ChangeColorCard) ?
+                            (new Move(i, CardColors.RED, Direction.DEFAULT)) : (new Move(i));
+                        break;
+                    }
+                }
+            }
+
+            this.CurrentPlayerIndex = this.Game.getCurrentPlayerIndex();
+            this.CurrentDirection = this.Game.getCurrentDirection();
+            this.CurrentColor = this.Game.getCurrentColor();
+        }
+    }
+
+
+    /**
+     * A game whose current player draws cards, and the state to go back to
+     * after the cards are drawn
+     */
+    @State(Scope.Thread)
+    public static class DrawCardsState
+    {
+        /** Number of cards due for drawing, 0 to draw one card */
+        @Param({"0", "4"})
+        public int DrawCardsNumber;
+        /** Game to draw the cards in */
+        public Game Game;
+        /** Player drawing the cards */
+        public Player Player;
+        /** Current player index to go back to */
+        public int CurrentPlayerIndex;
+        /** Direction to go back to */
+        public Direction CurrentDirection;
+        /** Color to go back to */
+        public CardColors CurrentColor;
+
+
+        /**
+         * Creates a seeded game with the cards due for drawing
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            this.Game = new Game(NUMBER_OF_PLAYERS, NUMBER_OF_PLAYERS, 0,
+                new SplittableRandom(SEED));
+            this.Player = this.Game.getCurrentPlayer();
+            this.CurrentPlayerIndex = this.Game.getCurrentPlayerIndex();
+            this.CurrentDirection = this.Game.getCurrentDirection();
+            this.CurrentColor = this.Game.getCurrentColor();
+            this.Game.setGameState(this.CurrentPlayerIndex, this.CurrentDirection,
+                this.CurrentColor, this.DrawCardsNumber, false);
+        }
+    }
+
+
+    /**
+     * A seeded game for reshuffling its discard deck
+     */
+    @State(Scope.Thread)
+    public static class ReshuffleState
+    {
+        /** Game to reshuffle */
+        public Game Game;
+
+
+        /**
+         * Creates a seeded game
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            this.Game = new Game(NUMBER_OF_PLAYERS, NUMBER_OF_PLAYERS, 0,
+                new SplittableRandom(SEED));
+        }
+    }
+
+
+    /**
+     * Players of many seeded games, so the queries do not see one hand only
+     */
+    @State(Scope.Thread)
+    public static class PlayersState
+    {
+        /** A player of each game */
+        public Player[] Players = new Player[NUMBER_OF_GAMES];
+        /** Index of the next player to query */
+        public int NextPlayerIndex = 0;
+
+
+        /**
+         * Creates the seeded games
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            for(int i = 0; i < NUMBER_OF_GAMES; ++i)
+            {
+                this.Players[i] = new Game(NUMBER_OF_PLAYERS, NUMBER_OF_PLAYERS, 0,
+                    new SplittableRandom(SEED + i)).getCurrentPlayer();
+            }
+        }
+
+
+        /**
+         * @return The next player to query
+         */
+        public Player nextPlayer()
+        {
+            this.NextPlayerIndex = (this.NextPlayerIndex + 1) % NUMBER_OF_GAMES;
+            return this.Players[this.NextPlayerIndex];
+        }
+    }
+
+
+    /**
+     * @param state Generator for the game
+     * @return A new shuffled and dealt game
+     */
+    @Benchmark
+    public Game createGame(CreateGameState state)
+    {
+        return new Game(state.NumberOfPlayers, state.NumberOfPlayers, 0, state.Random);
+    }
+
+
+    /**
+     * Plays a legal card, then takes it back off the discard deck and
+     * restores the turn, color and direction
+     * @param state Game and card to play
+     * @return Number of cards in the discard deck after the card was played
+     * @throws IllegalAccessException Never, the card is legal
+     */
+    @Benchmark
+    public int updateGameState(PlayCardState state) throws IllegalAccessException
+    {
+        Game game = state.Game;
+        game.updateGameState(state.Player.getPlayerID(), state.Card, state.Move,
+            state.Player.getCardColorMask());
+        int numberOfCards = game.getNumberOfCardsInDiscardDeck();
+
+        game.getDiscardDeck().drawTopCard();
+        game.setGameState(state.CurrentPlayerIndex, state.CurrentDirection,
+            state.CurrentColor, 0, false);
+        return numberOfCards;
+    }
+
+
+    /**
+     * Draws cards, then puts every drawn or played card back on the card
+     * deck and restores the turn, color and number of cards due
+     * @param state Game and player to draw the cards for
+     * @return Number of cards the player kept
+     * @throws IllegalAccessException Never, it is the player's turn
+     */
+    @Benchmark
+    public int drawCardsFromDeck(DrawCardsState state) throws IllegalAccessException
+    {
+        Game game = state.Game;
+        int numberOfDiscardedCards = game.getNumberOfCardsInDiscardDeck();
+        ArrayList<Card> drawnCards = game.drawCardsFromDeck(state.Player.getPlayerID());
+
+        //The drawn card was legal and played onto the discard deck
+        if(game.getNumberOfCardsInDiscardDeck() > numberOfDiscardedCards)
+        {
+            game.getCardDeck().addTopCard(game.getDiscardDeck().drawTopCard());
+        }
+
+        for(int i = drawnCards.size() - 1; i >= 0; --i)
+        {
+            game.getCardDeck().addTopCard(drawnCards.get(i));
+        }
+
+        game.setGameState(state.CurrentPlayerIndex, state.CurrentDirection,
+            state.CurrentColor, state.DrawCardsNumber, false);
+        return drawnCards.size();
+    }
+
+
+    /**
+     * Moves the card deck onto the discard deck and reshuffles the discard
+     * deck back into the card deck, the move is part of the measured time
+     * @param state Game to reshuffle
+     * @return Number of cards in the card deck after the reshuffle
+     */
+    @Benchmark
+    public int repopulateCardDeck(ReshuffleState state)
+    {
+        Game game = state.Game;
+        CardPile cardDeck = game.getCardDeck();
+        CardPile discardDeck = game.getDiscardDeck();
+        Card topCard = discardDeck.drawTopCard();
+
+        while(!cardDeck.isEmpty())
+        {
+            discardDeck.addTopCard(cardDeck.drawTopCard());
+        }
+
+        discardDeck.addTopCard(topCard);
+        game.repopulateCardDeck();
+        return cardDeck.size();
+    }
+
+
+    /**
+     * @param state Players to query
+     * @return The colors the player has
+     */
+    @Benchmark
+    public ArrayList<CardColors> getCardColors(PlayersState state)
+    {
+        return state.nextPlayer().getCardColors();
+    }
+
+
+    /**
+     * @param state Players to query
+     * @return The color the player has most of
+     */
+    @Benchmark
+    public CardColors getMaximumCardColor(PlayersState state)
+    {
+        return state.nextPlayer().getMaximumCardColor();
+    }
+}
@@ -0,0 +1,366 @@
+package src.AI;
+
+/**
+ * Anytime game AI starts thinking as soon as its turn begins and refines its
+ * choice in the background, so it has a move ready whenever the deadline
+ * comes. Thinking runs on copies of the game made when it starts, so a
+ * thought cut off at the deadline can finish its last step on its own
+ * without touching the game being played. Every decision records how long
+ * it took and whether the deadline cut the thinking off. A thought can also
+ * be started ahead of the turn, on positions the game may reach, and taken
+ * up by the decision if the game does reach it.
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Move;
+
+import src.Model.GamePlay.Player;
+
+public abstract class AnytimeGameAI extends GameAI
+{
+    /** Milliseconds past the deadline a move may come before the decision
+     * counts as late */
+    public static final long LATE_TOLERANCE = 5;
+    /** Threads the decisions of every anytime AI think on, one a core, so
+     * no decision starts a thread of its own. Idle threads end after a 
+     * while. */
+    private static final ThreadPoolExecutor THINKING_EXECUTOR = new ThreadPoolExecutor(
+        Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable ->
+    {
+        Thread thread = new Thread(runnable, "Anytime AI Thinking");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static
+    {
+        THINKING_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /** Thinking of the decision being made, null between decisions */
+    private volatile Thought CurrentThought = null;
+    /** Time each decision took, from the start of thinking to the move */
+    private final LatencyHistogram Latencies = new LatencyHistogram();
+    /** Number of decisions whose thinking was cut off by the deadline */
+    private final LongAdder DeadlinesHit = new LongAdder();
+    /** Number of decisions that came later than the tolerance allows */
+    private final LongAdder LateDecisions = new LongAdder();
+
+
+    /**
+     * @param game Game this AI belongs to
+     */
+    public AnytimeGameAI(Game game)
+    {
+        super(game);
+    }
+
+
+    /**
+     * Makes a first move right away and copies everything the thinking
+     * needs, on the thread that starts the thinking
+     * @param player Player whose turn it is
+     * @param thought Thought the first move and every better move is offered
+     * to, the thinking should end soon after it is stopped
+     * @return Thinking to run in the background, null if the first move
+     * cannot be improved on
+     */
+    protected abstract Runnable prepareThinking(Player player, Thought thought);
+
+
+    /**
+     * Starts thinking about the player's move on the shared thinking 
+     * threads, a thought of an earlier decision still running is stopped.
+     * Decisions are made one at a time, startThinking and awaitMove are not
+     * called at once.
+     * @param player Player whose turn it is
+     */
+    public void startThinking(Player player)
+    {
+        this.stopThinking();
+        this.CurrentThought = this.think(player, THINKING_EXECUTOR);
+    }
+
+
+    /**
+     * Takes up a thought started ahead of the turn, the decision starts now
+     * and the thinking goes on until the deadline. A thought of an earlier
+     * decision still running is stopped.
+     * @param thought Thought about the player's move in a copy of the game
+     * as it is now, by an AI of the same kind
+     */
+    public void takeUpThought(Thought thought)
+    {
+        this.stopThinking();
+        thought.StartTime = System.nanoTime();
+        this.CurrentThought = thought;
+    }
+
+
+    /**
+     * Stops the thinking of the decision being made, if any
+     */
+    private void stopThinking()
+    {
+        Thought thought = this.CurrentThought;
+
+        if(thought != null)
+        {
+            thought.stop();
+        }
+    }
+
+
+    /**
+     * @param player Player whose turn it is
+     * @param executor Runs the thinking
+     * @return Thought about the player's move, finished at once if it is 
+     * not the player's turn
+     * @throws RejectedExecutionException If the executor takes no more work,
+     * the thought is stopped
+     */
+    Thought think(Player player, ExecutorService executor) throws RejectedExecutionException
+    {
+        Thought thought = new Thought();
+        Runnable thinking = (this.checkPlayerTurn(player)) ?
+            (this.prepareThinking(player, thought)) : (null);
+
+        if(thinking == null)
+        {
+            thought.finish();
+            return thought;
+        }
+
+        Runnable task = () ->
+        {
+            try
+            {
+                thinking.run();
+            }
+            finally
+            {
+                thought.finish();
+            }
+        };
+
+        try
+        {
+            thought.Task = executor.submit(task);
+        }
+        catch(RejectedExecutionException ex)
+        {
+            thought.stop();
+            throw ex;
+        }
+
+        return thought;
+    }
+
+
+    /**
+     * Waits for the thinking to end or the deadline to come, whichever is
+     * first, and stops the thinking
+     * @param timeLimit Milliseconds from the start of thinking to the deadline
+     * @return Best move found by the deadline, Move.NONE if it was not the
+     * player's turn
+     * @throws IllegalArgumentException If the time limit is negative
+     * @throws IllegalStateException If the AI is not thinking
+     */
+    public Move awaitMove(long timeLimit) throws IllegalArgumentException, IllegalStateException
+    {
+        Thought thought = this.CurrentThought;
+
+        if(timeLimit < 0)
+        {
+            throw new IllegalArgumentException("Invalid Time Limit!");
+        }
+
+        if(thought == null)
+        {
+            throw new IllegalStateException("AI Is Not Thinking!");
+        }
+
+        long deadline = thought.StartTime + timeLimit * 1000000;
+
+        if(!thought.awaitFinish(deadline))
+        {
+            this.DeadlinesHit.increment();
+        }
+
+        thought.stop();
+        this.CurrentThought = null;
+        long latency = System.nanoTime() - thought.StartTime;
+        this.Latencies.record(latency);
+
+        if(latency > (timeLimit + LATE_TOLERANCE) * 1000000)
+        {
+            this.LateDecisions.increment();
+        }
+
+        return thought.getBestMove();
+    }
+
+
+    /**
+     * @return Best move found so far in the decision being made, Move.NONE
+     * between decisions
+     */
+    public Move getBestMove()
+    {
+        Thought thought = this.CurrentThought;
+        return (thought == null) ? (Move.NONE) : (thought.getBestMove());
+    }
+
+
+    /**
+     * @return Time each decision took, from the start of thinking to the move
+     */
+    public LatencyHistogram getLatencies()
+    {
+        return this.Latencies;
+    }
+
+
+    /**
+     * @return Number of decisions made
+     */
+    public long getNumberOfDecisions()
+    {
+        return this.Latencies.getCount();
+    }
+
+
+    /**
+     * @return Number of decisions whose thinking was cut off by the deadline
+     */
+    public long getNumberOfDeadlinesHit()
+    {
+        return this.DeadlinesHit.sum();
+    }
+
+
+    /**
+     * @return Number of decisions whose move came more than LATE_TOLERANCE
+     * milliseconds after the deadline
+     */
+    public long getNumberOfLateDecisions()
+    {
+        return this.LateDecisions.sum();
+    }
+
+
+    /**
+     * Forgets the latencies and counts of the decisions made so far
+     */
+    public void resetStatistics()
+    {
+        this.Latencies.reset();
+        this.DeadlinesHit.reset();
+        this.LateDecisions.reset();
+    }
+
+
+    /**
+     * Thinking of one decision, the best move found so far and whether the
+     * thinking should end
+     */
+    public static final class Thought
+    {
+        /** System.nanoTime() the decision started at */
+        private volatile long StartTime = System.nanoTime();
+        /** Thinking waiting or running on an executor, null until it is
+         * submitted */
+        private volatile Future<?> Task = null;
+        /** Best move found so far */
+        private volatile Move BestMove = Move.NONE;
+        /** If the thinking should end */
+        private volatile boolean Stopped = false;
+        /** Counted down when the thinking has ended */
+        private final CountDownLatch Finished = new CountDownLatch(1);
+
+
+        /**
+         * @param move Move better than any offered before, ignored once
+         * the thinking is stopped
+         */
+        public void offer(Move move)
+        {
+            if(!this.Stopped)
+            {
+                this.BestMove = move;
+            }
+        }
+
+
+        /**
+         * @return Best move found so far
+         */
+        public Move getBestMove()
+        {
+            return this.BestMove;
+        }
+
+
+        /**
+         * @return If the thinking should end
+         */
+        public boolean isStopped()
+        {
+            return this.Stopped;
+        }
+
+
+        /**
+         * Tells the thinking to end, no move is taken after this. Thinking
+         * still waiting on an executor never starts.
+         */
+        void stop()
+        {
+            this.Stopped = true;
+            Future<?> task = this.Task;
+
+            if(task != null && task.cancel(false))
+            {
+                this.finish();
+            }
+        }
+
+
+        /**
+         * Marks the thinking as ended
+         */
+        private void finish()
+        {
+            this.Finished.countDown();
+        }
+
+
+        /**
+         * @param deadline System.nanoTime() to stop waiting at
+         * @return If the thinking ended by the deadline, an interrupted
+         * wait counts as reaching the deadline
+         */
+        private boolean awaitFinish(long deadline)
+        {
+            try
+            {
+                return this.Finished.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            catch(InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                return this.Finished.getCount() == 0;
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ package src.AI;
 
 import src.Model.Card.ChangeColorCard;
 import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Move;
 
 import src.Model.GamePlay.Player;
 
@@ -23,30 +24,28 @@ public class BaselineAI extends GameAI
 
 
     @Override
-    public int playCard(Player player) 
+    public Move chooseMove(Player player) 
     {
         if(this.checkPlayerTurn(player))
         {
-            int playCardIdx = -1;
-
             if(this.GameModel.getDrawCardsNumber() == 0)
             {
-                playCardIdx = this.getCardIdxToPlayOnTopCard(player);
+                int playCardIdx = this.getCardIdxToPlayOnTopCard(player);
 
-                //Set the current direction and current color
+                //Keep the current direction and current color
                 if(playCardIdx != -1 && player.getCard(playCardIdx) 
                     instanceof ChangeColorCard)
                 {
-                    ((ChangeColorCard) player.getCard(playCardIdx))
-                        .setNextColor(this.GameModel.getCurrentColor());
-                    ((ChangeColorCard) player.getCard(playCardIdx))
-                        .setNextDirection(this.GameModel.getCurrentDirection());
+                    return new Move(playCardIdx, this.GameModel.getCurrentColor(), 
+                        this.GameModel.getCurrentDirection());
                 }
+
+                return (playCardIdx == -1) ? Move.DRAW : new Move(playCardIdx);
             }
             
-            return playCardIdx;
+            return Move.DRAW;
         }
 
-        return -2;
+        return Move.NONE;
     }
 }
@@ -0,0 +1,336 @@
+package src.AI;
+
+/**
+ * EndgameSolver finds the best move of a position where every card is known,
+ * the hidden hands and the card deck included. It is a paranoid search: the
+ * player to move tries to win and every other player is assumed to play
+ * against that player, so each position is a win, a loss or unknown when
+ * the game goes on past the depth searched. Alpha-beta pruning stops at the
+ * first winning move, and a transposition table keyed by the Zobrist hash
+ * of the game remembers positions reached by other orders of moves. Moves
+ * are made and unmade on one copy of the game, so the search allocates
+ * nothing per node. Search is iterative deepening until the position is
+ * solved, the depth limit or the node limit.
+ */
+
+import java.util.SplittableRandom;
+
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Move;
+
+import src.Model.GamePlay.Player;
+
+public class EndgameSolver
+{
+    /** Value of a position the player solving wins */
+    public static final int WIN = 1;
+    /** Value of a position whose winner is not known in the depth searched */
+    public static final int UNKNOWN = 0;
+    /** Value of a position another player wins */
+    public static final int LOSS = -1;
+    /** Most players in a game the solver takes on */
+    public static final int MAXIMUM_PLAYERS = 3;
+    /** Most cards in any hand of a game the solver takes on */
+    public static final int MAXIMUM_HAND_SIZE = 4;
+    /** Default most moves searched ahead */
+    public static final int DEFAULT_MAXIMUM_DEPTH = 16;
+    /** Default most positions searched in one solve */
+    public static final long DEFAULT_NODE_LIMIT = 100000;
+    /** Default memory of the transposition table */
+    private static final long DEFAULT_TABLE_SIZE = 1 << 20;
+    /** Seed of the random number generator of the copy searched, a reshuffle
+     * within the search is played as it falls */
+    private static final long SEED = 42;
+    /** Salt of the hash for each player solving, so positions solved for
+     * different players are different entries */
+    private static final long PLAYER_SALT = 0x9E3779B97F4A7C15L;
+
+    /** Positions already searched */
+    private final TranspositionTable Table;
+    /** Most moves searched ahead */
+    private int MaximumDepth = DEFAULT_MAXIMUM_DEPTH;
+    /** Most positions searched in one solve */
+    private long NodeLimit = DEFAULT_NODE_LIMIT;
+    /** Legal actions at each depth of the search */
+    private int[][] Actions;
+    /** Index of the player solving */
+    private int RootPlayerIndex;
+    /** Salt of the hash of the player solving */
+    private long RootSalt;
+    /** Positions searched in the last solve */
+    private long NumberOfNodes;
+    /** Nanoseconds the last solve took */
+    private long SolveTime;
+    /** If the last solve ran out of nodes */
+    private boolean Aborted;
+    /** Value of the position of the last solve */
+    private int Value;
+    /** Best action of the last solve, see MonteCarloTreeSearchAI */
+    private int BestAction;
+
+
+    /**
+     * Solver with a transposition table of its own
+     */
+    public EndgameSolver()
+    {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+
+    /**
+     * @param table Transposition table the solver keeps positions in, it can
+     * be shared with other solvers
+     */
+    public EndgameSolver(TranspositionTable table)
+    {
+        this.Table = table;
+        this.Actions = new int[this.MaximumDepth + 1][MonteCarloTreeSearchAI.NUMBER_OF_ACTIONS];
+    }
+
+
+    /**
+     * @param maximumDepth Most moves searched ahead
+     * @throws IllegalArgumentException If the depth is less than 1 or more
+     * than the transposition table holds
+     */
+    public void setMaximumDepth(int maximumDepth) throws IllegalArgumentException
+    {
+        if(maximumDepth < 1 || maximumDepth >= TranspositionTable.MAXIMUM_DEPTH)
+        {
+            throw new IllegalArgumentException("Invalid Maximum Depth!");
+        }
+
+        this.MaximumDepth = maximumDepth;
+        this.Actions = new int[maximumDepth + 1][MonteCarloTreeSearchAI.NUMBER_OF_ACTIONS];
+    }
+
+
+    /**
+     * @param nodeLimit Most positions searched in one solve
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    public void setNodeLimit(long nodeLimit) throws IllegalArgumentException
+    {
+        if(nodeLimit < 1)
+        {
+            throw new IllegalArgumentException("Invalid Node Limit!");
+        }
+
+        this.NodeLimit = nodeLimit;
+    }
+
+
+    /**
+     * @param game Game to check
+     * @return If the game is not over, has at most MAXIMUM_PLAYERS players
+     * and no hand has more than MAXIMUM_HAND_SIZE cards, then true
+     */
+    public static boolean isEndgame(Game game)
+    {
+        if(game.isGameOver() || game.getAllPlayers().size() > MAXIMUM_PLAYERS)
+        {
+            return false;
+        }
+
+        for(Player player : game.getAllPlayers())
+        {
+            if(player.getNumberOfCards() > MAXIMUM_HAND_SIZE)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Solves the position for the current player, reading every card of the
+     * game. The game is not changed, the search runs on a copy.
+     * @param game Game to solve
+     * @return Best move of the current player, the move of the deepest
+     * search finished if the position is not solved
+     * @throws IllegalArgumentException If the game is over
+     */
+    public Move solve(Game game) throws IllegalArgumentException
+    {
+        if(game.isGameOver())
+        {
+            throw new IllegalArgumentException("Game Is Over!");
+        }
+
+        long startTime = System.nanoTime();
+        Game searchGame = game.copy(new SplittableRandom(SEED));
+        this.RootPlayerIndex = game.getCurrentPlayerIndex();
+        this.RootSalt = PLAYER_SALT * (this.RootPlayerIndex + 1);
+        this.NumberOfNodes = 0;
+        this.Aborted = false;
+        this.Value = UNKNOWN;
+        this.BestAction = MonteCarloTreeSearchAI.DRAW_ACTION;
+        this.Table.newSearch();
+
+        for(int depth = 1; depth <= this.MaximumDepth && this.Value == UNKNOWN; ++depth)
+        {
+            int value = this.search(searchGame, depth, UNKNOWN, WIN);
+
+            if(this.Aborted)
+            {
+                break;
+            }
+
+            //The best move of the root is stored with it by the search
+            long data = this.Table.probe(searchGame.getHash() ^ this.RootSalt);
+            this.Value = value;
+            this.BestAction = (data == TranspositionTable.MISS) ?
+                (this.BestAction) : (TranspositionTable.getBestMove(data));
+        }
+
+        this.SolveTime = System.nanoTime() - startTime;
+        return MonteCarloTreeSearchAI.getMove(game.getCurrentPlayer(), this.BestAction);
+    }
+
+
+    /**
+     * @param game Game to search, left as it was found
+     * @param depth Moves left to search
+     * @param alpha Value the player solving is sure of
+     * @param beta Value the other players are sure of
+     * @return Value of the position for the player solving
+     */
+    private int search(Game game, int depth, int alpha, int beta)
+    {
+        if(++this.NumberOfNodes > this.NodeLimit)
+        {
+            this.Aborted = true;
+            return UNKNOWN;
+        }
+
+        if(game.isGameOver())
+        {
+            //The player who played the last card stays the current player
+            return (game.getCurrentPlayerIndex() == this.RootPlayerIndex) ? (WIN) : (LOSS);
+        }
+
+        if(depth == 0)
+        {
+            return UNKNOWN;
+        }
+
+        long hash = game.getHash() ^ this.RootSalt;
+        long data = this.Table.probe(hash);
+        int hashAction = -1;
+
+        if(data != TranspositionTable.MISS)
+        {
+            int value = TranspositionTable.getValue(data);
+            int bound = TranspositionTable.getBound(data);
+            hashAction = TranspositionTable.getBestMove(data);
+
+            if(TranspositionTable.getDepth(data) >= depth && (bound == TranspositionTable.EXACT
+                || (bound == TranspositionTable.LOWER_BOUND && value >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && value <= alpha)))
+            {
+                return value;
+            }
+        }
+
+        Player player = game.getCurrentPlayer();
+        boolean maximizing = game.getCurrentPlayerIndex() == this.RootPlayerIndex;
+        int[] actions = this.Actions[depth];
+        int numberOfActions = MonteCarloTreeSearchAI.getLegalActions(game, player, actions);
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int bestValue = (maximizing) ? (LOSS - 1) : (WIN + 1);
+        int bestAction = actions[0];
+
+        //The best move found before is tried first
+        for(int i = 1; i < numberOfActions; ++i)
+        {
+            if(actions[i] == hashAction)
+            {
+                actions[i] = actions[0];
+                actions[0] = hashAction;
+                break;
+            }
+        }
+
+        for(int i = 0; i < numberOfActions && alpha < beta; ++i)
+        {
+            game.makeMove(MonteCarloTreeSearchAI.getMove(player, actions[i]));
+            int value = this.search(game, depth - 1, alpha, beta);
+            game.unmake();
+
+            if(this.Aborted)
+            {
+                return UNKNOWN;
+            }
+
+            if((maximizing) ? (value > bestValue) : (value < bestValue))
+            {
+                bestValue = value;
+                bestAction = actions[i];
+            }
+
+            alpha = (maximizing) ? (Math.max(alpha, value)) : (alpha);
+            beta = (maximizing) ? (beta) : (Math.min(beta, value));
+        }
+
+        int bound = (bestValue <= originalAlpha) ? (TranspositionTable.UPPER_BOUND) :
+            ((bestValue >= originalBeta) ? (TranspositionTable.LOWER_BOUND) :
+                (TranspositionTable.EXACT));
+
+        //A win or a loss found within the depth holds at any depth
+        boolean solved = (bestValue == WIN && bound != TranspositionTable.UPPER_BOUND)
+            || (bestValue == LOSS && bound != TranspositionTable.LOWER_BOUND);
+        this.Table.store(hash, bestValue, bestAction,
+            (solved) ? (TranspositionTable.MAXIMUM_DEPTH) : (depth), bound);
+        return bestValue;
+    }
+
+
+    /**
+     * @return Value of the position of the last solve, WIN, LOSS or UNKNOWN
+     */
+    public int getValue()
+    {
+        return this.Value;
+    }
+
+
+    /**
+     * @return Best action of the last solve, a card code times the number of
+     * colors plus the next color ordinal, or the draw action
+     */
+    int getBestAction()
+    {
+        return this.BestAction;
+    }
+
+
+    /**
+     * @return Positions searched in the last solve
+     */
+    public long getNumberOfNodes()
+    {
+        return this.NumberOfNodes;
+    }
+
+
+    /**
+     * @return Nanoseconds the last solve took
+     */
+    public long getSolveTime()
+    {
+        return this.SolveTime;
+    }
+
+
+    /**
+     * @return Positions searched per second in the last solve
+     */
+    public double getNodesPerSecond()
+    {
+        return (this.SolveTime == 0) ? (0) : (this.NumberOfNodes * 1e9 / this.SolveTime);
+    }
+}
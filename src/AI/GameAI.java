@@ -7,8 +7,8 @@ package src.AI;
 import src.Model.Card.Card;
 import src.Model.Card.ChangeColorCard;
 import src.Model.Card.NumberCard;
-import src.Model.Card.Card.CardColors;
 import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Move;
 
 import src.Model.GamePlay.Player;
 
@@ -61,30 +61,26 @@ public abstract class GameAI
 
     /**
      * @param player Player who wants to play
-     * @return Card index that should by played. 
-     * -1 to draw cards
+     * @return Card index of a legal card that should by played, any colored 
+     * card before a ChangeColorCard. -1 to draw cards
      */
     public int getCardIdxToPlayOnTopCard(Player player)
     {
-        Card topCard = this.GameModel.getTopCard();
-        int topCardNumber = this.getCardNumber(topCard);
-        CardColors currentColor = this.GameModel.getCurrentColor();
+        long legalMoves = this.GameModel.legalMoves(player);
         int changeColorCardIdx = -1;
 
-        //Set Non-Number card value to -2
-        topCardNumber = (topCardNumber == -1) ? -2 : topCardNumber;
-
         for(int i = 0; i < player.getNumberOfCards(); ++i)
         {
             Card playerCard = player.getCard(i);
 
-            if(playerCard.getCardColor() == currentColor || 
-                (topCardNumber == this.getCardNumber(playerCard)))
-            {
-                return i;
-            }
-            else if(playerCard instanceof ChangeColorCard)
+            //Prefer any legal colored card, keep ChangeColorCards for last
+            if(((legalMoves >>> playerCard.getCardCode()) & 1L) != 0)
             {
+                if(!(playerCard instanceof ChangeColorCard))
+                {
+                    return i;
+                }
+
                 changeColorCardIdx = i;
             }
         }
@@ -99,5 +95,17 @@ public abstract class GameAI
      * -1 to draw cards. -2 indicates this game is over
      * or it is not this player's turn
      */
-    public abstract int playCard(Player player);
+    public int playCard(Player player)
+    {
+        return this.chooseMove(player).getCardIndex();
+    }
+
+
+    /**
+     * @param player Player that wants to take turn
+     * @return The move to make, with the next color and next direction 
+     * chosen if the card is a ChangeColorCard. Move.DRAW to draw cards, 
+     * Move.NONE if this game is over or it is not this player's turn
+     */
+    public abstract Move chooseMove(Player player);
 }
@@ -0,0 +1,153 @@
+package src.AI;
+
+/**
+ * LatencyHistogram counts latencies in buckets of powers of two
+ * microseconds, bucket i holding the latencies from 2^i up to 2^(i+1)
+ * microseconds and bucket 0 everything under 2 microseconds. Recording is
+ * a few atomic additions, so any thread can record without a lock, and a
+ * percentile is read as the upper bound of the bucket it falls in.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram
+{
+    /** Number of buckets, the last bucket holds everything over about 6
+     * days */
+    public static final int NUMBER_OF_BUCKETS = 40;
+
+    /** Number of latencies in each bucket */
+    private final AtomicLongArray Buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    /** Number of latencies recorded */
+    private final LongAdder Count = new LongAdder();
+    /** Sum of the latencies recorded in nanoseconds */
+    private final LongAdder TotalLatency = new LongAdder();
+    /** Largest latency recorded in nanoseconds */
+    private final AtomicLong MaximumLatency = new AtomicLong();
+
+
+    /**
+     * @param latency Latency to record in nanoseconds, a negative latency
+     * counts as 0
+     */
+    public void record(long latency)
+    {
+        latency = Math.max(latency, 0);
+        int bucket = 63 - Long.numberOfLeadingZeros(Math.max(latency / 1000, 1));
+
+        this.Buckets.incrementAndGet(Math.min(bucket, NUMBER_OF_BUCKETS - 1));
+        this.Count.increment();
+        this.TotalLatency.add(latency);
+        this.MaximumLatency.accumulateAndGet(latency, Math::max);
+    }
+
+
+    /**
+     * Forgets every latency recorded
+     */
+    public void reset()
+    {
+        for(int i = 0; i < NUMBER_OF_BUCKETS; ++i)
+        {
+            this.Buckets.set(i, 0);
+        }
+
+        this.Count.reset();
+        this.TotalLatency.reset();
+        this.MaximumLatency.set(0);
+    }
+
+
+    /**
+     * @param bucket Index of the bucket
+     * @return Number of latencies in the bucket
+     * @throws IndexOutOfBoundsException If there is no bucket at the index
+     */
+    public long getBucketCount(int bucket) throws IndexOutOfBoundsException
+    {
+        return this.Buckets.get(bucket);
+    }
+
+
+    /**
+     * @param bucket Index of the bucket
+     * @return Latency in nanoseconds the bucket holds latencies under, the
+     * last bucket has no bound
+     */
+    public static long getBucketUpperBound(int bucket)
+    {
+        return (bucket >= NUMBER_OF_BUCKETS - 1) ? (Long.MAX_VALUE) : ((1L << (bucket + 1)) * 1000);
+    }
+
+
+    /**
+     * @return Number of latencies recorded
+     */
+    public long getCount()
+    {
+        return this.Count.sum();
+    }
+
+
+    /**
+     * @return Mean of the latencies recorded in nanoseconds, 0 if there are
+     * none
+     */
+    public double getMeanLatency()
+    {
+        long count = this.Count.sum();
+        return (count == 0) ? (0) : ((double) this.TotalLatency.sum() / count);
+    }
+
+
+    /**
+     * @return Largest latency recorded in nanoseconds
+     */
+    public long getMaximumLatency()
+    {
+        return this.MaximumLatency.get();
+    }
+
+
+    /**
+     * @param fraction Fraction of the latencies the percentile is above,
+     * 0.99 for the 99th percentile
+     * @return Upper bound in nanoseconds of the bucket the percentile falls
+     * in, never more than the largest latency, 0 if there are none
+     * @throws IllegalArgumentException If the fraction is not between 0 and 1
+     */
+    public long getPercentile(double fraction) throws IllegalArgumentException
+    {
+        if(!(fraction >= 0 && fraction <= 1))
+        {
+            throw new IllegalArgumentException("Invalid Fraction!");
+        }
+
+        long rank = (long) Math.ceil(fraction * this.Count.sum());
+        long seen = 0;
+
+        for(int i = 0; i < NUMBER_OF_BUCKETS; ++i)
+        {
+            seen += this.Buckets.get(i);
+
+            if(seen >= rank && seen > 0)
+            {
+                return Math.min(getBucketUpperBound(i), this.MaximumLatency.get());
+            }
+        }
+
+        return this.MaximumLatency.get();
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("Count: %d, Mean: %.3f ms, 50th: %.3f ms, 99th: %.3f ms, " +
+            "Maximum: %.3f ms", this.getCount(), this.getMeanLatency() / 1e6,
+                this.getPercentile(0.5) / 1e6, this.getPercentile(0.99) / 1e6,
+                    this.getMaximumLatency() / 1e6);
+    }
+}
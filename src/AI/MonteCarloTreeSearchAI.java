@@ -0,0 +1,567 @@
+package src.AI;
+
+/**
+ * Monte Carlo tree search AI chooses moves with information set Monte Carlo
+ * tree search. The AI cannot see the other players' hands or the card
+ * deck, so every iteration of the search deals the unseen cards at random
+ * with a HandSampler into a copy of the game kept by the thread, walks down 
+ * a tree shared by all of the deals using only the moves that are legal in 
+ * that deal, and plays the game out with baseline AI players.
+ * The search is root parallel: each core grows its own tree from the same
+ * position and the visits of the moves at the roots are added up. Thinking
+ * in the background searches copies of the game until it is stopped,
+ * offering the most visited move every few iterations.
+ */
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
+
+import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.ChangeColorCard;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.HandSampler;
+import src.Model.GamePlay.Move;
+
+import src.Model.GamePlay.Player;
+import src.Model.GamePlay.Game.Direction;
+
+public class MonteCarloTreeSearchAI extends AnytimeGameAI
+{
+    /** Default time budget of a move in milliseconds, half of the time the
+     * controller waits before an AI move */
+    public static final long DEFAULT_TIME_BUDGET = 500;
+    /** Exploration constant of the UCB formula */
+    private static final double EXPLORATION = 0.7;
+    /** Number of choices of color, an action of a ChangeColorCard includes
+     * the next color */
+    static final int NUMBER_OF_COLORS = CardColors.values().length;
+    /** Action of drawing cards, the other actions are card code *
+     * NUMBER_OF_COLORS + next color ordinal */
+    static final int DRAW_ACTION = Card.NUMBER_OF_CARD_KINDS * NUMBER_OF_COLORS;
+    /** Number of different actions */
+    static final int NUMBER_OF_ACTIONS = DRAW_ACTION + 1;
+    /** Longest game played out in an iteration, in turns */
+    private static final int MAXIMUM_TURNS = 1000;
+    /** Number of iterations between the moves offered while thinking */
+    private static final int OFFER_INTERVAL = 64;
+
+    /** Time budget of a move in milliseconds, 0 for no time limit */
+    private long TimeBudget = DEFAULT_TIME_BUDGET;
+    /** Iteration budget of a move summed over all threads, 0 for no limit */
+    private int IterationBudget = 0;
+    /** Number of threads searching, each with its own tree */
+    private int Parallelism = Runtime.getRuntime().availableProcessors();
+    /** Sampler of the unseen cards for each player index, made the first 
+     * time the AI searches for the player */
+    private final HandSampler[] Samplers;
+    /** Random numbers of the searches, split once a decision so the 
+     * game's own random numbers and so its reshuffles are untouched */
+    private final SplittableRandom Random;
+
+
+    /**
+     * @param game Game this AI belongs to
+     */
+    public MonteCarloTreeSearchAI(Game game)
+    {
+        this(game, new SplittableRandom());
+    }
+
+
+    /**
+     * @param game Game this AI belongs to
+     * @param random Random numbers of the searches, the same numbers give
+     * the same moves with an iteration budget and a single thread
+     */
+    public MonteCarloTreeSearchAI(Game game, SplittableRandom random)
+    {
+        super(game);
+        this.Samplers = new HandSampler[Game.getMaximumPlayers()];
+        this.Random = random;
+    }
+
+
+    /**
+     * Lets the samplers infer what the other players do not hold from the 
+     * turn just taken. Calling this after every turn of the game sharpens 
+     * the deals, without it the samplers only catch up when searching.
+     */
+    public void observeTurn()
+    {
+        for(HandSampler sampler : this.Samplers)
+        {
+            if(sampler != null)
+            {
+                sampler.observeTurn();
+            }
+        }
+    }
+
+
+    /**
+     * @param timeBudget Time budget of a move in milliseconds, 0 for no
+     * time limit
+     * @throws IllegalArgumentException If the budget is negative, or there
+     * would be neither a time budget nor an iteration budget
+     */
+    public void setTimeBudget(long timeBudget) throws IllegalArgumentException
+    {
+        if(timeBudget < 0 || (timeBudget == 0 && this.IterationBudget == 0))
+        {
+            throw new IllegalArgumentException("Invalid Time Budget!");
+        }
+
+        this.TimeBudget = timeBudget;
+    }
+
+
+    /**
+     * @param iterationBudget Iteration budget of a move summed over all
+     * threads, 0 for no limit
+     * @throws IllegalArgumentException If the budget is negative, or there
+     * would be neither a time budget nor an iteration budget
+     */
+    public void setIterationBudget(int iterationBudget) throws IllegalArgumentException
+    {
+        if(iterationBudget < 0 || (iterationBudget == 0 && this.TimeBudget == 0))
+        {
+            throw new IllegalArgumentException("Invalid Iteration Budget!");
+        }
+
+        this.IterationBudget = iterationBudget;
+    }
+
+
+    /**
+     * @param parallelism Number of threads searching
+     * @throws IllegalArgumentException If the number of threads is less than 1
+     */
+    public void setParallelism(int parallelism) throws IllegalArgumentException
+    {
+        if(parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism Must Be At Least 1!");
+        }
+
+        this.Parallelism = parallelism;
+    }
+
+
+    @Override
+    public Move chooseMove(Player player)
+    {
+        if(!this.checkPlayerTurn(player))
+        {
+            return Move.NONE;
+        }
+
+        int[] actions = new int[NUMBER_OF_ACTIONS];
+
+        //Drawing is the only move, nothing to search
+        if(getLegalActions(this.GameModel, player, actions) == 1)
+        {
+            return Move.DRAW;
+        }
+
+        HandSampler sampler = this.getSampler(this.GameModel.getCurrentPlayerIndex());
+        SplittableRandom random = this.Random.split();
+        long deadline = (this.TimeBudget == 0) ? 
+            (Long.MAX_VALUE) : (System.nanoTime() + this.TimeBudget * 1000000);
+
+        return getMove(player, getBestAction(
+            this.search(sampler, this.GameModel, random, deadline, null)));
+    }
+
+
+    /**
+     * Offers the move of a baseline AI first, then searches a copy of the 
+     * game until the thinking is stopped or the iteration budget is spent. 
+     * The time budget is left to the deadline of the decision.
+     */
+    @Override
+    protected Runnable prepareThinking(Player player, Thought thought)
+    {
+        thought.offer(new BaselineAI(this.GameModel).chooseMove(player));
+
+        //Drawing is the only move, nothing to search
+        if(getLegalActions(this.GameModel, player, new int[NUMBER_OF_ACTIONS]) == 1)
+        {
+            return null;
+        }
+
+        HandSampler sampler = this.getSampler(this.GameModel.getCurrentPlayerIndex());
+        SplittableRandom random = this.Random.split();
+        Game game = this.GameModel.copy(random.split());
+        HandSampler thinkingSampler = new HandSampler(sampler, game);
+
+        return () -> thought.offer(getMove(game.getCurrentPlayer(), getBestAction(
+            this.search(thinkingSampler, game, random, Long.MAX_VALUE, thought))));
+    }
+
+
+    /**
+     * @param observerIdx Index of the player searching
+     * @return Sampler of the player, made the first time and caught up with
+     * the game otherwise
+     */
+    private HandSampler getSampler(int observerIdx)
+    {
+        if(this.Samplers[observerIdx] == null)
+        {
+            this.Samplers[observerIdx] = new HandSampler(this.GameModel, observerIdx);
+        }
+        else
+        {
+            this.Samplers[observerIdx].synchronize();
+        }
+
+        return this.Samplers[observerIdx];
+    }
+
+
+    /**
+     * @param visits Visits of each action at the root
+     * @return The most visited action, drawing if no action is visited
+     */
+    private static int getBestAction(long[] visits)
+    {
+        int bestAction = DRAW_ACTION;
+
+        for(int i = 0; i < NUMBER_OF_ACTIONS; ++i)
+        {
+            bestAction = (visits[i] > visits[bestAction]) ? (i) : (bestAction);
+        }
+
+        return bestAction;
+    }
+
+
+    /**
+     * @param threadIdx Index of the searching thread
+     * @return Most iterations the thread runs, the iteration budget is split 
+     * evenly and the first threads get the remainder
+     */
+    private int getThreadIterations(int threadIdx)
+    {
+        if(this.IterationBudget == 0)
+        {
+            return Integer.MAX_VALUE;
+        }
+
+        return this.IterationBudget / this.Parallelism 
+            + ((threadIdx < this.IterationBudget % this.Parallelism) ? 1 : 0);
+    }
+
+
+    /**
+     * Searches the game on all threads
+     * @param sampler Sampler of the unseen cards of the player searching
+     * @param game Game the sampler tracks, each thread searches a copy
+     * @param random Source of randomness of the search
+     * @param deadline System.nanoTime() to stop searching at
+     * @param thought Thought to offer the most visited move to every few
+     * iterations and to stop searching with, null when not thinking
+     * @return Visits of each action at the roots summed over all threads
+     */
+    private long[] search(HandSampler sampler, Game game, SplittableRandom random,
+        long deadline, Thought thought)
+    {
+        ArrayList<ForkJoinTask<long[]>> tasks = new ArrayList<ForkJoinTask<long[]>>();
+        AtomicLongArray rootVisits = (thought == null) ? 
+            (null) : (new AtomicLongArray(NUMBER_OF_ACTIONS));
+        Runnable offer = (thought == null) ? (null) : (() ->
+        {
+            long[] visits = new long[NUMBER_OF_ACTIONS];
+
+            for(int i = 0; i < NUMBER_OF_ACTIONS; ++i)
+            {
+                visits[i] = rootVisits.get(i);
+            }
+
+            thought.offer(getMove(game.getCurrentPlayer(), getBestAction(visits)));
+        });
+
+        //This thread searches too, the other threads run in the common pool
+        for(int i = 1; i < this.Parallelism && this.getThreadIterations(i) > 0; ++i)
+        {
+            int iterations = this.getThreadIterations(i);
+            SplittableRandom threadRandom = random.split();
+            HandSampler threadSampler = new HandSampler(sampler);
+            Game threadGame = game.copy(threadRandom);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> searchTree(threadSampler, 
+                threadGame, threadRandom, deadline, iterations, thought, rootVisits, null)));
+        }
+
+        //Only this thread offers moves, the visits of all threads are shared
+        long[] visits = searchTree(sampler, game.copy(random), random, deadline, 
+            this.getThreadIterations(0), thought, rootVisits, offer);
+
+        for(ForkJoinTask<long[]> task : tasks)
+        {
+            long[] threadVisits = task.join();
+
+            for(int i = 0; i < NUMBER_OF_ACTIONS; ++i)
+            {
+                visits[i] += threadVisits[i];
+            }
+        }
+
+        return visits;
+    }
+
+
+    /**
+     * Grows one search tree from the game the sampler deals for
+     * @param sampler Sampler of the unseen cards of the player searching, 
+     * used by this thread only
+     * @param game Copy of the game each deal is made into
+     * @param random Source of randomness for the deals
+     * @param deadline System.nanoTime() to stop searching at
+     * @param iterations Most iterations to run
+     * @param thought Thought to stop searching with, null when not thinking
+     * @param rootVisits Visits of each action at the roots of all threads,
+     * null when not thinking
+     * @param offer Offers the most visited move every few iterations, null
+     * if this thread does not offer moves
+     * @return Visits of each action at the root, at least one iteration
+     * is run whatever the deadline
+     */
+    private static long[] searchTree(HandSampler sampler, Game game,
+        RandomGenerator random, long deadline, int iterations, Thought thought,
+            AtomicLongArray rootVisits, Runnable offer)
+    {
+        SearchNode root = new SearchNode(null, DRAW_ACTION);
+        int[] actions = new int[NUMBER_OF_ACTIONS];
+        //Index of the player who took the action of the node at each depth of
+        //the path, who moves next depends on the deal so it is kept per iteration
+        int[] moverIndices = new int[MAXIMUM_TURNS + 1];
+        GameAI rolloutAIPlayer = new BaselineAI(game);
+
+        for(int i = 0; i < iterations && (i == 0 || (System.nanoTime() < deadline 
+            && (thought == null || !thought.isStopped()))); ++i)
+        {
+            sampler.sample(game, random);
+            SearchNode node = root;
+            int depth = 0;
+            int numberOfTurns = 0;
+
+            //Walk down the tree until a move is tried for the first time
+            for(; !game.isGameOver() && numberOfTurns < MAXIMUM_TURNS; ++numberOfTurns)
+            {
+                Player player = game.getCurrentPlayer();
+                int numberOfActions = getLegalActions(game, player, actions);
+                SearchNode child = node.selectChild(actions, numberOfActions, random);
+
+                moverIndices[++depth] = game.getCurrentPlayerIndex();
+                player.tryPlayCard(getMove(player, child.Action));
+                node = child;
+
+                if(child.Visits == 0)
+                {
+                    ++numberOfTurns;
+                    break;
+                }
+            }
+
+            //Play the rest of the game out with baseline AI players
+            for(; !game.isGameOver() && numberOfTurns < MAXIMUM_TURNS; ++numberOfTurns)
+            {
+                Player player = game.getCurrentPlayer();
+                player.tryPlayCard(rolloutAIPlayer.chooseMove(player));
+            }
+
+            //The player who played the last card stays the current player
+            int winnerIdx = (game.isGameOver()) ? (game.getCurrentPlayerIndex()) : (-1);
+
+            for(; node != null; node = node.Parent, --depth)
+            {
+                node.Visits += 1;
+                node.Wins += (winnerIdx != -1 && depth > 0 
+                    && moverIndices[depth] == winnerIdx) ? 1 : 0;
+
+                if(rootVisits != null && node.Parent == root)
+                {
+                    rootVisits.incrementAndGet(node.Action);
+                }
+            }
+
+            if(offer != null && (i + 1) % OFFER_INTERVAL == 0)
+            {
+                offer.run();
+            }
+        }
+
+        long[] visits = new long[NUMBER_OF_ACTIONS];
+
+        for(SearchNode child : root.Children)
+        {
+            visits[child.Action] = child.Visits;
+        }
+
+        return visits;
+    }
+
+
+    /**
+     * @param game Game to find the actions in
+     * @param player Player taking the turn
+     * @param actions Filled with the legal actions, drawing is always last
+     * @return Number of legal actions
+     */
+    static int getLegalActions(Game game, Player player, int[] actions)
+    {
+        int numberOfActions = 0;
+
+        for(long legalMoves = game.legalMoves(player); legalMoves != 0;
+            legalMoves &= legalMoves - 1)
+        {
+            int cardCode = Long.numberOfTrailingZeros(legalMoves);
+
+            if(CardTable.getCard(cardCode) instanceof ChangeColorCard)
+            {
+                for(int i = 1; i < NUMBER_OF_COLORS; ++i)
+                {
+                    actions[numberOfActions++] = cardCode * NUMBER_OF_COLORS + i;
+                }
+            }
+            else
+            {
+                actions[numberOfActions++] = cardCode * NUMBER_OF_COLORS;
+            }
+        }
+
+        actions[numberOfActions++] = DRAW_ACTION;
+        return numberOfActions;
+    }
+
+
+    /**
+     * @param player Player taking the turn
+     * @param action Action to take
+     * @return The move of the action, a ChangeColorCard keeps the direction
+     */
+    static Move getMove(Player player, int action)
+    {
+        if(action == DRAW_ACTION)
+        {
+            return Move.DRAW;
+        }
+
+        int cardIdx = player.getAllCards().indexOfCardCode(action / NUMBER_OF_COLORS);
+        int nextColor = action % NUMBER_OF_COLORS;
+
+        return (nextColor == 0) ? (new Move(cardIdx)) :
+            (new Move(cardIdx, CardColors.values()[nextColor], Direction.DEFAULT));
+    }
+
+
+    /**
+     * Node of a search tree, reached by an action of a player
+     */
+    private static final class SearchNode
+    {
+        /** Node this node is a child of, null for the root */
+        private final SearchNode Parent;
+        /** Action leading to this node */
+        private final int Action;
+        /** Nodes reached by one more action */
+        private final ArrayList<SearchNode> Children = new ArrayList<SearchNode>();
+        /** Number of iterations through this node */
+        private int Visits = 0;
+        /** Number of iterations through this node won by the player who took
+         * the action in that iteration */
+        private int Wins = 0;
+        /** Number of iterations the action of this node was legal at the parent */
+        private int Availability = 0;
+
+
+        /**
+         * @param parent Node this node is a child of, null for the root
+         * @param action Action leading to this node
+         */
+        private SearchNode(SearchNode parent, int action)
+        {
+            this.Parent = parent;
+            this.Action = action;
+        }
+
+
+        /**
+         * Picks a legal action that was never tried at random, or else the
+         * legal action with the best upper confidence bound
+         * @param actions Legal actions
+         * @param numberOfActions Number of legal actions
+         * @param random Source of randomness for the untried action
+         * @return Child of the action to take, a new child if the action was
+         * never tried
+         */
+        private SearchNode selectChild(int[] actions, int numberOfActions,
+            RandomGenerator random)
+        {
+            SearchNode bestChild = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            int untriedAction = -1;
+            int numberOfUntriedActions = 0;
+
+            for(int i = 0; i < numberOfActions; ++i)
+            {
+                SearchNode child = this.getChild(actions[i]);
+
+                if(child == null)
+                {
+                    //Pick one of the untried actions uniformly
+                    numberOfUntriedActions += 1;
+
+                    if(random.nextInt(numberOfUntriedActions) == 0)
+                    {
+                        untriedAction = actions[i];
+                    }
+                }
+                else
+                {
+                    child.Availability += 1;
+                    double score = (double) child.Wins / child.Visits + EXPLORATION
+                        * Math.sqrt(Math.log(child.Availability) / child.Visits);
+
+                    if(score > bestScore)
+                    {
+                        bestChild = child;
+                        bestScore = score;
+                    }
+                }
+            }
+
+            if(numberOfUntriedActions > 0)
+            {
+                bestChild = new SearchNode(this, untriedAction);
+                this.Children.add(bestChild);
+            }
+
+            return bestChild;
+        }
+
+
+        /**
+         * @param action Action leading to the child
+         * @return Child reached by the action, null if the action was never tried
+         */
+        private SearchNode getChild(int action)
+        {
+            for(SearchNode child : this.Children)
+            {
+                if(child.Action == action)
+                {
+                    return child;
+                }
+            }
+
+            return null;
+        }
+    }
+}
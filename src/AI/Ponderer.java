@@ -0,0 +1,192 @@
+package src.AI;
+
+/**
+ * Ponderer thinks ahead while a human takes a turn. For every legal move of
+ * the human it plays the move on a copy of the game and, if an anytime AI
+ * takes the next turn, starts that AI thinking about the position on a
+ * bounded pool of background threads. The thoughts are kept by the Zobrist
+ * hash of the position, so once the human has moved the thought about the
+ * position the game reached is taken up by the AI and every other thought
+ * is stopped. A position the copy reached another way, such as a reshuffle
+ * of the card deck, has another hash and is simply not found.
+ */
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import src.AI.AnytimeGameAI.Thought;
+import src.Model.GamePlay.Game;
+
+import src.Model.GamePlay.Player;
+
+public class Ponderer
+{
+    /** Threads the thoughts run on */
+    private final ThreadPoolExecutor Executor;
+    /** Thoughts about the positions the game may reach, by hash */
+    private final HashMap<Long, Thought> Thoughts = new HashMap<Long, Thought>();
+    /** Legal actions of the player whose moves are pondered */
+    private final int[] Actions = new int[MonteCarloTreeSearchAI.NUMBER_OF_ACTIONS];
+    /** Number of positions pondered */
+    private long NumberOfPositions = 0;
+    /** Number of claims that found a thought */
+    private long NumberOfHits = 0;
+    /** Number of claims that found no thought */
+    private long NumberOfMisses = 0;
+
+
+    /**
+     * @param numberOfThreads Most thoughts running at once
+     * @param maximumWaiting Most thoughts waiting for a thread, positions
+     * past that are not pondered
+     * @throws IllegalArgumentException If either number is less than 1
+     */
+    public Ponderer(int numberOfThreads, int maximumWaiting) throws IllegalArgumentException
+    {
+        if(numberOfThreads < 1 || maximumWaiting < 1)
+        {
+            throw new IllegalArgumentException("Invalid Ponderer Size!");
+        }
+
+        this.Executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(maximumWaiting), runnable ->
+        {
+            Thread thread = new Thread(runnable, "Ponderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Stops the thoughts of the last turn and starts thinking about the
+     * position after each legal move of the current player
+     * @param game Game whose current player is about to move
+     * @param aiFactory Makes the AI taking the turn after a move, given a
+     * copy of the game after the move, null if that player is not pondered
+     */
+    public synchronized void ponder(Game game, Function<Game, AnytimeGameAI> aiFactory)
+    {
+        this.discard();
+
+        if(game.isGameOver())
+        {
+            return;
+        }
+
+        //The copies are dealt from the hash, the game's random numbers are untouched
+        SplittableRandom random = new SplittableRandom(game.getHash());
+        int numberOfActions = MonteCarloTreeSearchAI.getLegalActions(game,
+            game.getCurrentPlayer(), this.Actions);
+
+        for(int i = 0; i < numberOfActions; ++i)
+        {
+            Game copy = game.copy(random.split());
+            Player player = copy.getCurrentPlayer();
+            player.tryPlayCard(MonteCarloTreeSearchAI.getMove(player, this.Actions[i]));
+            AnytimeGameAI aiPlayer = (copy.isGameOver() || copy.getCurrentPlayer() == player) ?
+                (null) : (aiFactory.apply(copy));
+
+            if(aiPlayer == null || this.Thoughts.containsKey(copy.getHash()))
+            {
+                continue;
+            }
+
+            try
+            {
+                this.Thoughts.put(copy.getHash(),
+                    aiPlayer.think(copy.getCurrentPlayer(), this.Executor));
+                this.NumberOfPositions += 1;
+            }
+            catch(RejectedExecutionException ex)
+            {
+                //Every thread is busy and the queue is full, the rest is not pondered
+                break;
+            }
+        }
+    }
+
+
+    /**
+     * Takes the thought about the position the game is in and stops every
+     * other thought
+     * @param game Game whose current player is about to move
+     * @return Thought about the current player's move, null if the position
+     * was not pondered
+     */
+    public synchronized Thought claim(Game game)
+    {
+        //The game is not hashed when nothing was pondered
+        Thought thought = (this.Thoughts.isEmpty()) ? 
+            (null) : (this.Thoughts.remove(game.getHash()));
+        this.discard();
+
+        if(thought == null)
+        {
+            this.NumberOfMisses += 1;
+        }
+        else
+        {
+            this.NumberOfHits += 1;
+        }
+
+        return thought;
+    }
+
+
+    /**
+     * Stops every thought, thoughts still waiting for a thread never start
+     */
+    public synchronized void discard()
+    {
+        for(Thought thought : this.Thoughts.values())
+        {
+            thought.stop();
+        }
+
+        this.Thoughts.clear();
+        this.Executor.purge();
+    }
+
+
+    /**
+     * Stops every thought and the threads
+     */
+    public synchronized void shutdown()
+    {
+        this.discard();
+        this.Executor.shutdown();
+    }
+
+
+    /**
+     * @return Number of positions pondered
+     */
+    public synchronized long getNumberOfPositions()
+    {
+        return this.NumberOfPositions;
+    }
+
+
+    /**
+     * @return Number of claims that found a thought
+     */
+    public synchronized long getNumberOfHits()
+    {
+        return this.NumberOfHits;
+    }
+
+
+    /**
+     * @return Number of claims that found no thought
+     */
+    public synchronized long getNumberOfMisses()
+    {
+        return this.NumberOfMisses;
+    }
+}
@@ -2,21 +2,38 @@ package src.AI;
 
 /**
  * Strategic AI is customed AI which playes card strategically
- * to win the game instaed of naively
+ * to win the game instaed of naively. Given an endgame solver, in the 
+ * endgame it deals the hidden cards a few times and plays the move the 
+ * solver wins the most deals with. Thinking in the background offers the
+ * strategic move at once and in the endgame keeps solving more deals until
+ * it is stopped.
  */
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import src.Model.Card.ChangeColorCard;
 import src.Model.Card.DrawTwoCard;
 import src.Model.Card.WildDrawFourCard;
 import src.Model.GamePlay.Game;
+import src.Model.GamePlay.HandSampler;
+import src.Model.GamePlay.Move;
 
 import src.Model.GamePlay.Player;
 import src.Model.GamePlay.Game.Direction;
 
-public class StrategicAI extends GameAI
+public class StrategicAI extends AnytimeGameAI
 {
+    /** Number of deals of the hidden cards solved for an endgame move */
+    private static final int NUMBER_OF_ENDGAME_DEALS = 4;
+    /** Most deals of the hidden cards solved while thinking */
+    private static final int MAXIMUM_THINKING_DEALS = 64;
+    /** Memory of the transposition table of the solver used while thinking */
+    private static final long THINKING_TABLE_SIZE = 1 << 18;
+
+    /** Solves endgames, null to play endgames like the rest of the game */
+    private EndgameSolver Solver = null;
+
+
     /**
      * @param game Game this AI belongs to
      */
@@ -27,66 +44,165 @@ public class StrategicAI extends GameAI
 
 
     /**
-     * Sets the card color to most popular card color in player's hand
-     * and randomely selects direction of the game
+     * Plays the ChangeColor card with the most popular card color in 
+     * player's hand and randomely selects direction of the game using 
+     * the game's random number generator
      * @param player Player whose ChangeColor cards needs to be used
      * @param index Index of changeColor card in player's hand
+     * @return The move playing the ChangeColor card
      */
-    private void setChangeColorCardNextColorAndDirection(Player player, int index)
+    private Move getChangeColorCardMove(Player player, int index)
     {
-        ((ChangeColorCard) player.getCard(index))
-            .setNextColor(player.getMaximumCardColor());
-        ((ChangeColorCard) player.getCard(index)).setNextDirection
-            (Direction.values()[new Random().nextInt(Direction.values().length)]);
+        return new Move(index, player.getMaximumCardColor(), 
+            Direction.values()[this.GameModel.getRandomGenerator()
+                .nextInt(Direction.values().length)]);
     }
 
 
-    @Override
-    public int playCard(Player player) 
+    /**
+     * Solving endgames costs a few milliseconds a move, so it is off unless 
+     * a solver is given
+     * @param solver Solver of endgames, null to stop solving endgames
+     */
+    public void setEndgameSolver(EndgameSolver solver)
     {
-        if(this.checkPlayerTurn(player))
+        this.Solver = solver;
+    }
+
+
+    /**
+     * Solves the endgame for a few deals of the cards the player cannot see. 
+     * The deals are seeded by the hash of what the player can see, so the 
+     * hidden cards have no say in them, the position as the player sees it 
+     * always gets the same move and the game's random numbers are untouched. 
+     * A win that starts by drawing relies on the order of the dealt card 
+     * deck, so it is not counted.
+     * @param game Game whose current player's move is wanted
+     * @param solver Solver of the deals
+     * @param numberOfDeals Most deals to solve
+     * @param thought Thought to offer the move winning the most deals to 
+     * after each deal and to stop solving with, null when not thinking
+     * @return The move that wins the most deals, null if no deal is won
+     */
+    private static Move getEndgameMove(Game game, EndgameSolver solver, 
+        int numberOfDeals, Thought thought)
+    {
+        SplittableRandom random = new SplittableRandom(
+            game.getObservableHash(game.getCurrentPlayerIndex()));
+        HandSampler sampler = new HandSampler(game, game.getCurrentPlayerIndex());
+        Game deal = game.copy(random);
+        int[] wins = new int[MonteCarloTreeSearchAI.NUMBER_OF_ACTIONS];
+        int bestAction = -1;
+
+        for(int i = 0; i < numberOfDeals && (thought == null || !thought.isStopped()); ++i)
         {
-            int playCardIdx = -1;
+            sampler.sample(deal, random);
+            solver.solve(deal);
 
-            if(this.GameModel.getDrawCardsNumber() == 0)
+            if(solver.getValue() == EndgameSolver.WIN 
+                && solver.getBestAction() != MonteCarloTreeSearchAI.DRAW_ACTION)
             {
-                playCardIdx = this.getCardIdxToPlayOnTopCard(player);
+                int action = solver.getBestAction();
+                wins[action] += 1;
+                bestAction = (bestAction == -1 || wins[action] > wins[bestAction]) ? 
+                    (action) : (bestAction);
 
-                if(playCardIdx != -1 && player.getCard(playCardIdx) instanceof ChangeColorCard)
+                if(thought != null)
                 {
-                    this.setChangeColorCardNextColorAndDirection(player, playCardIdx);
+                    thought.offer(MonteCarloTreeSearchAI.getMove(game.getCurrentPlayer(), bestAction));
                 }
             }
-            else
+        }
+
+        return (bestAction == -1) ? 
+            (null) : (MonteCarloTreeSearchAI.getMove(game.getCurrentPlayer(), bestAction));
+    }
+
+
+    @Override
+    public Move chooseMove(Player player) 
+    {
+        if(this.checkPlayerTurn(player))
+        {
+            Move endgameMove = (this.Solver != null && EndgameSolver.isEndgame(this.GameModel)) ? 
+                (getEndgameMove(this.GameModel, this.Solver, NUMBER_OF_ENDGAME_DEALS, null)) : 
+                    (null);
+
+            return (endgameMove != null) ? (endgameMove) : (this.getStrategicMove(player));
+        }
+
+        return Move.NONE;
+    }
+
+
+    /**
+     * Offers the strategic move first. Given an endgame solver, in the 
+     * endgame the thinking solves deals of a copy of the game with a solver 
+     * of its own, offering the move winning the most deals after each one.
+     */
+    @Override
+    protected Runnable prepareThinking(Player player, Thought thought)
+    {
+        thought.offer(this.getStrategicMove(player));
+
+        if(this.Solver == null || !EndgameSolver.isEndgame(this.GameModel))
+        {
+            return null;
+        }
+
+        Game game = this.GameModel.copy(new SplittableRandom(
+            this.GameModel.getObservableHash(this.GameModel.getCurrentPlayerIndex())));
+        EndgameSolver solver = new EndgameSolver(new TranspositionTable(THINKING_TABLE_SIZE));
+
+        return () -> getEndgameMove(game, solver, MAXIMUM_THINKING_DEALS, thought);
+    }
+
+
+    /**
+     * @param player Player whose turn it is
+     * @return The move that keeps the draw cards going if it can, otherwise 
+     * a legal colored card before a ChangeColor card, Move.DRAW if no card 
+     * can be played
+     */
+    private Move getStrategicMove(Player player)
+    {
+        if(this.GameModel.getDrawCardsNumber() == 0)
+        {
+            int playCardIdx = this.getCardIdxToPlayOnTopCard(player);
+
+            if(playCardIdx != -1 && player.getCard(playCardIdx) instanceof ChangeColorCard)
+            {
+                return this.getChangeColorCardMove(player, playCardIdx);
+            }
+
+            return (playCardIdx == -1) ? Move.DRAW : new Move(playCardIdx);
+        }
+        else
+        {
+            //If top card is wild draw four then try to find wild draw four
+            if(this.GameModel.getTopCard() instanceof WildDrawFourCard)
             {
-                //If top card is wild draw four then try to find wild draw four
-                if(this.GameModel.getTopCard() instanceof WildDrawFourCard)
+                for(int i = 0; i < player.getNumberOfCards(); ++i)
                 {
-                    for(int i = 0; i < player.getNumberOfCards(); ++i)
+                    if(player.getCard(i) instanceof WildDrawFourCard)
                     {
-                        if(player.getCard(i) instanceof WildDrawFourCard)
-                        {
-                            this.setChangeColorCardNextColorAndDirection(player, i);
-                            return i;
-                        }
+                        return this.getChangeColorCardMove(player, i);
                     }
                 }
-                //If top card is draw two, then try to find draw two from the deck
-                else
+            }
+            //If top card is draw two, then try to find draw two from the deck
+            else
+            {
+                for(int i = 0; i < player.getNumberOfCards(); ++i)
                 {
-                    for(int i = 0; i < player.getNumberOfCards(); ++i)
+                    if(player.getCard(i) instanceof DrawTwoCard)
                     {
-                        if(player.getCard(i) instanceof DrawTwoCard)
-                        {
-                            return i;
-                        }
+                        return new Move(i);
                     }
                 }
             }
-
-            return playCardIdx;
         }
 
-        return -2;
+        return Move.DRAW;
     }
 }
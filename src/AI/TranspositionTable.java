@@ -0,0 +1,304 @@
+package src.AI;
+
+/**
+ * TranspositionTable remembers what a search found out about positions, by
+ * the Zobrist hash of the game, so a position reached again by another
+ * order of moves is not searched again. The table is a fixed size array of
+ * longs split into buckets of four entries, one cache line each. An entry
+ * is two longs, the hash exclusive or the data and the data, so an entry
+ * torn by two threads writing at once fails the check and reads as a miss.
+ * That makes the table safe to share between threads without any locks.
+ * A full bucket gives up the entry of the oldest search, and among entries
+ * of the same search the one searched to the least depth.
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable
+{
+    /** Value is exact */
+    public static final int EXACT = 1;
+    /** Value is a lower bound of the real value */
+    public static final int LOWER_BOUND = 2;
+    /** Value is an upper bound of the real value */
+    public static final int UPPER_BOUND = 3;
+    /** Returned by probe when the position is not in the table */
+    public static final long MISS = 0;
+    /** Largest depth an entry can hold */
+    public static final int MAXIMUM_DEPTH = 255;
+    /** Largest best move an entry can hold, -1 is stored for no move */
+    public static final int MAXIMUM_MOVE = 4094;
+
+    /** Number of entries in a bucket */
+    private static final int BUCKET_SIZE = 4;
+    /** Number of longs in an entry */
+    private static final int ENTRY_SIZE = 2;
+    /** Position of the best move in the data of an entry */
+    private static final int MOVE_SHIFT = 32;
+    /** Position of the depth in the data of an entry */
+    private static final int DEPTH_SHIFT = 44;
+    /** Position of the age in the data of an entry */
+    private static final int AGE_SHIFT = 52;
+    /** Position of the bound in the data of an entry, an empty entry has
+     * no bound so its data is 0 */
+    private static final int BOUND_SHIFT = 60;
+
+    /** Buckets of entries, each entry is the hash exclusive or the data
+     * followed by the data */
+    private final long[] Table;
+    /** Mask of the bucket index bits of a hash */
+    private final long BucketMask;
+    /** Age of the current search, entries of older searches are replaced
+     * first */
+    private volatile int Age = 0;
+    /** Number of probes that found the position */
+    private final LongAdder Hits = new LongAdder();
+    /** Number of probes that did not find the position */
+    private final LongAdder Misses = new LongAdder();
+    /** Number of stores that replaced the entry of another position */
+    private final LongAdder Collisions = new LongAdder();
+
+
+    /**
+     * @param sizeInBytes Most memory the table may use, rounded down to a
+     * power of two buckets
+     * @throws IllegalArgumentException If there is not room for one bucket,
+     * or the table would be larger than an array can hold
+     */
+    public TranspositionTable(long sizeInBytes) throws IllegalArgumentException
+    {
+        long bucketBytes = (long) BUCKET_SIZE * ENTRY_SIZE * Long.BYTES;
+
+        if(sizeInBytes < bucketBytes)
+        {
+            throw new IllegalArgumentException("Transposition Table Too Small!");
+        }
+
+        long numberOfBuckets = Long.highestOneBit(sizeInBytes / bucketBytes);
+
+        if(numberOfBuckets * BUCKET_SIZE * ENTRY_SIZE > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Transposition Table Too Large!");
+        }
+
+        this.Table = new long[(int) (numberOfBuckets * BUCKET_SIZE * ENTRY_SIZE)];
+        this.BucketMask = numberOfBuckets - 1;
+    }
+
+
+    /**
+     * Looks up a position
+     * @param hash Zobrist hash of the position
+     * @return Data of the entry, read with getValue, getBestMove, getDepth
+     * and getBound, or MISS if the position is not in the table
+     */
+    public long probe(long hash)
+    {
+        int bucket = this.getBucket(hash);
+
+        for(int i = bucket; i < bucket + BUCKET_SIZE * ENTRY_SIZE; i += ENTRY_SIZE)
+        {
+            long data = this.Table[i + 1];
+
+            if(data != MISS && (this.Table[i] ^ data) == hash)
+            {
+                this.Hits.increment();
+                return data;
+            }
+        }
+
+        this.Misses.increment();
+        return MISS;
+    }
+
+
+    /**
+     * Stores what a search found out about a position
+     * @param hash Zobrist hash of the position
+     * @param value Value of the position
+     * @param bestMove Best move found, -1 for no move
+     * @param depth Depth the position was searched to, capped at
+     * MAXIMUM_DEPTH
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @throws IllegalArgumentException If the best move or bound is invalid,
+     * or the depth is negative
+     */
+    public void store(long hash, int value, int bestMove, int depth, int bound)
+        throws IllegalArgumentException
+    {
+        if(bestMove < -1 || bestMove > MAXIMUM_MOVE || depth < 0
+            || bound < EXACT || bound > UPPER_BOUND)
+        {
+            throw new IllegalArgumentException("Invalid Transposition Table Entry!");
+        }
+
+        int age = this.Age & 0xFF;
+        long data = (value & 0xFFFFFFFFL) | ((long) (bestMove + 1) << MOVE_SHIFT)
+            | ((long) Math.min(depth, MAXIMUM_DEPTH) << DEPTH_SHIFT)
+                | ((long) age << AGE_SHIFT) | ((long) bound << BOUND_SHIFT);
+        int bucket = this.getBucket(hash);
+        int replaceIdx = bucket;
+        int replaceWorth = Integer.MAX_VALUE;
+
+        for(int i = bucket; i < bucket + BUCKET_SIZE * ENTRY_SIZE; i += ENTRY_SIZE)
+        {
+            long oldData = this.Table[i + 1];
+
+            if(oldData == MISS || (this.Table[i] ^ oldData) == hash)
+            {
+                replaceIdx = i;
+                replaceWorth = -1;
+                break;
+            }
+
+            //Entries of older searches are worth less than any of this search
+            int worth = getDepth(oldData)
+                + ((getAge(oldData) == age) ? (MAXIMUM_DEPTH + 1) : (0));
+
+            if(worth < replaceWorth)
+            {
+                replaceIdx = i;
+                replaceWorth = worth;
+            }
+        }
+
+        if(replaceWorth != -1)
+        {
+            this.Collisions.increment();
+        }
+
+        this.Table[replaceIdx] = hash ^ data;
+        this.Table[replaceIdx + 1] = data;
+    }
+
+
+    /**
+     * Starts a new search, the entries of earlier searches are kept but
+     * replaced first
+     */
+    public void newSearch()
+    {
+        this.Age = (this.Age + 1) & 0xFF;
+    }
+
+
+    /**
+     * Empties the table and resets the counters
+     */
+    public void clear()
+    {
+        for(int i = 0; i < this.Table.length; ++i)
+        {
+            this.Table[i] = 0;
+        }
+
+        this.Hits.reset();
+        this.Misses.reset();
+        this.Collisions.reset();
+    }
+
+
+    /**
+     * @param hash Zobrist hash of a position
+     * @return Index of the first long of the position's bucket
+     */
+    private int getBucket(long hash)
+    {
+        return (int) (hash & this.BucketMask) * BUCKET_SIZE * ENTRY_SIZE;
+    }
+
+
+    /**
+     * @param data Data of an entry
+     * @return Value of the position
+     */
+    public static int getValue(long data)
+    {
+        return (int) data;
+    }
+
+
+    /**
+     * @param data Data of an entry
+     * @return Best move found, -1 for no move
+     */
+    public static int getBestMove(long data)
+    {
+        return (int) ((data >>> MOVE_SHIFT) & 0xFFF) - 1;
+    }
+
+
+    /**
+     * @param data Data of an entry
+     * @return Depth the position was searched to
+     */
+    public static int getDepth(long data)
+    {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+
+    /**
+     * @param data Data of an entry
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public static int getBound(long data)
+    {
+        return (int) ((data >>> BOUND_SHIFT) & 0xF);
+    }
+
+
+    /**
+     * @param data Data of an entry
+     * @return Age of the search that stored the entry
+     */
+    private static int getAge(long data)
+    {
+        return (int) ((data >>> AGE_SHIFT) & 0xFF);
+    }
+
+
+    /**
+     * @return Number of probes that found the position
+     */
+    public long getHits()
+    {
+        return this.Hits.sum();
+    }
+
+
+    /**
+     * @return Number of probes that did not find the position
+     */
+    public long getMisses()
+    {
+        return this.Misses.sum();
+    }
+
+
+    /**
+     * @return Number of stores that replaced the entry of another position
+     */
+    public long getCollisions()
+    {
+        return this.Collisions.sum();
+    }
+
+
+    /**
+     * @return Number of entries the table holds
+     */
+    public int getNumberOfEntries()
+    {
+        return this.Table.length / ENTRY_SIZE;
+    }
+
+
+    /**
+     * @return Number of bytes the entries take
+     */
+    public long getSizeInBytes()
+    {
+        return (long) this.Table.length * Long.BYTES;
+    }
+}
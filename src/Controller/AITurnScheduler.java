@@ -0,0 +1,201 @@
+package src.Controller;
+
+/**
+ * AITurnScheduler takes the AI turns of a game one at a time on a single
+ * background thread. The AI decides on that thread, the move waits there
+ * until the turn time is up, and then it is handed to the event dispatch
+ * thread, which owns the views and submits the move to the game loop, whose
+ * thread owns the game. A turn can be cancelled up to the moment its move
+ * is handed over, and the thread is a daemon that ends on shutdown, so 
+ * however many turns are played no thread is left behind.
+ */
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import src.Model.GamePlay.Move;
+
+public class AITurnScheduler
+{
+    /** Thread the turns are taken on */
+    private final ScheduledExecutorService Executor;
+    /** Turn being taken, null before the first turn */
+    private Turn CurrentTurn = null;
+
+
+    /**
+     * Creates the scheduler, its thread starts with the first turn
+     */
+    public AITurnScheduler()
+    {
+        this.Executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "AI Turn Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Starts an AI turn, a turn still being taken is cancelled
+     * @param decision Chooses the move, called on the scheduler thread
+     * @param turnTime Milliseconds from now until the move is handed over,
+     * however soon it is chosen
+     * @param play Plays the move, called on the event dispatch thread
+     * unless the turn is cancelled first
+     * @throws RejectedExecutionException If the scheduler is shut down
+     */
+    public synchronized void scheduleTurn(Supplier<Move> decision, long turnTime,
+        Consumer<Move> play) throws RejectedExecutionException
+    {
+        this.cancelTurn();
+        Turn turn = new Turn(decision, System.nanoTime() + turnTime * 1000000, play);
+
+        //The turn holds its decision before the decision can run, so the
+        //decision's own scheduling of the move always comes after
+        FutureTask<Void> decisionTask = new FutureTask<Void>(turn::decide, null);
+        turn.Task = decisionTask;
+        this.Executor.execute(decisionTask);
+        this.CurrentTurn = turn;
+    }
+
+
+    /**
+     * Cancels the turn being taken, its move is never made. A decision
+     * still running is interrupted.
+     */
+    public synchronized void cancelTurn()
+    {
+        Turn turn = this.CurrentTurn;
+
+        if(turn != null)
+        {
+            turn.cancel();
+            this.CurrentTurn = null;
+        }
+    }
+
+
+    /**
+     * Cancels the turn being taken and ends the scheduler thread, no turn
+     * can be scheduled after this
+     */
+    public synchronized void shutdown()
+    {
+        this.cancelTurn();
+        this.Executor.shutdownNow();
+    }
+
+
+    /**
+     * @return If the scheduler was shut down
+     */
+    public boolean isShutdown()
+    {
+        return this.Executor.isShutdown();
+    }
+
+
+    /**
+     * One AI turn, from the decision to the move made
+     */
+    private final class Turn
+    {
+        /** Chooses the move */
+        private final Supplier<Move> Decision;
+        /** System.nanoTime() the move is made at */
+        private final long MoveTime;
+        /** Makes the move */
+        private final Consumer<Move> Play;
+        /** Step of the turn waiting or running on the scheduler */
+        private volatile Future<?> Task = null;
+        /** If the move should never be made */
+        private volatile boolean Cancelled = false;
+
+
+        /**
+         * @param decision Chooses the move
+         * @param moveTime System.nanoTime() the move is made at
+         * @param play Makes the move
+         */
+        private Turn(Supplier<Move> decision, long moveTime, Consumer<Move> play)
+        {
+            this.Decision = decision;
+            this.MoveTime = moveTime;
+            this.Play = play;
+        }
+
+
+        /**
+         * Chooses the move and waits on the scheduler until the turn time
+         * is up to hand it over
+         */
+        private void decide()
+        {
+            Move move = this.Decision.get();
+
+            if(this.Cancelled)
+            {
+                return;
+            }
+
+            try
+            {
+                this.Task = Executor.schedule(() -> this.handOver(move),
+                    this.MoveTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                //A cancel since the check above may have missed the new task
+                if(this.Cancelled)
+                {
+                    this.Task.cancel(false);
+                }
+            }
+            catch(RejectedExecutionException ex)
+            {
+                //The scheduler was shut down while the AI was deciding
+                this.Cancelled = true;
+            }
+        }
+
+
+        /**
+         * @param move Move to play on the event dispatch thread, where a
+         * cancel has either come before or not at all
+         */
+        private void handOver(Move move)
+        {
+            SwingUtilities.invokeLater(() ->
+            {
+                if(!this.Cancelled)
+                {
+                    this.Play.accept(move);
+                }
+            });
+        }
+
+
+        /**
+         * Stops the turn, no move is played after this if it is called on the
+         * event dispatch thread
+         */
+        private void cancel()
+        {
+            this.Cancelled = true;
+            Future<?> task = this.Task;
+
+            if(task != null)
+            {
+                task.cancel(true);
+            }
+        }
+    }
+}
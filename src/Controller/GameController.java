@@ -8,30 +8,35 @@ package src.Controller;
 
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
-import java.awt.Image;
 import java.awt.Color;
-import java.util.ArrayList;
+import java.util.HashMap;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import src.AI.AnytimeGameAI;
 import src.AI.BaselineAI;
+import src.AI.EndgameSolver;
 import src.AI.GameAI;
+import src.AI.Ponderer;
 import src.AI.StrategicAI;
 
 import javax.swing.ImageIcon;
 import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 import src.Model.Card.Card;
 import src.Model.Card.ChangeColorCard;
-import src.Model.Card.DrawTwoCard;
-import src.Model.Card.NumberCard;
-import src.Model.Card.ReverseCard;
-import src.Model.Card.WildDrawFourCard;
 import src.Model.Card.Card.CardColors;
 import src.Model.GamePlay.Game;
+import src.Model.GamePlay.GameSnapshot;
+import src.Model.GamePlay.Move;
+import src.Model.GamePlay.MoveResult;
+import src.Model.GamePlay.Player;
 import src.Model.GamePlay.Game.Direction;
 import src.Model.GamePlay.Player.PlayerType;
+import src.View.CardImageCache;
 import src.View.ChoosePlayerView;
 import src.View.GameOverView;
 import src.View.GameView;
@@ -39,6 +44,9 @@ import src.View.GameView;
 
 public class GameController 
 {
+    /**Most times a second the game state is drawn in the game view */
+    public static final int FRAMES_PER_SECOND = 30;
+
     /**Number of player selection */
     private ChoosePlayerView choosePlayerView;
     /**View when the game is in process */
@@ -49,14 +57,36 @@ public class GameController
     private Game game;
     /**The index of the card which the plaer is viewing */
     private int playerCardIndex = 0;
-    /**Images of player cards */
-    private ArrayList<ImageIcon> playerCards;
+    /**Images of each player's cards as last shown, by player ID */
+    private HashMap<Integer, HandImages> playerCards;
     /**Strategic AI robot to play the game */
     private GameAI GameStrategicAIPlayer;
     /**Baseline AI robot to play the game */
     private GameAI GameBaselineAIPlayer;
-    /**Put AI to sleep */
+    /**Time an AI takes for its turn, an anytime AI thinks for that long */
     private int AISleepTime = 1000;
+    /**Thinks ahead for the AI players while a human takes a turn */
+    private Ponderer AIPonderer = new Ponderer(Math.max(1, 
+        Runtime.getRuntime().availableProcessors() - 1), 64);
+    /**Endgame solver of the strategic AI robots, null as solving costs a few ms a move */
+    private EndgameSolver StrategicAISolver = null;
+    /**Takes the AI turns of the game off the event dispatch thread */
+    private AITurnScheduler AITurns;
+    /**Only thread that changes the game, every move is made on it */
+    private GameLoop GameMoveLoop;
+    /**Draws the game state once a frame, however many moves were made in it */
+    private final Timer FrameTimer = new Timer(1000 / FRAMES_PER_SECOND, 
+        e -> this.showGameState());
+    /**Code of the top card shown, -1 before the first frame */
+    private int ShownTopCardCode = -1;
+    /**Color shown, null before the first frame */
+    private CardColors ShownColor = null;
+    /**Direction shown, null before the first frame */
+    private Direction ShownDirection = null;
+    /**Number of penalties shown, -1 before the first frame */
+    private int ShownDrawCardsNumber = -1;
+    /**ID of the current player shown, -1 before the first frame */
+    private int ShownPlayerID = -1;
 
 
     /**
@@ -68,11 +98,36 @@ public class GameController
     }
 
 
+    /**
+     * Lets the strategic AI robots of the next game solve endgames, which
+     * they do not by default as it costs a few milliseconds a move
+     * @param solver Solver of endgames, null to stop solving endgames
+     */
+    public void setStrategicAIEndgameSolver(EndgameSolver solver)
+    {
+        this.StrategicAISolver = solver;
+    }
+
+
+    /**
+     * @return Strategic AI robot playing the game, its decision latencies
+     * are recorded when it is an anytime AI
+     */
+    public GameAI getStrategicAIPlayer()
+    {
+        return this.GameStrategicAIPlayer;
+    }
+
+
     /**
      * Start number of player selection menu
      */
     public GameController()
     {
+        //A frame is drawn once after the first change, and later changes wait for it
+        this.FrameTimer.setRepeats(false);
+        //The card images load while the players are being chosen
+        CardImageCache.preload(GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT);
         this.choosePlayerView = new ChoosePlayerView();
         this.addActionTochoosePlayerView();
         this.choosePlayerView.launchFrame();
@@ -184,36 +239,73 @@ public class GameController
                 if(game.getCurrentPlayer().getCard(playerCardIndex) 
                     instanceof ChangeColorCard)
                 {
-                    //Set the card's next color and next direction if it is a wild 
+                    //Play with the chosen next color and next direction if it is a wild 
                     //or wilddrawfour card
-                    ((ChangeColorCard) game.getCurrentPlayer().getCard(playerCardIndex))
-                        .setNextColor((String) gameView.changeColorDropDownBox.getSelectedItem() 
-                            == "DEFAULT" ? game.getCurrentColor() : src.Model.Card.Card.CardColors.valueOf
-                                ((String) gameView.changeColorDropDownBox.getSelectedItem()));
-                    ((ChangeColorCard) game.getCurrentPlayer().getCard(playerCardIndex))
-                        .setNextDirection(Direction.valueOf(
-                            (String) gameView.changeDirectionDropDownBox.getSelectedItem()));
+                    playCardAndUpdateGameViewComponents(new Move(playerCardIndex, 
+                        (String) gameView.changeColorDropDownBox.getSelectedItem() 
+                            == "DEFAULT" ? game.getCurrentColor() : CardColors.valueOf
+                                ((String) gameView.changeColorDropDownBox.getSelectedItem()), 
+                                    Direction.valueOf((String) gameView
+                                        .changeDirectionDropDownBox.getSelectedItem())));
+                }
+                else
+                {
+                    playCardAndUpdateGameViewComponents(new Move(playerCardIndex));
                 }
-
-                playCardAndUpdateGameViewComponents(playerCardIndex);
             }
         });
     }
 
 
     /**
-     * @param playerCardIndex Card index to play from the player hand
+     * @param move Move to make with the card from the player hand
      */
-    private void playCardAndUpdateGameViewComponents(int playerCardIndex)
+    private void playCardAndUpdateGameViewComponents(Move move)
     {
-        playRequestedCard(playerCardIndex);
+        //The game loop makes the move, no other move is taken meanwhile and 
+        //the game is read again only once the result is back
+        GameLoop gameLoop = this.GameMoveLoop;
+        this.gameView.playCardButton.setEnabled(false);
+        this.gameView.skipDrawButton.setEnabled(false);
 
-        if(this.gameView.autoHideCheckBox.isSelected()) 
-        { 
-            this.gameView.hideShowCardsButton.setText("SHOW");
-        }
+        boolean submitted = gameLoop.submit(this.game.getCurrentPlayer().getPlayerID(), move, 
+            result -> SwingUtilities.invokeLater(() -> 
+        {
+            //A result from the loop of a game since replaced is dropped
+            if(gameLoop == this.GameMoveLoop)
+            {
+                if(gameLoop.getFailure() != null)
+                {
+                    this.stopFailedGame();
+                    return;
+                }
 
-        updateGameViewComponents();
+                this.showMoveResult(result);
+
+                if(this.gameView.autoHideCheckBox.isSelected()) 
+                { 
+                    this.gameView.hideShowCardsButton.setText("SHOW");
+                }
+
+                this.updateGameViewComponents();
+            }
+        }));
+
+        //The move was refused, so the turn is given back to be taken again
+        if(!submitted)
+        {
+            if(this.game.getCurrentPlayer().getPlayerType() == PlayerType.HUMAN)
+            {
+                this.gameView.skipDrawButton.setEnabled(true);
+                this.updateSelectedPlayerCardInGameView();
+            }
+            else
+            {
+                this.letAIplay();
+            }
+
+            this.gameView.errorMessageField.setText("Move Not Made, Try Again!");
+        }
     }
 
 
@@ -237,7 +329,7 @@ public class GameController
             @Override
             public void actionPerformed(ActionEvent e) 
             {
-                playCardAndUpdateGameViewComponents(-1);
+                playCardAndUpdateGameViewComponents(Move.DRAW);
             }
         });
 
@@ -306,18 +398,31 @@ public class GameController
 
 
     /**
-     * @param cardIdx Card index to play from the player hand
+     * Freezes a game whose loop stopped at a failing move, the game may be
+     * half changed so no more turns are taken in it
      */
-    private void playRequestedCard(int cardIdx)
+    private void stopFailedGame()
     {
-        try
+        this.gameView.stopGame();
+        this.AITurns.shutdown();
+        this.AIPonderer.discard();
+        this.gameView.errorMessageField.setText("Move Failed, The Game Cannot Go On!");
+    }
+
+
+    /**
+     * @param result Result of the move made, null if the card index was invalid
+     */
+    private void showMoveResult(MoveResult result)
+    {
+        if(result == null)
         {
-            this.game.getCurrentPlayer().playCard(cardIdx);
-            this.gameView.errorMessageField.setText("");
+            this.gameView.errorMessageField.setText("Invalid Card Index!");
         }
-        catch(IllegalArgumentException | IllegalAccessException ex)
+        else
         {
-            this.gameView.errorMessageField.setText(ex.getMessage());
+            this.gameView.errorMessageField.setText((result.isSuccess()) ? 
+                ("") : (result.getMessage()));
         }
     }
 
@@ -331,8 +436,8 @@ public class GameController
         {
             //If cards are not hidden then show the cards to the player
             this.gameView.playCardButton.setEnabled(true);
-            this.gameView.selectedPlayerCard.setIcon
-                (this.playerCards.get(this.playerCardIndex));
+            this.gameView.selectedPlayerCard.setIcon(this.playerCards
+                .get(this.game.getCurrentPlayer().getPlayerID()).getImage(this.playerCardIndex));
 
             if(game.getCurrentPlayer().getCard(this.playerCardIndex) 
                 instanceof ChangeColorCard)
@@ -371,10 +476,11 @@ public class GameController
      */
     public void updateGameViewComponents()
     {
-        this.updatePenaltiesCounterLabelInGameView();
-        this.updateCurrentColorLabelInGameView();
-        this.updateCurrentDirectionLabelInGameView();
-        this.updateTopCardInGameView();
+        //Moves made within a frame are drawn together
+        if(!this.FrameTimer.isRunning())
+        {
+            this.FrameTimer.start();
+        }
 
         if(this.game.isGameOver())
         {
@@ -383,7 +489,6 @@ public class GameController
         else
         {
             this.playerCardIndex = 0;
-            this.updateCurrentPlayerLabelInGameView();
             this.gameView.seekLeftPlayerCardsButton.setEnabled(false);
 
             if(this.game.getCurrentPlayer().getPlayerType() != PlayerType.HUMAN) 
@@ -403,6 +508,16 @@ public class GameController
      */
     private void letHumanPlay()
     {
+        //The AI players think about the human's likely moves in the meantime,
+        //a strategic AI only has thinking to do with the endgame solver, so
+        //without it the game is not copied for nothing
+        if(this.StrategicAISolver != null)
+        {
+            this.AIPonderer.ponder(this.game, copy -> 
+                (copy.getCurrentPlayer().getPlayerType() == PlayerType.STRATEGIC_AI) ? 
+                    (this.makeStrategicAIPlayer(copy)) : (null));
+        }
+
         this.gameView.skipDrawButton.setEnabled(true);
         this.gameView.hideShowCardsButton.setEnabled(true);
         this.updatePlayerCardsInGameView();
@@ -423,33 +538,36 @@ public class GameController
             (((this.game.getCurrentPlayer().getPlayerType() == PlayerType.STRATEGIC_AI) ? 
                 ("Strategic") : ("Baseline")) + " AI's Turn!");
         
-        new Thread()
+        //No turn is taken once the game is over and its scheduler shut down
+        if(this.AITurns.isShutdown())
         {
-            public void run()
-            {
-                try
-                {
-                    Thread.sleep(AISleepTime);
-                } 
-                catch(InterruptedException ex) 
-                {
-                    /**If there is interruption, then continue with AI playing card */
-                }
+            return;
+        }
 
-                //Decide which AI has to play
-                if(game.getCurrentPlayer().getPlayerType() == 
-                    PlayerType.STRATEGIC_AI)
-                {
-                    playCardAndUpdateGameViewComponents
-                        (GameStrategicAIPlayer.playCard(game.getCurrentPlayer()));
-                }
-                else
-                {
-                    playCardAndUpdateGameViewComponents
-                        (GameBaselineAIPlayer.playCard(game.getCurrentPlayer()));
-                }
-            }
-        }.start();
+        //Decide which AI has to play
+        GameAI aiPlayer = (this.game.getCurrentPlayer().getPlayerType() == 
+            PlayerType.STRATEGIC_AI) ? (this.GameStrategicAIPlayer) : (this.GameBaselineAIPlayer);
+        int turnTime = this.AISleepTime;
+        Player player = this.game.getCurrentPlayer();
+
+        //An anytime AI thinks from the start of its turn until the time is up, 
+        //going on from its thought about the position if it was pondered
+        AnytimeGameAI.Thought ponderedThought = this.AIPonderer.claim(this.game);
+
+        if(aiPlayer instanceof AnytimeGameAI && ponderedThought != null)
+        {
+            ((AnytimeGameAI) aiPlayer).takeUpThought(ponderedThought);
+        }
+        else if(aiPlayer instanceof AnytimeGameAI)
+        {
+            ((AnytimeGameAI) aiPlayer).startThinking(player);
+        }
+
+        //The turn takes the same time however soon the move is found, and the 
+        //move is made back on the event dispatch thread
+        this.AITurns.scheduleTurn(() -> (aiPlayer instanceof AnytimeGameAI) ? 
+            (((AnytimeGameAI) aiPlayer).awaitMove(turnTime)) : (aiPlayer.chooseMove(player)), 
+                turnTime, this::playCardAndUpdateGameViewComponents);
     }
 
 
@@ -475,8 +593,14 @@ public class GameController
      */
     public void launchGameOverView() 
     {
+        //The last move is drawn now, the game view is frozen next
+        this.FrameTimer.stop();
+        this.showGameState();
         this.gameView.selectedPlayerCard.setIcon(this.gameView.blankCardImage);
         this.gameView.stopGame();
+        this.GameMoveLoop.stop();
+        this.AITurns.shutdown();
+        this.AIPonderer.discard();
         this.gameOverView = new GameOverView();
         this.gameOverView.messageLabel.setText("WINNER OF THIS GAME IS PLAYER: " 
             + Integer.toString(this.game.getCurrentPlayer().getPlayerID()));
@@ -486,6 +610,18 @@ public class GameController
     }
 
 
+    /**
+     * @param game Game the AI plays in
+     * @return Strategic AI robot, solving endgames if a solver is set
+     */
+    private StrategicAI makeStrategicAIPlayer(Game game)
+    {
+        StrategicAI strategicAIPlayer = new StrategicAI(game);
+        strategicAIPlayer.setEndgameSolver(this.StrategicAISolver);
+        return strategicAIPlayer;
+    }
+
+
     /**
      * Launch the game view frame
      */
@@ -493,18 +629,32 @@ public class GameController
     {
         if(this.gameView != null)
         {
+            this.GameMoveLoop.stop();
+            this.AITurns.shutdown();
+            this.AIPonderer.discard();
             this.gameView.destroyFrame();
         }
 
         this.game = new Game(this.choosePlayerView.totalNumberOfPlayersSlider.getValue(), 
             this.choosePlayerView.numberOfAIPlayersSlider.getValue(), 
                 this.choosePlayerView.numberOfStrategicAIPlayersSlider.getValue());
+        this.GameMoveLoop = new GameLoop(this.game, 16);
+        this.GameMoveLoop.start();
+        this.AITurns = new AITurnScheduler();
         this.gameView = new GameView();
-        this.playerCards = new ArrayList<ImageIcon>();
+        this.playerCards = new HashMap<Integer, HandImages>();
+        this.ShownTopCardCode = -1;
+        this.ShownColor = null;
+        this.ShownDirection = null;
+        this.ShownDrawCardsNumber = -1;
+        this.ShownPlayerID = -1;
         this.GameBaselineAIPlayer = new BaselineAI(this.game);
-        this.GameStrategicAIPlayer = new StrategicAI(this.game);
+        this.GameStrategicAIPlayer = this.makeStrategicAIPlayer(this.game);
         this.addActionToGameMenu();
         this.updateGameViewComponents();
+
+        //The labels are sized by their text, so the first frame is drawn at once
+        this.showGameState();
         this.gameView.setSizeOfComponents();
         this.gameView.launchFrame();
     }
@@ -515,12 +665,10 @@ public class GameController
      */
     private void updatePlayerCardsInGameView() 
     {
-        this.playerCards.clear();
-
-        for(Card card : this.game.getCurrentPlayer().getAllCards())
-        {
-            this.playerCards.add(this.getCardImageIconFromCard(card));
-        }
+        //Only the cards played or drawn since the player's last turn are fetched
+        this.playerCards.computeIfAbsent(this.game.getCurrentPlayer().getPlayerID(), 
+            playerID -> new HandImages(GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT))
+                .update(this.game.getCurrentPlayer().getAllCards());
 
         this.gameView.seekRightPlayerCardsButton.setEnabled
             (this.game.getCurrentPlayer().getNumberOfCards() > 1);
@@ -528,37 +676,74 @@ public class GameController
 
 
     /**
-     * Update the penalties label in the game view
+     * Show the game as of the last batch of moves the game loop made, 
+     * changing only the components whose value changed since the last frame.
+     * The snapshot is read, not the game, as the loop may be making a move
      */
-    private void updateCurrentPlayerLabelInGameView()
+    private void showGameState()
     {
-        this.gameView.currentPlayerLabel.setText("PLAYER: " + 
-            Integer.toString(this.game.getCurrentPlayer().getPlayerID()));
+        GameSnapshot snapshot = this.GameMoveLoop.getSnapshot();
+        this.updatePenaltiesCounterLabelInGameView(snapshot);
+        this.updateCurrentColorLabelInGameView(snapshot);
+        this.updateCurrentDirectionLabelInGameView(snapshot);
+        this.updateTopCardInGameView(snapshot);
+
+        if(!snapshot.isGameOver())
+        {
+            this.updateCurrentPlayerLabelInGameView(snapshot);
+        }
+    }
+
+
+    /**
+     * Update the current player label in the game view
+     * @param snapshot Game state to show
+     */
+    private void updateCurrentPlayerLabelInGameView(GameSnapshot snapshot)
+    {
+        int playerID = this.game.getPlayer(snapshot.getCurrentPlayerIndex()).getPlayerID();
+
+        if(playerID != this.ShownPlayerID)
+        {
+            this.ShownPlayerID = playerID;
+            this.gameView.currentPlayerLabel.setText("PLAYER: " + 
+                Integer.toString(playerID));
+        }
     }
 
 
     /**
      * Update the penalties label in the game view
+     * @param snapshot Game state to show
      */
-    private void updatePenaltiesCounterLabelInGameView()
+    private void updatePenaltiesCounterLabelInGameView(GameSnapshot snapshot)
     {
-        this.gameView.penaltiesCounterLabel.setText("PENALTIES: " + 
-            Integer.toString(this.game.getDrawCardsNumber()));
+        if(snapshot.getDrawCardsNumber() != this.ShownDrawCardsNumber)
+        {
+            this.ShownDrawCardsNumber = snapshot.getDrawCardsNumber();
+            this.gameView.penaltiesCounterLabel.setText("PENALTIES: " + 
+                Integer.toString(this.ShownDrawCardsNumber));
 
-        this.gameView.skipDrawButton.setText
-            (this.game.getDrawCardsNumber() == 0 ? "SKIP" : "DRAW");
+            this.gameView.skipDrawButton.setText
+                (this.ShownDrawCardsNumber == 0 ? "SKIP" : "DRAW");
+        }
     }
 
 
     /**
      * Update the current color label in the game view
+     * @param snapshot Game state to show
      */
-    private void updateCurrentColorLabelInGameView()
+    private void updateCurrentColorLabelInGameView(GameSnapshot snapshot)
     {
-        this.gameView.currentColorLabel.setText("COLOR: " + 
-            this.game.getCurrentColor().toString());
-        this.gameView.currentColorLabel.setForeground(
-            this.getColorFromCardColor(this.game.getCurrentColor()));
+        if(snapshot.getCurrentColor() != this.ShownColor)
+        {
+            this.ShownColor = snapshot.getCurrentColor();
+            this.gameView.currentColorLabel.setText("COLOR: " + 
+                this.ShownColor.toString());
+            this.gameView.currentColorLabel.setForeground(
+                this.getColorFromCardColor(this.ShownColor));
+        }
     }
 
 
@@ -582,10 +767,18 @@ public class GameController
 
     /**
      * Update the direction label of the game view
+     * @param snapshot Game state to show
      */
-    private void updateCurrentDirectionLabelInGameView()
+    private void updateCurrentDirectionLabelInGameView(GameSnapshot snapshot)
     {
-        if(this.game.getCurrentDirection() == Direction.CLOCKWISE)
+        if(snapshot.getCurrentDirection() == this.ShownDirection)
+        {
+            return;
+        }
+
+        this.ShownDirection = snapshot.getCurrentDirection();
+
+        if(this.ShownDirection == Direction.CLOCKWISE)
         {
             this.gameView.currentDirectionLabel.setText("DIRECTION: CLOCK");
         }
@@ -598,57 +791,28 @@ public class GameController
 
     /**
      * Update the top card in the game view
+     * @param snapshot Game state to show
      */
-    private void updateTopCardInGameView()
+    private void updateTopCardInGameView(GameSnapshot snapshot)
     {
-        this.gameView.topCard.setIcon
-            (this.getCardImageIconFromCard(this.game.getTopCard()));
+        Card topCard = snapshot.getTopCard();
+
+        if(topCard.getCardCode() != this.ShownTopCardCode)
+        {
+            this.ShownTopCardCode = topCard.getCardCode();
+            this.gameView.topCard.setIcon(this.getCardImageIconFromCard(topCard));
+        }
     }
 
 
     /**
-     * Gets the card image address from the card provided
-     * @param card Card that the user wants the address of
-     * @return The image of the card
+     * Gets the image of the card provided
+     * @param card Card that the user wants the image of
+     * @return The image of the card, scaled once and shared
      */
     private ImageIcon getCardImageIconFromCard(Card card)
     {
-        String imageAddress = "src/Resources/CardImages/";
-
-        if(card instanceof ChangeColorCard)
-        {
-            imageAddress += "WILD";
-
-            if(card instanceof WildDrawFourCard)
-            {
-                imageAddress += "D";
-            }
-        }
-        else
-        { 
-            imageAddress += card.getCardColor().toString();
-
-            if(card instanceof NumberCard)
-            {
-                imageAddress += Integer.toString(
-                    ((NumberCard) card).getCardNumber());
-            }
-            else if(card instanceof DrawTwoCard)
-            {
-                imageAddress += "D";
-            }
-            else if(card instanceof ReverseCard)
-            {
-                imageAddress += "R";
-            }
-            else
-            {
-                imageAddress += "S";
-            }
-        }
-
-        //Return the image of the card in the file location after rescaling it
-        return new ImageIcon(new ImageIcon(imageAddress + ".png").getImage()
-            .getScaledInstance(160, 240, Image.SCALE_SMOOTH));
+        return CardImageCache.getCardImageIcon(card, GameView.CARD_IMAGE_WIDTH, 
+            GameView.CARD_IMAGE_HEIGHT);
     }
 }
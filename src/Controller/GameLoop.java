@@ -0,0 +1,296 @@
+package src.Controller;
+
+/**
+ * GameLoop is the one thread that changes a game. Moves from any thread,
+ * the human's on the event dispatch thread and the AIs', are put in a
+ * bounded ring buffer and the loop makes them in order, so the game is
+ * never changed by two threads at once and needs no locks. The loop takes
+ * the moves waiting in a batch, publishes a snapshot of the game once the
+ * batch is made, and then reports the result of every move. A thread that
+ * reads the game after the result of the last move it submitted reads it
+ * safely, and any thread can read the published snapshot at any time.
+ * A move that fails with an exception other than an invalid card index may
+ * leave the game half changed, so the loop stops there and keeps the
+ * exception, after handing it to the thread's uncaught exception handler.
+ */
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.GameSnapshot;
+import src.Model.GamePlay.Move;
+import src.Model.GamePlay.MoveResult;
+import src.Model.GamePlay.Player;
+
+public class GameLoop
+{
+    /** Most moves made before a snapshot is published */
+    public static final int MAXIMUM_BATCH_SIZE = 64;
+
+    /** Game the loop changes */
+    private final Game LoopGame;
+    /** Moves waiting to be made */
+    private final RingBuffer<Command> Commands;
+    /** Moves of the batch being made */
+    private final Command[] Batch = new Command[MAXIMUM_BATCH_SIZE];
+    /** Results of the moves of the batch being made */
+    private final MoveResult[] BatchResults = new MoveResult[MAXIMUM_BATCH_SIZE];
+    /** Thread the moves are made on */
+    private final Thread LoopThread;
+    /** If the loop takes moves */
+    private volatile boolean Running = true;
+    /** If the loop is waiting for moves, a submit wakes it up */
+    private volatile boolean Waiting = false;
+    /** Snapshot of the game after the last batch */
+    private volatile GameSnapshot Snapshot;
+    /** Number of moves made */
+    private volatile long NumberOfMoves = 0;
+    /** Number of batches made */
+    private volatile long NumberOfBatches = 0;
+    /** Exception a move failed with, null if no move failed */
+    private volatile RuntimeException Failure = null;
+
+
+    /**
+     * @param game Game the loop changes, no other thread may change it once
+     * the loop is started
+     * @param capacity Most moves waiting at once, a power of two
+     * @throws IllegalArgumentException If the capacity is not a positive
+     * power of two
+     */
+    public GameLoop(Game game, int capacity) throws IllegalArgumentException
+    {
+        this.LoopGame = game;
+        this.Commands = new RingBuffer<Command>(capacity);
+        this.Snapshot = game.snapshot();
+        this.LoopThread = new Thread(this::run, "Game Loop");
+        this.LoopThread.setDaemon(true);
+    }
+
+
+    /**
+     * Starts the loop thread
+     * @throws IllegalThreadStateException If the loop was started before
+     */
+    public void start() throws IllegalThreadStateException
+    {
+        this.LoopThread.start();
+    }
+
+
+    /**
+     * Stops the loop thread after the batch being made, moves still waiting
+     * are never made and their results never reported
+     */
+    public void stop()
+    {
+        this.Running = false;
+        LockSupport.unpark(this.LoopThread);
+    }
+
+
+    /**
+     * Submits a move, from any thread
+     * @param playerID ID of the player making the move
+     * @param move Move to make, with the next color and direction of a
+     * ChangeColorCard
+     * @param onResult Called on the loop thread with the result of the move
+     * as Player.tryPlayCard gives it, null if the player or the card index
+     * is invalid or the move failed, see getFailure
+     * @return If the move was submitted, false if too many moves are waiting
+     * or the loop is stopped
+     */
+    public boolean submit(int playerID, Move move, Consumer<MoveResult> onResult)
+    {
+        if(!this.Running || !this.Commands.offer(new Command(playerID, move, onResult)))
+        {
+            return false;
+        }
+
+        //The volatile reads after the offer make sure a waiting loop is woken
+        if(this.Waiting)
+        {
+            LockSupport.unpark(this.LoopThread);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * @return Snapshot of the game after the last batch of moves
+     */
+    public GameSnapshot getSnapshot()
+    {
+        return this.Snapshot;
+    }
+
+
+    /**
+     * @return Number of moves made
+     */
+    public long getNumberOfMoves()
+    {
+        return this.NumberOfMoves;
+    }
+
+
+    /**
+     * @return Number of batches made, fewer than the moves when moves come
+     * faster than the loop makes them
+     */
+    public long getNumberOfBatches()
+    {
+        return this.NumberOfBatches;
+    }
+
+
+    /**
+     * @return Exception a move failed with, the loop is stopped at it, null
+     * if no move failed
+     */
+    public RuntimeException getFailure()
+    {
+        return this.Failure;
+    }
+
+
+    /**
+     * @return If the loop thread is running
+     */
+    public boolean isAlive()
+    {
+        return this.LoopThread.isAlive();
+    }
+
+
+    /**
+     * Makes the moves in batches until the loop is stopped
+     */
+    private void run()
+    {
+        while(this.Running)
+        {
+            int batchSize = 0;
+
+            for(Command command; batchSize < MAXIMUM_BATCH_SIZE && this.Running
+                && (command = this.Commands.poll()) != null; ++batchSize)
+            {
+                this.Batch[batchSize] = command;
+
+                try
+                {
+                    this.BatchResults[batchSize] = this.makeMove(command);
+                }
+                catch(RuntimeException ex)
+                {
+                    //The game may be half changed, so no more moves are made on it
+                    this.BatchResults[batchSize] = null;
+                    this.Failure = ex;
+                    this.Running = false;
+                    this.reportException(ex);
+                }
+            }
+
+            if(batchSize == 0)
+            {
+                //Check again once waiting is visible, so no submit is missed
+                this.Waiting = true;
+
+                if(this.Running && this.Commands.isEmpty())
+                {
+                    LockSupport.park(this);
+                }
+
+                this.Waiting = false;
+                continue;
+            }
+
+            this.Snapshot = this.LoopGame.snapshot();
+            this.NumberOfMoves += batchSize;
+            this.NumberOfBatches += 1;
+
+            for(int i = 0; i < batchSize; ++i)
+            {
+                try
+                {
+                    this.Batch[i].OnResult.accept(this.BatchResults[i]);
+                }
+                catch(RuntimeException ex)
+                {
+                    //A failing callback must not end the loop for every other move
+                    this.reportException(ex);
+                }
+
+                this.Batch[i] = null;
+            }
+        }
+    }
+
+
+    /**
+     * Hands an exception to the uncaught exception handler of the loop 
+     * thread, which prints it by default, without ending the thread
+     * @param ex Exception to report
+     */
+    private void reportException(RuntimeException ex)
+    {
+        this.LoopThread.getUncaughtExceptionHandler().uncaughtException(this.LoopThread, ex);
+    }
+
+
+    /**
+     * @param command Move to make
+     * @return Result of the move, null if the player or the card index is
+     * invalid, the game is unchanged then
+     * @throws RuntimeException If the move failed otherwise
+     */
+    private MoveResult makeMove(Command command) throws RuntimeException
+    {
+        for(Player player : this.LoopGame.getAllPlayers())
+        {
+            if(player.getPlayerID() == command.PlayerID)
+            {
+                int cardIndex = command.PlayerMove.getCardIndex();
+
+                //An invalid card index is refused before the game is touched
+                if(cardIndex < -1 || cardIndex >= player.getNumberOfCards())
+                {
+                    return null;
+                }
+
+                return player.tryPlayCard(command.PlayerMove);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * A move submitted to the loop
+     */
+    private static final class Command
+    {
+        /** ID of the player making the move */
+        private final int PlayerID;
+        /** Move to make */
+        private final Move PlayerMove;
+        /** Called with the result of the move */
+        private final Consumer<MoveResult> OnResult;
+
+
+        /**
+         * @param playerID ID of the player making the move
+         * @param move Move to make
+         * @param onResult Called with the result of the move
+         */
+        private Command(int playerID, Move move, Consumer<MoveResult> onResult)
+        {
+            this.PlayerID = playerID;
+            this.PlayerMove = move;
+            this.OnResult = onResult;
+        }
+    }
+}
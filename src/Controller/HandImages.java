@@ -0,0 +1,106 @@
+package src.Controller;
+
+/**
+ * HandImages keeps the images of the cards of a hand as the game view last
+ * showed them. Updating it to the hand as it is now compares the two and
+ * changes only the images of the cards that changed between them, after
+ * the cards both start and end with, so the card played or the cards drawn
+ * are fetched and the rest of the hand is left alone.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.ImageIcon;
+
+import src.Model.Card.Card;
+import src.View.CardImageCache;
+
+public class HandImages
+{
+    /** Codes of the cards shown, in the order of the hand */
+    private final ArrayList<Integer> CardCodes = new ArrayList<Integer>();
+    /** Images of the cards shown, in the order of the hand */
+    private final ArrayList<ImageIcon> Images = new ArrayList<ImageIcon>();
+    /** Width of the images in pixels */
+    private final int ImageWidth;
+    /** Height of the images in pixels */
+    private final int ImageHeight;
+
+
+    /**
+     * @param width Width of the images in pixels
+     * @param height Height of the images in pixels
+     * @throws IllegalArgumentException If the width or height is not positive
+     */
+    public HandImages(int width, int height) throws IllegalArgumentException
+    {
+        if(width < 1 || height < 1)
+        {
+            throw new IllegalArgumentException("Invalid Card Image Size!");
+        }
+
+        this.ImageWidth = width;
+        this.ImageHeight = height;
+    }
+
+
+    /**
+     * Changes the images to the cards of the hand
+     * @param cards Cards of the hand now
+     * @return Number of images fetched, 0 if the hand did not change
+     */
+    public int update(List<Card> cards)
+    {
+        int numberOfCards = cards.size();
+        int numberOfShownCards = this.CardCodes.size();
+        int shorterLength = Math.min(numberOfCards, numberOfShownCards);
+        int start = 0;
+        int end = 0;
+
+        //Skip the cards both hands start with and then the ones they end with
+        while(start < shorterLength
+            && cards.get(start).getCardCode() == this.CardCodes.get(start))
+        {
+            ++start;
+        }
+
+        while(end < shorterLength - start && cards.get(numberOfCards - end - 1)
+            .getCardCode() == this.CardCodes.get(numberOfShownCards - end - 1))
+        {
+            ++end;
+        }
+
+        this.CardCodes.subList(start, numberOfShownCards - end).clear();
+        this.Images.subList(start, numberOfShownCards - end).clear();
+
+        for(int i = start; i < numberOfCards - end; ++i)
+        {
+            this.CardCodes.add(i, cards.get(i).getCardCode());
+            this.Images.add(i, CardImageCache.getCardImageIcon(cards.get(i),
+                this.ImageWidth, this.ImageHeight));
+        }
+
+        return numberOfCards - end - start;
+    }
+
+
+    /**
+     * @param index Index of the card in the hand
+     * @return Image of the card
+     * @throws IndexOutOfBoundsException If there is no card at the index
+     */
+    public ImageIcon getImage(int index) throws IndexOutOfBoundsException
+    {
+        return this.Images.get(index);
+    }
+
+
+    /**
+     * @return Number of cards shown
+     */
+    public int size()
+    {
+        return this.Images.size();
+    }
+}
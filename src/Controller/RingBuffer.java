@@ -0,0 +1,152 @@
+package src.Controller;
+
+/**
+ * RingBuffer is a bounded queue for many producer threads and one consumer
+ * thread that takes no locks. Every slot carries a sequence number telling
+ * whose turn it is: a producer claims the next slot with one compare and
+ * set on the tail and publishes its element by moving the sequence on, and
+ * the consumer takes the element once the sequence says it is there. A
+ * full buffer refuses the element instead of blocking the producer.
+ * @param <E> Type of the elements
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class RingBuffer<E>
+{
+    /** Elements in the slots, null in an empty slot */
+    private final Object[] Elements;
+    /** Sequence number of each slot, the position of the slot when it is
+     * empty and the position plus 1 once its element is published */
+    private final AtomicLongArray Sequences;
+    /** Capacity - 1, to index the slots */
+    private final int Mask;
+    /** Position the next element is put at */
+    private final AtomicLong Tail = new AtomicLong();
+    /** Position the next element is taken from, only the consumer moves it */
+    private volatile long Head = 0;
+
+
+    /**
+     * @param capacity Most elements the buffer holds, a power of two
+     * @throws IllegalArgumentException If the capacity is not a positive
+     * power of two
+     */
+    public RingBuffer(int capacity) throws IllegalArgumentException
+    {
+        if(capacity < 1 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("Capacity Must Be A Power Of Two!");
+        }
+
+        this.Elements = new Object[capacity];
+        this.Sequences = new AtomicLongArray(capacity);
+        this.Mask = capacity - 1;
+
+        for(int i = 0; i < capacity; ++i)
+        {
+            this.Sequences.set(i, i);
+        }
+    }
+
+
+    /**
+     * Puts the element at the tail, from any thread
+     * @param element Element to put
+     * @return If the element was put, false if the buffer is full
+     * @throws NullPointerException If the element is null
+     */
+    public boolean offer(E element) throws NullPointerException
+    {
+        if(element == null)
+        {
+            throw new NullPointerException("Element Cannot Be Null!");
+        }
+
+        long tail = this.Tail.get();
+
+        while(true)
+        {
+            int slot = (int) (tail & this.Mask);
+            long difference = this.Sequences.get(slot) - tail;
+
+            if(difference == 0)
+            {
+                if(this.Tail.compareAndSet(tail, tail + 1))
+                {
+                    //The volatile sequence write publishes the element
+                    this.Elements[slot] = element;
+                    this.Sequences.set(slot, tail + 1);
+                    return true;
+                }
+
+                tail = this.Tail.get();
+            }
+            else if(difference < 0)
+            {
+                //The consumer has not taken the element a lap ago yet
+                return false;
+            }
+            else
+            {
+                //Another producer claimed the slot first
+                tail = this.Tail.get();
+            }
+        }
+    }
+
+
+    /**
+     * Takes the element at the head, only from the consumer thread
+     * @return Element taken, null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll()
+    {
+        long head = this.Head;
+        int slot = (int) (head & this.Mask);
+
+        if(this.Sequences.get(slot) != head + 1)
+        {
+            return null;
+        }
+
+        E element = (E) this.Elements[slot];
+        this.Elements[slot] = null;
+
+        //The slot is free for the element a lap later
+        this.Sequences.set(slot, head + this.Mask + 1);
+        this.Head = head + 1;
+        return element;
+    }
+
+
+    /**
+     * @return If there is no element to take, exact from the consumer thread
+     */
+    public boolean isEmpty()
+    {
+        long head = this.Head;
+        return this.Sequences.get((int) (head & this.Mask)) != head + 1;
+    }
+
+
+    /**
+     * @return Number of elements in the buffer, a moment's estimate from
+     * other threads than the consumer
+     */
+    public int size()
+    {
+        return (int) Math.max(0, Math.min(this.Tail.get() - this.Head, this.Mask + 1));
+    }
+
+
+    /**
+     * @return Most elements the buffer holds
+     */
+    public int getCapacity()
+    {
+        return this.Mask + 1;
+    }
+}
@@ -1,11 +1,11 @@
 package src.Model.Card;
 
 /**
- * Card class is an abstract class which defines a structure of a card
+ * Card class is an abstract class which defines a structure of a card. 
+ * Cards are immutable, so the same card object can be shared by every 
+ * game, see CardTable for the one card object of each kind.
  */
 
-import java.util.ArrayList;
-
 public abstract class Card 
 {
     /**
@@ -17,16 +17,53 @@ public abstract class Card
     };
 
 
+    /** Number of different kinds of cards */
+    public static final int NUMBER_OF_CARD_KINDS = 54;
+    /** Number of kinds of cards of each color */
+    private static final int CARD_KINDS_PER_COLOR = 13;
+
     /** This card color */
-    private CardColors CardColor;
+    private final CardColors CardColor;
+    /** Code of this kind of card, from 0 to NUMBER_OF_CARD_KINDS - 1 */
+    private final int CardCode;
 
 
     /**
      * @param cardColor Create this card with the specified color
+     * @param cardCode Code of this kind of card
      */
-    public Card(CardColors cardColor)
+    protected Card(CardColors cardColor, int cardCode)
     {
         this.CardColor = cardColor;
+        this.CardCode = cardCode;
+    }
+
+
+    /**
+     * @param cardColor Color of the card, cannot be wild
+     * @param faceIndex Index of the face of the card within its color
+     * @return Code of the colored kind of card
+     * @throws IllegalArgumentException If the color is wild
+     */
+    protected static int getColoredCardCode(CardColors cardColor, int faceIndex) 
+        throws IllegalArgumentException
+    {
+        if(cardColor == CardColors.WILD)
+        {
+            throw new IllegalArgumentException("Colored Card Cannot Be Wild!");
+        }
+
+        return (cardColor.ordinal() - 1) * CARD_KINDS_PER_COLOR + faceIndex;
+    }
+
+
+    /**
+     * @param cardColor Card color
+     * @return The bit of the color in a mask of card colors
+     */
+    public static int getColorBit(CardColors cardColor)
+    {
+        return 1 << cardColor.ordinal();
     }
 
 
@@ -39,13 +76,25 @@ public abstract class Card
     }
 
     
+    /**
+     * @return Gets the code of this kind of card, cards of the same kind have 
+     * the same code
+     */
+    public int getCardCode()
+    {
+        return this.CardCode;
+    }
+
+    
     /**
      * Checks if the move is legal
      * @param topCard Topcard in the discard card deck
      * @param currentColor Current color to be used
      * @param drawCardsNumber Number of cards that is due for drawing
+     * @param playerColorMask Color bits of the colors in the player's hand,
+     * see getColorBit
      * @return If the move is legal than true else false
      */
     public abstract boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors);
+        int drawCardsNumber, int playerColorMask);
 }
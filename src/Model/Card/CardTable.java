@@ -0,0 +1,173 @@
+package src.Model.Card;
+
+/**
+ * CardTable holds the one shared card object of each kind of card, and the
+ * 108 cards of a full UNO deck made of those shared cards. Cards are
+ * immutable, so every game, on every thread, can use the same card objects.
+ */
+
+import src.Model.Card.Card.CardColors;
+
+public final class CardTable
+{
+    /** Number of cards in a full UNO deck */
+    public static final int NUMBER_OF_CARDS_IN_DECK = 108;
+    /** The shared card of each kind, indexed by card code */
+    private static final Card[] CARDS = new Card[Card.NUMBER_OF_CARD_KINDS];
+    /** The cards of a full UNO deck */
+    private static final Card[] DECK = new Card[NUMBER_OF_CARDS_IN_DECK];
+
+    static
+    {
+        CardColors[] colors = CardColors.values();
+
+        for(int i = 1; i < colors.length; ++i)
+        {
+            for(int j = 0; j < 10; ++j)
+            {
+                addCard(new NumberCard(colors[i], j));
+            }
+
+            addCard(new SkipCard(colors[i]));
+            addCard(new ReverseCard(colors[i]));
+            addCard(new DrawTwoCard(colors[i]));
+        }
+
+        addCard(new WildCard());
+        addCard(new WildDrawFourCard());
+
+        int deckIndex = 0;
+
+        for(int i = 1; i < colors.length; ++i)
+        {
+            //Zero card, wild card, wild draw four card for each color
+            //(Red, Green, Yellow, Blue)
+            DECK[deckIndex++] = getNumberCard(colors[i], 0);
+            DECK[deckIndex++] = getWildCard();
+            DECK[deckIndex++] = getWildDrawFourCard();
+
+            for(int j = 0; j < 2; ++j)
+            {
+                //Skip card, reverse card, draw two card, 2 for each color
+                //(Red, Green, Yellow, Blue)
+                DECK[deckIndex++] = getSkipCard(colors[i]);
+                DECK[deckIndex++] = getReverseCard(colors[i]);
+                DECK[deckIndex++] = getDrawTwoCard(colors[i]);
+
+                //Number card 1-9, 2 for each color (Red, Green, Yellow, Blue)
+                for(int k = 1; k < 10; ++k)
+                {
+                    DECK[deckIndex++] = getNumberCard(colors[i], k);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * No CardTable objects, all cards are reached through the static methods
+     */
+    private CardTable()
+    {
+    }
+
+
+    /**
+     * @param card Card to put in the table at its card code
+     */
+    private static void addCard(Card card)
+    {
+        CARDS[card.getCardCode()] = card;
+    }
+
+
+    /**
+     * @param cardCode Code of the kind of card
+     * @return The shared card of the given kind
+     * @throws IndexOutOfBoundsException If the card code is invalid
+     */
+    public static Card getCard(int cardCode) throws IndexOutOfBoundsException
+    {
+        return CARDS[cardCode];
+    }
+
+
+    /**
+     * @param deckIndex Index of the card in a full UNO deck
+     * @return The shared card at the given index of a full UNO deck
+     * @throws IndexOutOfBoundsException If the deck index is invalid
+     */
+    public static Card getDeckCard(int deckIndex) throws IndexOutOfBoundsException
+    {
+        return DECK[deckIndex];
+    }
+
+
+    /**
+     * @param cardColor Color of the card
+     * @param cardNumber Number on the card
+     * @return The shared number card
+     * @throws IllegalArgumentException If the color is wild or the number is invalid
+     */
+    public static Card getNumberCard(CardColors cardColor, int cardNumber)
+        throws IllegalArgumentException
+    {
+        if(cardNumber < 0 || cardNumber > 9)
+        {
+            throw new IllegalArgumentException("Card Number Must Be From 0 To 9!");
+        }
+
+        return CARDS[Card.getColoredCardCode(cardColor, cardNumber)];
+    }
+
+
+    /**
+     * @param cardColor Color of the card
+     * @return The shared skip card
+     * @throws IllegalArgumentException If the color is wild
+     */
+    public static Card getSkipCard(CardColors cardColor) throws IllegalArgumentException
+    {
+        return CARDS[Card.getColoredCardCode(cardColor, SkipCard.FACE_INDEX)];
+    }
+
+
+    /**
+     * @param cardColor Color of the card
+     * @return The shared reverse card
+     * @throws IllegalArgumentException If the color is wild
+     */
+    public static Card getReverseCard(CardColors cardColor) throws IllegalArgumentException
+    {
+        return CARDS[Card.getColoredCardCode(cardColor, ReverseCard.FACE_INDEX)];
+    }
+
+
+    /**
+     * @param cardColor Color of the card
+     * @return The shared draw two card
+     * @throws IllegalArgumentException If the color is wild
+     */
+    public static Card getDrawTwoCard(CardColors cardColor) throws IllegalArgumentException
+    {
+        return CARDS[Card.getColoredCardCode(cardColor, DrawTwoCard.FACE_INDEX)];
+    }
+
+
+    /**
+     * @return The shared wild card
+     */
+    public static Card getWildCard()
+    {
+        return CARDS[WildCard.CARD_CODE];
+    }
+
+
+    /**
+     * @return The shared wild draw four card
+     */
+    public static Card getWildDrawFourCard()
+    {
+        return CARDS[WildDrawFourCard.CARD_CODE];
+    }
+}
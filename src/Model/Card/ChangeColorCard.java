@@ -2,60 +2,18 @@ package src.Model.Card;
 
 /**
  * ChangeColorCard is an abstract card which helps the player change the
- * next color in the game
+ * next color in the game. The color and direction the player chooses are 
+ * not stored on the card, they travel with the Move that plays it.
  */
 
-import src.Model.GamePlay.Game.Direction;
-
 public abstract class ChangeColorCard extends Card
 {
-    /** Next color chosen by the player */
-    private CardColors NextColor;
-    /** Direction of order chosen by the player */
-    private Direction NextDirection = Direction.DEFAULT;
-
-
-    /**
-     * ChangeColorCard constructor
-     */
-    public ChangeColorCard(CardColors cardColor) 
-    {
-        super(cardColor);
-    }
-
-
-    /**
-     * @param nextColor Set the next color to be played
-     */
-    public void setNextColor(CardColors nextColor)
-    {
-        this.NextColor = nextColor;
-    }
-
-
-    /**
-     * @return Get the next color to be played
-     */
-    public CardColors getNextColor()
-    {
-        return this.NextColor;
-    }
-
-    
-    /**
-     * @param nextColor Set the direction of order
-     */
-    public void setNextDirection(Direction nextDirection)
-    {
-        this.NextDirection = nextDirection;
-    }
-
-    
     /**
-     * @return Get the next direction to be played
+     * @param cardColor Color of the card
+     * @param cardCode Code of this kind of card
      */
-    public Direction getNextDirection()
+    protected ChangeColorCard(CardColors cardColor, int cardCode) 
     {
-        return this.NextDirection;
+        super(cardColor, cardCode);
     }
 }
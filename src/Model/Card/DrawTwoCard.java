@@ -4,22 +4,24 @@ package src.Model.Card;
  * DrawTwoCard adds 2 to the penalty for the next player in the turn
  */
 
-import java.util.ArrayList;
-
 public class DrawTwoCard extends Card 
 {
+    /** Index of the draw two face within its color */
+    static final int FACE_INDEX = 12;
+
+
     /**
      * @param cardColor Create Draw-Two card with the given color
      */
     public DrawTwoCard(CardColors cardColor)
     {
-        super(cardColor);
+        super(cardColor, getColoredCardCode(cardColor, FACE_INDEX));
     }
 
     
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
         //The topcard is a DrawTwoCard or the card color matches the current 
         //color and there are no penalties due 
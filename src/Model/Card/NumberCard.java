@@ -4,21 +4,26 @@ package src.Model.Card;
  * NumberCard is a simple numbered card which can be played by the player
  */
 
-import java.util.ArrayList;
-
 public class NumberCard extends Card
 {
     /** Number on the card */
-    private int CardNumber;
+    private final int CardNumber;
     
 
     /**
      * @param cardColor Create number card with the given color
-     * @param cardNumber The number on the card
+     * @param cardNumber The number on the card, from 0 to 9
+     * @throws IllegalArgumentException If the color is wild or the number is invalid
      */
-    public NumberCard(CardColors cardColor, int cardNumber)
+    public NumberCard(CardColors cardColor, int cardNumber) throws IllegalArgumentException
     {
-        super(cardColor);
+        super(cardColor, getColoredCardCode(cardColor, cardNumber));
+
+        if(cardNumber < 0 || cardNumber > 9)
+        {
+            throw new IllegalArgumentException("Card Number Must Be From 0 To 9!");
+        }
+
         this.CardNumber = cardNumber;
     }
 
@@ -34,7 +39,7 @@ public class NumberCard extends Card
 
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
         //If drawCardsNumber is 0 and either the current color matches or 
         //current number then return true
@@ -4,22 +4,24 @@ package src.Model.Card;
  * A player can reverse the order of turn using this card
  */
 
-import java.util.ArrayList;
-
 public class ReverseCard extends Card
 {
+    /** Index of the reverse face within its color */
+    static final int FACE_INDEX = 11;
+
+
     /**
      * @param cardColor Create Reverse card with the given color
      */
     public ReverseCard(CardColors cardColor)
     {
-        super(cardColor);
+        super(cardColor, getColoredCardCode(cardColor, FACE_INDEX));
     }
 
     
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
         //There are no pending penalties and either the card color matches or the 
         //topcard is a ReverseCard
@@ -4,22 +4,24 @@ package src.Model.Card;
  * SkipCard allows the player in the next turn to get skipped
  */
 
-import java.util.ArrayList;
-
 public class SkipCard extends Card 
 {
+    /** Index of the skip face within its color */
+    static final int FACE_INDEX = 10;
+
+
     /**
      * @param cardColor Create skip card with the given color
      */
     public SkipCard(CardColors cardColor)
     {
-        super(cardColor);
+        super(cardColor, getColoredCardCode(cardColor, FACE_INDEX));
     }
 
     
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
         //There are no pending penalties and either the card color 
         //matches or the topcard is a SkipCard
@@ -5,26 +5,27 @@ package src.Model.Card;
  * as well as the direction of the game.
  */
 
-import java.util.ArrayList;
-
 public class WildCard extends ChangeColorCard 
 {
+    /** Code of the wild card */
+    static final int CARD_CODE = 52;
+
+
     /**
      * WildCard constructor
      */
     public WildCard()
     {
-        super(CardColors.WILD);
-        this.setNextColor(CardColors.WILD);
+        super(CardColors.WILD, CARD_CODE);
     }
 
     
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
-        //If the player has selected next color and there are 
-        //no pending penalities
-        return (drawCardsNumber == 0 && this.getNextColor() != CardColors.WILD);
+        //If there are no pending penalities, the game checks the 
+        //player has selected next color
+        return (drawCardsNumber == 0);
     }
 }
@@ -6,29 +6,29 @@ package src.Model.Card;
  * change the next color in the game.
  */
 
-import java.util.ArrayList;
-
 public class WildDrawFourCard extends ChangeColorCard 
 {
+    /** Code of the wild draw four card */
+    static final int CARD_CODE = 53;
+
+
     /**
      * WildDrawFourCard constructor
      */
     public WildDrawFourCard()
     {
-        super(CardColors.WILD);
-        this.setNextColor(CardColors.WILD);
+        super(CardColors.WILD, CARD_CODE);
     }
 
     
     @Override
     public boolean isLegal(Card topCard, CardColors currentColor, 
-        int drawCardsNumber, ArrayList<CardColors> playerCardColors) 
+        int drawCardsNumber, int playerColorMask) 
     {
-        //Legal if player selected new card color, and player does not have any 
-        //card with current color being played, and either the top card is wild 
-        //draw four card or the draw stack is 0
-        return (((drawCardsNumber == 0 && !playerCardColors.contains(currentColor)) 
-                    || topCard instanceof WildDrawFourCard) && 
-                        this.getNextColor() != CardColors.WILD);
+        //Legal if player does not have any card with current color being 
+        //played, and either the top card is wild draw four card or the draw 
+        //stack is 0. The game checks the player selected new card color
+        return ((drawCardsNumber == 0 && (playerColorMask & getColorBit(currentColor)) == 0) 
+                    || topCard instanceof WildDrawFourCard);
     }
 }
@@ -0,0 +1,222 @@
+package src.Model.GamePlay;
+
+/**
+ * CardPile is a stack of cards backed by an array with a pointer to the
+ * top card. Drawing a card, playing a card and looking at the top card
+ * never shift the rest of the pile. A Zobrist hash of each card and its
+ * position is updated as cards are put on and taken off the top.
+ */
+
+import java.util.random.RandomGenerator;
+
+import src.Model.Card.Card;
+
+public class CardPile
+{
+    /** Cards in the pile, the top card is at index NumberOfCards - 1 */
+    private Card[] Cards;
+    /** Number of cards in the pile */
+    private int NumberOfCards = 0;
+    /** Zobrist hash of each card at its position */
+    private long Hash = 0;
+
+
+    /**
+     * @param capacity Number of cards the pile can hold before growing
+     */
+    public CardPile(int capacity)
+    {
+        this.Cards = new Card[Math.max(capacity, 1)];
+    }
+
+
+    /**
+     * Copy constructor, the copy shares the cards but not the array
+     * @param pile Pile to copy
+     */
+    public CardPile(CardPile pile)
+    {
+        this(pile.Cards.length);
+        this.copyFrom(pile);
+    }
+
+
+    /**
+     * Makes this pile hold the same cards as the given pile, the array is 
+     * only replaced if it is too small
+     * @param pile Pile to copy
+     */
+    public void copyFrom(CardPile pile)
+    {
+        if(this.Cards.length < pile.NumberOfCards)
+        {
+            this.Cards = new Card[pile.Cards.length];
+        }
+
+        System.arraycopy(pile.Cards, 0, this.Cards, 0, pile.NumberOfCards);
+
+        //Let go of the cards above the copied pile
+        for(int i = pile.NumberOfCards; i < this.NumberOfCards; ++i)
+        {
+            this.Cards[i] = null;
+        }
+
+        this.NumberOfCards = pile.NumberOfCards;
+        this.Hash = pile.Hash;
+    }
+
+
+    /**
+     * Takes every card off the pile
+     */
+    public void clear()
+    {
+        for(int i = 0; i < this.NumberOfCards; ++i)
+        {
+            this.Cards[i] = null;
+        }
+
+        this.NumberOfCards = 0;
+        this.Hash = 0;
+    }
+
+
+    /**
+     * @return Number of cards in the pile
+     */
+    public int size()
+    {
+        return this.NumberOfCards;
+    }
+
+
+    /**
+     * @return If there are no cards in the pile then true
+     */
+    public boolean isEmpty()
+    {
+        return this.NumberOfCards == 0;
+    }
+
+
+    /**
+     * @param index Index of the card counted from the bottom of the pile
+     * @return The card at the given index
+     * @throws IndexOutOfBoundsException If the index is invalid
+     */
+    public Card getCard(int index) throws IndexOutOfBoundsException
+    {
+        if(index < 0 || index >= this.NumberOfCards)
+        {
+            throw new IndexOutOfBoundsException("Invalid Card Pile Index!");
+        }
+
+        return this.Cards[index];
+    }
+
+
+    /**
+     * @return The top card of the pile without removing it
+     * @throws IndexOutOfBoundsException If the pile is empty
+     */
+    public Card getTopCard() throws IndexOutOfBoundsException
+    {
+        return this.getCard(this.NumberOfCards - 1);
+    }
+
+
+    /**
+     * @return Removes and returns the top card of the pile
+     * @throws IndexOutOfBoundsException If the pile is empty
+     */
+    public Card drawTopCard() throws IndexOutOfBoundsException
+    {
+        Card card = this.getTopCard();
+        this.Cards[--this.NumberOfCards] = null;
+        this.Hash ^= ZobristKeys.getPileKey(this.NumberOfCards, card.getCardCode());
+        return card;
+    }
+
+
+    /**
+     * @param card Card to put on the top of the pile
+     */
+    public void addTopCard(Card card)
+    {
+        if(this.NumberOfCards == this.Cards.length)
+        {
+            Card[] cards = new Card[this.Cards.length * 2];
+            System.arraycopy(this.Cards, 0, cards, 0, this.NumberOfCards);
+            this.Cards = cards;
+        }
+
+        this.Hash ^= ZobristKeys.getPileKey(this.NumberOfCards, card.getCardCode());
+        this.Cards[this.NumberOfCards++] = card;
+    }
+
+
+    /**
+     * Moves every card except the top card onto the given pile, the top card
+     * becomes the only card left in this pile
+     * @param pile Pile that receives the cards
+     */
+    public void moveCardsBelowTopCardTo(CardPile pile)
+    {
+        if(this.NumberOfCards < 2)
+        {
+            return;
+        }
+
+        for(int i = 0; i < this.NumberOfCards - 1; ++i)
+        {
+            pile.addTopCard(this.Cards[i]);
+            this.Cards[i] = null;
+        }
+
+        this.Cards[0] = this.Cards[this.NumberOfCards - 1];
+        this.Cards[this.NumberOfCards - 1] = null;
+        this.NumberOfCards = 1;
+        this.rehash();
+    }
+
+
+    /**
+     * Shuffle the pile in place
+     * @param random Source of randomness for the shuffle
+     */
+    public void shuffle(RandomGenerator random)
+    {
+        for(int i = this.NumberOfCards - 1; i > 0; --i)
+        {
+            int j = random.nextInt(i + 1);
+            Card card = this.Cards[i];
+            this.Cards[i] = this.Cards[j];
+            this.Cards[j] = card;
+        }
+
+        this.rehash();
+    }
+
+
+    /**
+     * @return Zobrist hash of each card in the pile at its position
+     */
+    public long getHash()
+    {
+        return this.Hash;
+    }
+
+
+    /**
+     * Hashes the pile from scratch after the cards moved
+     */
+    private void rehash()
+    {
+        this.Hash = 0;
+
+        for(int i = 0; i < this.NumberOfCards; ++i)
+        {
+            this.Hash ^= ZobristKeys.getPileKey(i, this.Cards[i].getCardCode());
+        }
+    }
+}
@@ -7,13 +7,16 @@ package src.Model.GamePlay;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 import src.Model.Card.Card;
+import src.Model.Card.CardTable;
 import src.Model.Card.ChangeColorCard;
 import src.Model.Card.DrawTwoCard;
-import src.Model.Card.NumberCard;
 import src.Model.Card.ReverseCard;
 import src.Model.Card.SkipCard;
 import src.Model.Card.WildCard;
@@ -28,9 +31,9 @@ public class Game
     /** Current player to play */
     private int CurrentPlayerIndex;
     /** Card deck to draw from for players */
-	private ArrayList<Card> CardDeck = new ArrayList<Card>();
+	private CardPile CardDeck = new CardPile(NUMBER_OF_CARDS);
     /** Cards already used in the game */
-	private ArrayList<Card> DiscardDeck = new ArrayList<Card>();
+	private CardPile DiscardDeck = new CardPile(NUMBER_OF_CARDS);
     /** Gameplay direction */
 	private Direction GameDirection = Direction.CLOCKWISE;
     /** Count of cards to draw */
@@ -39,6 +42,23 @@ public class Game
     private CardColors CurrentColor;
     /** Keeps track of wheather the game is over or not */
     private boolean GameOver = false;
+    /** Number of times the discard deck was shuffled back into the card deck */
+    private int NumberOfReshuffles = 0;
+    /** Every shuffle and random choice in this game is drawn from this generator */
+    private final RandomGenerator Random;
+    /** Undo records of the moves made with makeMove, type in the low bits */
+    private int[] UndoRecords = new int[INITIAL_UNDO_CAPACITY];
+    /** Card of each undo record, null if the record has no card */
+    private Card[] UndoCards = new Card[INITIAL_UNDO_CAPACITY];
+    /** Number of undo records */
+    private int NumberOfUndoRecords = 0;
+    /** Number of undo records when each move made with makeMove started */
+    private int[] MoveStarts = new int[INITIAL_UNDO_CAPACITY];
+    /** Number of moves that can be unmade, changes are only recorded while 
+     * there is a move to unmake */
+    private int NumberOfMoves = 0;
+    /** Number of cards in a full UNO deck */
+    private static final int NUMBER_OF_CARDS = CardTable.NUMBER_OF_CARDS_IN_DECK;
     /** Number of cards to draw for each player initially */
     private static final int INITIAL_NUM_CARDS = 7;
     /** Minimum number of players */
@@ -49,6 +69,56 @@ public class Game
     private static final int MINIMUM_AI_PLAYERS = 0;
     /** Maximum number of AI players */
     private static final int MAXIMUM_AI_PLAYERS = 9;
+    /** Initial number of undo records and moves the undo log can hold */
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+    /** Bits of an undo record holding the type of the record */
+    private static final int UNDO_TYPE_BITS = 3;
+    /** Undo record of the current player, direction, color, draw stack and 
+     * game over flag before a change */
+    private static final int UNDO_STATE = 0;
+    /** Undo record of a card put on the discard deck */
+    private static final int UNDO_DISCARD = 1;
+    /** Undo record of a card drawn from the card deck */
+    private static final int UNDO_DRAW = 2;
+    /** Undo record of a card added to a hand, at a player index and card index */
+    private static final int UNDO_HAND_ADD = 3;
+    /** Undo record of a card removed from a hand, at a player index and card index */
+    private static final int UNDO_HAND_REMOVE = 4;
+    /** Undo record of a card of the discard deck before a reshuffle, from 
+     * the bottom of the deck up */
+    private static final int UNDO_RESHUFFLED_CARD = 5;
+    /** Undo record of a reshuffle, with the number of cards reshuffled */
+    private static final int UNDO_RESHUFFLE = 6;
+    /** Bits of a hand undo record holding the player index */
+    private static final int UNDO_PLAYER_BITS = 4;
+    /** Card kinds legal on each top card code, current color, and draw stack 
+     * being empty or not. The wild draw four card also depends on the colors 
+     * of the player and is left out. */
+    private static final long[][][] LEGAL_CARD_KINDS = 
+        new long[Card.NUMBER_OF_CARD_KINDS][CardColors.values().length][2];
+
+    static
+    {
+        int wildDrawFourCardCode = CardTable.getWildDrawFourCard().getCardCode();
+
+        for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+        {
+            for(CardColors c : CardColors.values())
+            {
+                for(int j = 0; j < 2; ++j)
+                {
+                    for(int k = 0; k < Card.NUMBER_OF_CARD_KINDS; ++k)
+                    {
+                        if(k != wildDrawFourCardCode && CardTable.getCard(k)
+                            .isLegal(CardTable.getCard(i), c, j, 0))
+                        {
+                            LEGAL_CARD_KINDS[i][c.ordinal()][j] |= (1L << k);
+                        }
+                    }
+                }
+            }
+        }
+    }
 
 
     /**
@@ -74,7 +144,7 @@ public class Game
      */
     public Card getTopCard()
     {
-        return this.DiscardDeck.get(0);
+        return this.DiscardDeck.getTopCard();
     }
 
 
@@ -141,6 +211,16 @@ public class Game
     }
 
 
+    /**
+     * @return Gets the number of times the discard deck was reshuffled into 
+     * the card deck
+     */
+    public int getNumberOfReshuffles()
+    {
+        return this.NumberOfReshuffles;
+    }
+
+
     /**
      * @return Gets the number of cards delt to each player initially
      */
@@ -166,12 +246,152 @@ public class Game
      */
 	public Game(int numPlayers, int numAIPlayers, int numStrategicAIPlayers)
 	{
+        this(numPlayers, numAIPlayers, numStrategicAIPlayers, new SplittableRandom());
+	}
+
+
+    /**
+     * @param numPlayers Number of players in the game
+     * @param numAIPlayers Number of AI players in the game
+     * @param numStrategicAIPlayers Number of Strategic AI players in the game
+     * @param random Generator for every shuffle and random choice in the game, 
+     * a seeded generator replays the same game
+     */
+	public Game(int numPlayers, int numAIPlayers, int numStrategicAIPlayers, 
+        RandomGenerator random)
+	{
+        this.Random = random;
         this.initializeCards();
 		this.initializePlayers(numPlayers, numAIPlayers, numStrategicAIPlayers);
 		this.initializeDiscardDeck();
 	}
 
 
+    /**
+     * Creates a game with no players and no cards, so that another 
+     * representation of a game can fill it in
+     * @param random Generator for every shuffle and random choice in the game
+     */
+    Game(RandomGenerator random)
+    {
+        this.Random = random;
+    }
+
+
+    /**
+     * @return Gets the card deck to draw from
+     */
+    CardPile getCardDeck()
+    {
+        return this.CardDeck;
+    }
+
+
+    /**
+     * @return Gets the discard deck
+     */
+    CardPile getDiscardDeck()
+    {
+        return this.DiscardDeck;
+    }
+
+
+    /**
+     * Sets every part of the game state other than the players and the card decks
+     * @param currentPlayerIndex Index of the current player
+     * @param direction Direction of the game
+     * @param currentColor Current color to be played
+     * @param drawCardsNumber Number of cards due for drawing
+     * @param gameOver If the game is over
+     */
+    void setGameState(int currentPlayerIndex, Direction direction, 
+        CardColors currentColor, int drawCardsNumber, boolean gameOver)
+    {
+        this.CurrentPlayerIndex = currentPlayerIndex;
+        this.GameDirection = direction;
+        this.CurrentColor = currentColor;
+        this.DrawCardsNumber = drawCardsNumber;
+        this.GameOver = gameOver;
+    }
+
+
+    /**
+     * @param numberOfReshuffles Number of times the discard deck was 
+     * reshuffled into the card deck
+     */
+    void setNumberOfReshuffles(int numberOfReshuffles)
+    {
+        this.NumberOfReshuffles = numberOfReshuffles;
+    }
+
+
+    /**
+     * Saves the state of the game, see restore
+     * @return A snapshot of the card piles, hands and game state
+     */
+    public GameSnapshot snapshot()
+    {
+        return new GameSnapshot(this);
+    }
+
+
+    /**
+     * Puts the game back in the state of the snapshot. The players keep 
+     * their Player and Hand objects, only the cards in them change. The 
+     * random number generator is not part of the snapshot, so shuffles 
+     * after a restore differ from the shuffles after the snapshot. The moves 
+     * made before the restore can no longer be unmade.
+     * @param snapshot Snapshot taken of this game
+     * @throws IllegalArgumentException If the snapshot was taken of another game
+     */
+    public void restore(GameSnapshot snapshot) throws IllegalArgumentException
+    {
+        if(snapshot.getGame() != this)
+        {
+            throw new IllegalArgumentException("Snapshot Of Another Game!");
+        }
+
+        this.CardDeck.copyFrom(snapshot.getCardDeck());
+        this.DiscardDeck.copyFrom(snapshot.getDiscardDeck());
+
+        for(int i = 0; i < this.Players.size(); ++i)
+        {
+            this.Players.get(i).getAllCards().copyFrom(snapshot.getHand(i));
+        }
+
+        this.setGameState(snapshot.getCurrentPlayerIndex(), snapshot.getCurrentDirection(), 
+            snapshot.getCurrentColor(), snapshot.getDrawCardsNumber(), snapshot.isGameOver());
+        this.NumberOfReshuffles = snapshot.getNumberOfReshuffles();
+        this.clearUndoLog();
+    }
+
+
+    /**
+     * Copies the game. The copy has its own players, hands and card piles 
+     * and shares only the immutable cards, so playing the copy never 
+     * changes this game.
+     * @param random Generator for every shuffle and random choice in the copy
+     * @return A copy of the game
+     */
+    public Game copy(RandomGenerator random)
+    {
+        Game game = new Game(random);
+        game.CardDeck.copyFrom(this.CardDeck);
+        game.DiscardDeck.copyFrom(this.DiscardDeck);
+
+        for(Player player : this.Players)
+        {
+            game.Players.add(new Player(game, player.getPlayerID(), 
+                new Hand(player.getAllCards()), player.getPlayerType()));
+        }
+
+        game.setGameState(this.CurrentPlayerIndex, this.GameDirection, 
+            this.CurrentColor, this.DrawCardsNumber, this.GameOver);
+        game.NumberOfReshuffles = this.NumberOfReshuffles;
+        return game;
+    }
+
+
     /**
      * @return All the players in the game
      */
@@ -192,6 +412,15 @@ public class Game
     }
 
 
+    /**
+     * @return Gets the generator for every shuffle and random choice in the game
+     */
+    public RandomGenerator getRandomGenerator()
+    {
+        return this.Random;
+    }
+
+
     /**
      * @return Get the direction of the game
      */
@@ -206,7 +435,7 @@ public class Game
      */
     private void shuffleDeck()
     {
-        Collections.shuffle(this.CardDeck);
+        this.CardDeck.shuffle(this.Random);
     }
 
 
@@ -215,39 +444,21 @@ public class Game
      */
     private void shufflePlayers()
     {
-        Collections.shuffle(this.Players);
+        for(int i = this.Players.size() - 1; i > 0; --i)
+        {
+            Collections.swap(this.Players, i, this.Random.nextInt(i + 1));
+        }
     }
 
 
     /**
-     * Generate and shuffle the deck
+     * Fill the deck with the shared cards of a full UNO deck and shuffle it
      */
     private void initializeCards()
     {
-        CardColors[] colors = CardColors.values();
-
-        for(int i = 1; i < colors.length; ++i)
+        for(int i = 0; i < NUMBER_OF_CARDS; ++i)
         {
-            //Zero card, wild card, wild draw four card for each color 
-            //(Red, Green, Yellow, Blue)
-            this.CardDeck.add(new NumberCard(colors[i], 0));
-            this.CardDeck.add(new WildCard());
-            this.CardDeck.add(new WildDrawFourCard());
-
-            for(int j = 0; j < 2; ++j)
-            {
-                //Skip card, reverse card, draw two card, 2 for each color 
-                //(Red, Green, Yellow, Blue)
-                this.CardDeck.add(new SkipCard(colors[i]));
-                this.CardDeck.add(new ReverseCard(colors[i]));
-                this.CardDeck.add(new DrawTwoCard(colors[i]));
-
-                //Number card 1-9, 2 for each color (Red, Green, Yellow, Blue)
-                for(int k = 1; k < 10; ++k)
-                {
-                    this.CardDeck.add(new NumberCard(colors[i], k));
-                }
-            }
+            this.CardDeck.addTopCard(CardTable.getDeckCard(i));
         }
 
         this.shuffleDeck();
@@ -263,10 +474,10 @@ public class Game
         //or wild draw four card
         do
         {
-            this.DiscardDeck.add(0, this.CardDeck.remove(0));
-            this.CurrentColor = this.DiscardDeck.get(0).getCardColor();
-        } while(this.DiscardDeck.get(0) instanceof WildCard 
-                    || this.DiscardDeck.get(0) instanceof WildDrawFourCard);
+            this.DiscardDeck.addTopCard(this.CardDeck.drawTopCard());
+            this.CurrentColor = this.DiscardDeck.getTopCard().getCardColor();
+        } while(this.DiscardDeck.getTopCard() instanceof WildCard 
+                    || this.DiscardDeck.getTopCard() instanceof WildDrawFourCard);
     }
 	
 
@@ -299,7 +510,7 @@ public class Game
 
         //Shuffle the player order and randomize the current player turn
         this.shufflePlayers();
-        this.CurrentPlayerIndex = (new Random()).nextInt(numPlayers);
+        this.CurrentPlayerIndex = this.Random.nextInt(numPlayers);
 	}
 
 
@@ -314,11 +525,11 @@ public class Game
 
 		for(int i = 1; i <= numPlayers; ++i)
 		{
-            ArrayList<Card> playerCards = new ArrayList<Card>();
+            Hand playerCards = new Hand(INITIAL_NUM_CARDS);
 
             for(int j = 0; j < INITIAL_NUM_CARDS; ++j)
             {
-                playerCards.add(this.CardDeck.remove(0));
+                playerCards.add(this.CardDeck.drawTopCard());
             }
 
 			this.Players.add(new Player(this, i + playerIDOffset, playerCards, playerKind));
@@ -352,20 +563,48 @@ public class Game
     /**
      * Check if the game is not over and it is this player's turn
      * @param playerID Player's ID that wants to take the turn
-     * @throws IllegalAccessException If it is not this player's turn, or the game 
-     * is over, or the player tries to play the wrong card
+     * @return SUCCESS if the player can take the turn, otherwise 
+     * NOT_PLAYER_TURN or GAME_OVER
      */
-    public void checkCurrentPlayerAndGameState(int playerID) 
-        throws IllegalAccessException
+    public MoveResult getTurnResult(int playerID)
     {
         if(this.Players.get(this.CurrentPlayerIndex).getPlayerID() != playerID)
         {
-            throw new IllegalAccessException("Not This Player's Turn!");
+            return MoveResult.NOT_PLAYER_TURN;
         }
 
         if(this.GameOver)
         {
-            throw new IllegalAccessException("Game Over!");
+            return MoveResult.GAME_OVER;
+        }
+
+        return MoveResult.SUCCESS;
+    }
+
+
+    /**
+     * Check if the game is not over and it is this player's turn
+     * @param playerID Player's ID that wants to take the turn
+     * @throws IllegalAccessException If it is not this player's turn, or the game 
+     * is over, or the player tries to play the wrong card
+     */
+    public void checkCurrentPlayerAndGameState(int playerID) 
+        throws IllegalAccessException
+    {
+        throwIfNotSuccess(this.getTurnResult(playerID));
+    }
+
+
+    /**
+     * @param result Result of a move
+     * @throws IllegalAccessException With the message of the result if the 
+     * move was not made
+     */
+    static void throwIfNotSuccess(MoveResult result) throws IllegalAccessException
+    {
+        if(!result.isSuccess())
+        {
+            throw new IllegalAccessException(result.getMessage());
         }
     }
 
@@ -384,18 +623,30 @@ public class Game
      * Updates the game state if the move is legal
      * @param playerID Player's ID that wants to take the turn
      * @param card Card that player wants to play
-     * @param playerCardColors Card Colors the player has
-     * @throws IllegalAccessException If it is not this player's turn, or the game 
-     * is over, or the player tries to play the wrong card
+     * @param move Move the card is played with, carries the next color and 
+     * next direction chosen for a ChangeColorCard
+     * @param playerColorMask Color bits of the card colors the player has, 
+     * see Card.getColorBit
+     * @return SUCCESS if the card was played, otherwise NOT_PLAYER_TURN, 
+     * GAME_OVER or ILLEGAL_MOVE and the game state is unchanged
      */
-    public void updateGameState(final int playerID, Card card, 
-        ArrayList<CardColors> playerCardColors) throws IllegalAccessException
+    public MoveResult tryPlay(final int playerID, Card card, Move move, 
+        int playerColorMask)
     {
-        this.checkCurrentPlayerAndGameState(playerID);
+        MoveResult turnResult = this.getTurnResult(playerID);
 
-        if(card.isLegal(this.DiscardDeck.get(0), this.CurrentColor, 
-            this.DrawCardsNumber, playerCardColors))
+        if(!turnResult.isSuccess())
         {
+            return turnResult;
+        }
+
+        //A ChangeColorCard is only legal once the player has chosen the next color
+        if(card.isLegal(this.DiscardDeck.getTopCard(), this.CurrentColor, 
+            this.DrawCardsNumber, playerColorMask) && (!(card instanceof ChangeColorCard) 
+                || move.getNextColor() != CardColors.WILD))
+        {
+            this.recordState();
+
             if(card instanceof ChangeColorCard)
             {
                 if(card instanceof WildDrawFourCard)
@@ -403,17 +654,12 @@ public class Game
                     this.DrawCardsNumber += 4;
                 }
 
-                //Set the next color of the game, and reset the wild card color before 
-                //putting it into the discard deck
-                this.CurrentColor = ((ChangeColorCard) card).getNextColor();
-                ((ChangeColorCard) card).setNextColor(CardColors.WILD);
+                //Set the next color and the next direction of the game
+                this.CurrentColor = move.getNextColor();
 
-                //Set the next direction of the game, and reset the wild card direction 
-                //before putting it into the discard deck
-                if(((ChangeColorCard) card).getNextDirection() != Direction.DEFAULT)
+                if(move.getNextDirection() != Direction.DEFAULT)
                 {
-                    this.GameDirection = ((ChangeColorCard) card).getNextDirection();
-                    ((ChangeColorCard) card).setNextDirection(Direction.DEFAULT);
+                    this.GameDirection = move.getNextDirection();
                 }
             }
             else
@@ -441,85 +687,243 @@ public class Game
             }
             
             //Add the card played to the top of the discard deck
-            this.DiscardDeck.add(0, card);
+            this.DiscardDeck.addTopCard(card);
+            this.pushUndoRecord(UNDO_DISCARD, 0, null);
+            return MoveResult.SUCCESS;
         }
-        else
+
+        return MoveResult.ILLEGAL_MOVE;
+    }
+
+
+    /**
+     * Updates the game state if the move is legal
+     * @param playerID Player's ID that wants to take the turn
+     * @param card Card that player wants to play
+     * @param move Move the card is played with, carries the next color and 
+     * next direction chosen for a ChangeColorCard
+     * @param playerColorMask Color bits of the card colors the player has, 
+     * see Card.getColorBit
+     * @throws IllegalAccessException If it is not this player's turn, or the game 
+     * is over, or the player tries to play the wrong card
+     */
+    public void updateGameState(final int playerID, Card card, Move move, 
+        int playerColorMask) throws IllegalAccessException
+    {
+        throwIfNotSuccess(this.tryPlay(playerID, card, move, playerColorMask));
+    }
+
+
+    /**
+     * Zobrist hash of the whole state of the game. The card piles and the 
+     * hands keep their hashes up to date on every card they gain or lose, 
+     * and the current player, direction, color, draw stack and game over 
+     * flag are a key each, so the hash costs a few lookups and no pass over 
+     * the cards. Each hand's hash is rotated by the player's index so that 
+     * equal hands of different players hash apart. Equal states have equal 
+     * hashes whatever order the cards in a hand are in.
+     * @return 64 bit hash of the state of the game
+     */
+    public long getHash()
+    {
+        long hash = ZobristKeys.PLAYER_KEYS[this.CurrentPlayerIndex 
+            & (ZobristKeys.NUMBER_OF_PLAYER_KEYS - 1)]
+                ^ ZobristKeys.DIRECTION_KEYS[this.GameDirection.ordinal()]
+                ^ ZobristKeys.COLOR_KEYS[this.CurrentColor.ordinal()]
+                ^ ZobristKeys.DRAW_KEYS[this.DrawCardsNumber & (ZobristKeys.NUMBER_OF_DRAW_KEYS - 1)]
+                ^ ((this.GameOver) ? (ZobristKeys.GAME_OVER_KEY) : (0))
+                ^ this.CardDeck.getHash() ^ Long.rotateLeft(this.DiscardDeck.getHash(), 32);
+
+        for(int i = 0; i < this.Players.size(); ++i)
         {
-            throw new IllegalAccessException("Illegal Move! 1 Card Penalty!");
+            hash ^= Long.rotateLeft(this.Players.get(i).getAllCards().getHash(), 7 * (i + 1));
         }
+
+        return hash;
     }
 
 
     /**
-     * Reorganize the ard deck if it is empty using dircard deck
+     * Hash of what one player can see of the game: the state getHash covers
+     * without the card deck and with the other players' hands as their 
+     * sizes. Games that differ only in the cards the player cannot see hash
+     * alike, so the hash gives away nothing about them.
+     * @param observerIdx Index of the player seeing the game
+     * @return 64 bit hash of the game as the player sees it
+     * @throws IndexOutOfBoundsException If there is no player at the index
      */
-    private void repopulateCardDeck()
+    public long getObservableHash(int observerIdx) throws IndexOutOfBoundsException
     {
-        //Keep the top card in the discard deck and take the rest
-        for(int i = this.DiscardDeck.size() - 1; i > 0; --i)
+        long hash = ZobristKeys.PLAYER_KEYS[this.CurrentPlayerIndex 
+            & (ZobristKeys.NUMBER_OF_PLAYER_KEYS - 1)]
+                ^ ZobristKeys.DIRECTION_KEYS[this.GameDirection.ordinal()]
+                ^ ZobristKeys.COLOR_KEYS[this.CurrentColor.ordinal()]
+                ^ ZobristKeys.DRAW_KEYS[this.DrawCardsNumber & (ZobristKeys.NUMBER_OF_DRAW_KEYS - 1)]
+                ^ ((this.GameOver) ? (ZobristKeys.GAME_OVER_KEY) : (0))
+                ^ Long.rotateLeft(this.DiscardDeck.getHash(), 32)
+                ^ this.Players.get(observerIdx).getAllCards().getHash();
+
+        //Golden ratio multiples spread the hand sizes over the bits
+        for(int i = 0; i < this.Players.size(); ++i)
+        {
+            hash ^= Long.rotateLeft((this.Players.get(i).getNumberOfCards() + 1) 
+                * 0x9E3779B97F4A7C15L, 7 * (i + 1));
+        }
+
+        return hash;
+    }
+
+
+    /**
+     * @param topCard Top card of the discard deck
+     * @param currentColor Current color to be played
+     * @param drawCardsNumber Number of cards due for drawing
+     * @return Mask of the kinds of cards legal to play, without the wild 
+     * draw four card which also depends on the colors of the player
+     */
+    static long getLegalCardKinds(Card topCard, CardColors currentColor, 
+        int drawCardsNumber)
+    {
+        return LEGAL_CARD_KINDS[topCard.getCardCode()][currentColor.ordinal()]
+            [(drawCardsNumber == 0) ? 0 : 1];
+    }
+
+
+    /**
+     * Finds the kinds of cards the player can legally play now, without 
+     * trying any move. Bit (1L << card code) is set for each kind of card 
+     * in the player's hand that is legal on the current top card, color and 
+     * draw stack, so hand index i is playable if bit 
+     * player.getCard(i).getCardCode() is set. A ChangeColorCard also needs 
+     * a next color in its move. The legal kinds for every top card, color and 
+     * draw stack are found once, so this is a table lookup and a few masks.
+     * @param player Player to find the legal moves of
+     * @return Mask of the legal kinds of cards, 0 if the game is over or it 
+     * is not this player's turn
+     */
+    public long legalMoves(Player player)
+    {
+        if(this.GameOver || this.getCurrentPlayer().getPlayerID() != player.getPlayerID())
         {
-            this.CardDeck.add(this.DiscardDeck.remove(i));
+            return 0;
         }
 
+        Card topCard = this.DiscardDeck.getTopCard();
+        Card wildDrawFourCard = CardTable.getWildDrawFourCard();
+        long legalCardKinds = getLegalCardKinds(topCard, this.CurrentColor, 
+            this.DrawCardsNumber);
+
+        //The wild draw four card depends on the colors the player has
+        if(wildDrawFourCard.isLegal(topCard, this.CurrentColor, 
+            this.DrawCardsNumber, player.getCardColorMask()))
+        {
+            legalCardKinds |= (1L << wildDrawFourCard.getCardCode());
+        }
+
+        return legalCardKinds & player.getAllCards().getCardKindMask();
+    }
+
+
+    /**
+     * Reorganize the ard deck if it is empty using dircard deck, package 
+     * private so that the benchmarks can measure it
+     */
+    void repopulateCardDeck()
+    {
+        //Remember the order of the discard deck to undo the shuffle
+        if(this.NumberOfMoves > 0)
+        {
+            int numberOfCards = Math.max(this.DiscardDeck.size() - 1, 0);
+
+            for(int i = 0; i < numberOfCards; ++i)
+            {
+                this.pushUndoRecord(UNDO_RESHUFFLED_CARD, 0, this.DiscardDeck.getCard(i));
+            }
+
+            this.pushUndoRecord(UNDO_RESHUFFLE, numberOfCards, null);
+        }
+
+        //Keep the top card in the discard deck and take the rest
+        this.DiscardDeck.moveCardsBelowTopCardTo(this.CardDeck);
         this.shuffleDeck();
+        this.NumberOfReshuffles += 1;
     }
 
     
     /**
-     * @return Top card from the card deck
+     * @return Top card from the card deck, null if every card other than the 
+     * top card of the discard deck is in the players' hands
      */
     private Card pickTopCardFromDeck()
     {
-        if(this.CardDeck.size() == 0)
+        if(this.CardDeck.isEmpty())
         {
             //If the card deck is empty, then repopulate the card 
             //deck using discard deck cards
             this.repopulateCardDeck();
         }
         
-        return this.CardDeck.remove(0);
+        if(this.CardDeck.isEmpty())
+        {
+            return null;
+        }
+
+        Card card = this.CardDeck.drawTopCard();
+        this.pushUndoRecord(UNDO_DRAW, 0, card);
+        return card;
     }
 
 
     /**
+     * Draws cards for the player. With no cards due for drawing the player 
+     * draws one card, which is played at once if it is legal.
      * @param playerID Player's ID that wants to draw cards
-     * @return List of cards drawn from the card deck
-     * @throws IllegalAccessException If it is not this player's turn, 
-     * or the game is over, or the player tries to play the wrong card
+     * @param drawnCards The cards the player keeps are added to this list
+     * @return SUCCESS if the player drew, otherwise NOT_PLAYER_TURN or 
+     * GAME_OVER and no cards are drawn
      */
-    public ArrayList<Card> drawCardsFromDeck(int playerID) 
-        throws IllegalAccessException 
+    public MoveResult tryDraw(int playerID, List<Card> drawnCards)
     {
-        this.checkCurrentPlayerAndGameState(playerID);
+        MoveResult turnResult = this.getTurnResult(playerID);
 
-        ArrayList<Card> drawnCards = new ArrayList<Card>();
+        if(!turnResult.isSuccess())
+        {
+            return turnResult;
+        }
+
+        //Cards kept in the current player's own hand are recorded for unmake
+        int handPlayerIdx = (drawnCards == this.getCurrentPlayer().getAllCards()) ? 
+            (this.CurrentPlayerIndex) : (-1);
+        this.recordState();
         
         //If the DrawCardsNumber and the player wants to draw the top card 
         //from the deck
         if(this.DrawCardsNumber == 0)
         {
-            drawnCards.add(this.pickTopCardFromDeck());
-            
-            try
-            {
-                this.updateGameState(playerID, this.pickTopCardFromDeck(), 
-                    new ArrayList<CardColors>());
+            Card drawnCard = this.pickTopCardFromDeck();
 
+            if(drawnCard == null)
+            {
+                //No cards left to draw, so the player passes the turn
+                this.incrementCurrentPlayer(1);
+            }
+            //The drawn card is played without a color choice, so a drawn 
+            //ChangeColorCard always goes back to the player
+            else if(this.tryPlay(playerID, drawnCard, Move.DRAW, 0).isSuccess())
+            {
+                //Card is valid to be played, so the player will not get 
+                //the card back
                 if(this.GameOver)
                 {
                     this.GameOver = false;
-                    this.incrementCurrentPlayer
-                        ((drawnCards.get(0) instanceof SkipCard) ? 2 : 1);
+                    this.incrementCurrentPlayer((drawnCard instanceof SkipCard) ? 2 : 1);
                 }
-                    
-                //Card is valid to be played, so the player will not get 
-                //the card back
-                drawnCards.remove(0);
             }
-            catch(IllegalAccessException ex)
+            else
             {
                 //Picked up card is not valid to be played, so the player 
                 //will get the card back
+                this.keepDrawnCard(drawnCards, drawnCard, handPlayerIdx);
                 this.incrementCurrentPlayer(1);
             }
         }
@@ -528,18 +932,61 @@ public class Game
             //Draw cards which are due for drawing from the deck for the player
             for(; this.DrawCardsNumber != 0; --this.DrawCardsNumber)
             {
-                drawnCards.add(this.pickTopCardFromDeck());
+                Card drawnCard = this.pickTopCardFromDeck();
+
+                //Penalties beyond the cards left in the game are forgiven
+                if(drawnCard == null)
+                {
+                    this.DrawCardsNumber = 0;
+                    break;
+                }
+
+                this.keepDrawnCard(drawnCards, drawnCard, handPlayerIdx);
             }
             
             this.incrementCurrentPlayer(1);
         }
         
+        return MoveResult.SUCCESS;
+    }
+
+
+    /**
+     * @param drawnCards List the player keeps the drawn cards in
+     * @param card Card the player keeps
+     * @param handPlayerIdx Index of the player if the list is the player's 
+     * hand, else -1
+     */
+    private void keepDrawnCard(List<Card> drawnCards, Card card, int handPlayerIdx)
+    {
+        drawnCards.add(card);
+
+        if(handPlayerIdx != -1)
+        {
+            this.pushUndoRecord(UNDO_HAND_ADD, 
+                handPlayerIdx | ((drawnCards.size() - 1) << UNDO_PLAYER_BITS), null);
+        }
+    }
+
+
+    /**
+     * @param playerID Player's ID that wants to draw cards
+     * @return List of cards drawn from the card deck
+     * @throws IllegalAccessException If it is not this player's turn, 
+     * or the game is over, or the player tries to play the wrong card
+     */
+    public ArrayList<Card> drawCardsFromDeck(int playerID) 
+        throws IllegalAccessException 
+    {
+        ArrayList<Card> drawnCards = new ArrayList<Card>();
+        throwIfNotSuccess(this.tryDraw(playerID, drawnCards));
         return drawnCards;
     }
 
 
     /**
-     * @return Player has to pick 1 card for illegal moves
+     * @return Player has to pick 1 card for illegal moves, null if there are 
+     * no cards left to draw
      */
     public Card penalizePlayer() 
     {
@@ -571,6 +1018,7 @@ public class Game
      */
     public void setGameOver()
     {
+        this.recordState();
         this.GameOver = true;
     }
 
@@ -580,6 +1028,228 @@ public class Game
      */
     public void setDrawCardNumber(int drawCardNumber)
     {
+        this.recordState();
         this.DrawCardsNumber = drawCardNumber;
     }
+
+
+    /**
+     * Makes the move for the current player so that it can be unmade. 
+     * Every change to the game until the move is unmade, including the 
+     * card played, the cards drawn, a penalty and a reshuffle, is recorded.
+     * @param move The move the current player makes
+     * @return Result of the move, a refused move is unmade like any other
+     * @throws IllegalArgumentException If the card index is invalid
+     */
+    public MoveResult makeMove(Move move) throws IllegalArgumentException
+    {
+        if(this.NumberOfMoves == this.MoveStarts.length)
+        {
+            this.MoveStarts = Arrays.copyOf(this.MoveStarts, this.MoveStarts.length * 2);
+        }
+
+        this.MoveStarts[this.NumberOfMoves++] = this.NumberOfUndoRecords;
+
+        try
+        {
+            return this.getCurrentPlayer().tryPlayCard(move);
+        }
+        catch(IllegalArgumentException ex)
+        {
+            //Nothing changed for an invalid card index
+            this.NumberOfMoves -= 1;
+            throw ex;
+        }
+    }
+
+
+    /**
+     * Puts the game back in the state before the last move made with 
+     * makeMove. The random number generator is not rewound, so a reshuffle 
+     * made again after an unmake shuffles differently.
+     * @throws IllegalStateException If there is no move to unmake
+     */
+    public void unmake() throws IllegalStateException
+    {
+        if(this.NumberOfMoves == 0)
+        {
+            throw new IllegalStateException("No Move To Unmake!");
+        }
+
+        int moveStart = this.MoveStarts[--this.NumberOfMoves];
+
+        while(this.NumberOfUndoRecords > moveStart)
+        {
+            int record = this.UndoRecords[--this.NumberOfUndoRecords];
+            Card card = this.UndoCards[this.NumberOfUndoRecords];
+            int payload = record >>> UNDO_TYPE_BITS;
+            this.UndoCards[this.NumberOfUndoRecords] = null;
+
+            switch(record & ((1 << UNDO_TYPE_BITS) - 1))
+            {
+                case UNDO_STATE:
+                    this.setPackedState(payload);
+                    break;
+                case UNDO_DISCARD:
+                    this.DiscardDeck.drawTopCard();
+                    break;
+                case UNDO_DRAW:
+                    this.CardDeck.addTopCard(card);
+                    break;
+                case UNDO_HAND_ADD:
+                    this.Players.get(payload & ((1 << UNDO_PLAYER_BITS) - 1))
+                        .getAllCards().remove(payload >>> UNDO_PLAYER_BITS);
+                    break;
+                case UNDO_HAND_REMOVE:
+                    this.Players.get(payload & ((1 << UNDO_PLAYER_BITS) - 1))
+                        .getAllCards().add(payload >>> UNDO_PLAYER_BITS, card);
+                    break;
+                case UNDO_RESHUFFLE:
+                    this.unshuffle(payload);
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid Undo Record!");
+            }
+        }
+    }
+
+
+    /**
+     * @return Number of moves that can be unmade
+     */
+    public int getNumberOfMoves()
+    {
+        return this.NumberOfMoves;
+    }
+
+
+    /**
+     * Forgets every move that could be unmade, the game stays as it is and 
+     * changes stop being recorded
+     */
+    public void clearUndoLog()
+    {
+        Arrays.fill(this.UndoCards, 0, this.NumberOfUndoRecords, null);
+        this.NumberOfUndoRecords = 0;
+        this.NumberOfMoves = 0;
+    }
+
+
+    /**
+     * Removes a card from a player's hand, recorded if a move can be unmade
+     * @param player Player to remove the card from
+     * @param cardIndex Index of the card in the player's hand
+     * @return The removed card
+     */
+    Card removeCardFromHand(Player player, int cardIndex)
+    {
+        Card card = player.getAllCards().remove(cardIndex);
+
+        if(this.NumberOfMoves > 0)
+        {
+            this.pushUndoRecord(UNDO_HAND_REMOVE, 
+                this.Players.indexOf(player) | (cardIndex << UNDO_PLAYER_BITS), card);
+        }
+
+        return card;
+    }
+
+
+    /**
+     * Adds a card to the end of a player's hand, recorded if a move can be unmade
+     * @param player Player to give the card to
+     * @param card Card to add
+     */
+    void addCardToHand(Player player, Card card)
+    {
+        player.getAllCards().add(card);
+
+        if(this.NumberOfMoves > 0)
+        {
+            this.pushUndoRecord(UNDO_HAND_ADD, this.Players.indexOf(player) 
+                | ((player.getNumberOfCards() - 1) << UNDO_PLAYER_BITS), null);
+        }
+    }
+
+
+    /**
+     * Records the current player, direction, color, draw stack and game 
+     * over flag if a move can be unmade
+     */
+    private void recordState()
+    {
+        if(this.NumberOfMoves > 0)
+        {
+            this.pushUndoRecord(UNDO_STATE, this.CurrentPlayerIndex 
+                | (this.GameDirection.ordinal() << 4) | (this.CurrentColor.ordinal() << 6) 
+                    | ((this.GameOver ? 1 : 0) << 9) | (this.DrawCardsNumber << 10), null);
+        }
+    }
+
+
+    /**
+     * @param packedState Current player, direction, color, game over flag 
+     * and draw stack as recorded by recordState
+     */
+    private void setPackedState(int packedState)
+    {
+        this.CurrentPlayerIndex = packedState & 15;
+        this.GameDirection = Direction.values()[(packedState >>> 4) & 3];
+        this.CurrentColor = CardColors.values()[(packedState >>> 6) & 7];
+        this.GameOver = ((packedState >>> 9) & 1) == 1;
+        this.DrawCardsNumber = packedState >>> 10;
+    }
+
+
+    /**
+     * Puts the discard deck back as it was before a reshuffle, from the 
+     * reshuffled card records below the reshuffle record
+     * @param numberOfCards Number of cards reshuffled
+     */
+    private void unshuffle(int numberOfCards)
+    {
+        Card topCard = this.DiscardDeck.drawTopCard();
+
+        //Every card drawn since the reshuffle is back, so the card deck is 
+        //exactly the reshuffled cards
+        for(int i = 0; i < numberOfCards; ++i)
+        {
+            this.CardDeck.drawTopCard();
+        }
+
+        this.NumberOfUndoRecords -= numberOfCards;
+
+        for(int i = 0; i < numberOfCards; ++i)
+        {
+            this.DiscardDeck.addTopCard(this.UndoCards[this.NumberOfUndoRecords + i]);
+            this.UndoCards[this.NumberOfUndoRecords + i] = null;
+        }
+
+        this.DiscardDeck.addTopCard(topCard);
+        this.NumberOfReshuffles -= 1;
+    }
+
+
+    /**
+     * Adds an undo record if a move can be unmade
+     * @param type Type of the record
+     * @param payload Data of the record
+     * @param card Card of the record, null if the record has no card
+     */
+    private void pushUndoRecord(int type, int payload, Card card)
+    {
+        if(this.NumberOfMoves == 0)
+        {
+            return;
+        }
+
+        if(this.NumberOfUndoRecords == this.UndoRecords.length)
+        {
+            this.UndoRecords = Arrays.copyOf(this.UndoRecords, this.UndoRecords.length * 2);
+            this.UndoCards = Arrays.copyOf(this.UndoCards, this.UndoCards.length * 2);
+        }
+
+        this.UndoRecords[this.NumberOfUndoRecords] = type | (payload << UNDO_TYPE_BITS);
+        this.UndoCards[this.NumberOfUndoRecords++] = card;
+    }
 }
@@ -0,0 +1,173 @@
+package src.Model.GamePlay;
+
+/**
+ * GameSnapshot is a saved state of a game that the game can go back to.
+ * It copies only what playing changes, the card piles, the hands and the
+ * turn, color, direction and draw stack, and shares the immutable cards
+ * and the players with the game. Taking a snapshot and restoring it are
+ * array copies, so a search can try a line of play and undo it cheaply.
+ */
+
+import src.Model.Card.Card;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game.Direction;
+
+public class GameSnapshot
+{
+    /** Game the snapshot was taken of */
+    private final Game SnapshotGame;
+    /** Copy of the card deck */
+    private final CardPile CardDeck;
+    /** Copy of the discard deck */
+    private final CardPile DiscardDeck;
+    /** Copy of each player's hand, in the order of the players */
+    private final Hand[] Hands;
+    /** Index of the current player */
+    private final int CurrentPlayerIndex;
+    /** Direction of the game */
+    private final Direction CurrentDirection;
+    /** Current color to be played */
+    private final CardColors CurrentColor;
+    /** Number of cards due for drawing */
+    private final int DrawCardsNumber;
+    /** If a player has won */
+    private final boolean GameOver;
+    /** Number of times the discard deck was shuffled back into the card deck */
+    private final int NumberOfReshuffles;
+
+
+    /**
+     * @param game Game to take the snapshot of
+     */
+    GameSnapshot(Game game)
+    {
+        this.SnapshotGame = game;
+        this.CardDeck = new CardPile(game.getCardDeck());
+        this.DiscardDeck = new CardPile(game.getDiscardDeck());
+        this.Hands = new Hand[game.getAllPlayers().size()];
+
+        for(int i = 0; i < this.Hands.length; ++i)
+        {
+            this.Hands[i] = new Hand(game.getPlayer(i).getAllCards());
+        }
+
+        this.CurrentPlayerIndex = game.getCurrentPlayerIndex();
+        this.CurrentDirection = game.getCurrentDirection();
+        this.CurrentColor = game.getCurrentColor();
+        this.DrawCardsNumber = game.getDrawCardsNumber();
+        this.GameOver = game.isGameOver();
+        this.NumberOfReshuffles = game.getNumberOfReshuffles();
+    }
+
+
+    /**
+     * @return Gets the game the snapshot was taken of
+     */
+    Game getGame()
+    {
+        return this.SnapshotGame;
+    }
+
+
+    /**
+     * @return Gets the copy of the card deck
+     */
+    CardPile getCardDeck()
+    {
+        return this.CardDeck;
+    }
+
+
+    /**
+     * @return Gets the copy of the discard deck
+     */
+    CardPile getDiscardDeck()
+    {
+        return this.DiscardDeck;
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @return Gets the copy of the player's hand
+     */
+    Hand getHand(int playerIdx)
+    {
+        return this.Hands[playerIdx];
+    }
+
+
+    /**
+     * @return Gets the index of the current player
+     */
+    public int getCurrentPlayerIndex()
+    {
+        return this.CurrentPlayerIndex;
+    }
+
+
+    /**
+     * @return Gets the direction of the game
+     */
+    public Direction getCurrentDirection()
+    {
+        return this.CurrentDirection;
+    }
+
+
+    /**
+     * @return Gets the current color to be played
+     */
+    public CardColors getCurrentColor()
+    {
+        return this.CurrentColor;
+    }
+
+
+    /**
+     * @return Gets the number of cards due for drawing
+     */
+    public int getDrawCardsNumber()
+    {
+        return this.DrawCardsNumber;
+    }
+
+
+    /**
+     * @return If a player had won, then true
+     */
+    public boolean isGameOver()
+    {
+        return this.GameOver;
+    }
+
+
+    /**
+     * @return Gets the number of times the discard deck was shuffled back
+     * into the card deck
+     */
+    public int getNumberOfReshuffles()
+    {
+        return this.NumberOfReshuffles;
+    }
+
+
+    /**
+     * @return Gets the top card of the discard deck
+     */
+    public Card getTopCard()
+    {
+        return this.DiscardDeck.getTopCard();
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @return Gets the number of cards in the player's hand
+     * @throws IndexOutOfBoundsException If there is no player at the index
+     */
+    public int getNumberOfCards(int playerIdx) throws IndexOutOfBoundsException
+    {
+        return this.Hands[playerIdx].size();
+    }
+}
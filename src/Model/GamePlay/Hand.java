@@ -0,0 +1,304 @@
+package src.Model.GamePlay;
+
+/**
+ * Hand is the list of cards a player holds. Besides the cards it keeps the
+ * number of cards of each color and of each kind up to date as cards enter
+ * and leave the hand, so questions like "does the player hold the current
+ * color" are answered without scanning or allocating anything. A Zobrist
+ * hash of the count of each kind is kept up to date the same way.
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+import src.Model.Card.Card;
+import src.Model.Card.Card.CardColors;
+
+public class Hand extends AbstractList<Card> implements RandomAccess
+{
+    /** Number of card colors */
+    private static final int NUMBER_OF_COLORS = CardColors.values().length;
+
+    /** Cards in the hand */
+    private Card[] Cards;
+    /** Number of cards in the hand */
+    private int NumberOfCards = 0;
+    /** Number of cards of each color, indexed by color ordinal */
+    private final int[] ColorCounts = new int[NUMBER_OF_COLORS];
+    /** Number of cards of each kind, indexed by card code */
+    private final int[] CardKindCounts = new int[Card.NUMBER_OF_CARD_KINDS];
+    /** Color bit of each non wild color in the hand, see Card.getColorBit */
+    private int ColorMask = 0;
+    /** Bit (1L << card code) is set for each kind of card in the hand */
+    private long CardKindMask = 0;
+    /** Zobrist hash of the count of each kind, the order of the cards is 
+     * left out */
+    private long Hash = 0;
+
+
+    /**
+     * @param capacity Number of cards the hand can hold before growing
+     */
+    public Hand(int capacity)
+    {
+        this.Cards = new Card[Math.max(capacity, 1)];
+    }
+
+
+    /**
+     * @param cards Cards to put in the hand
+     */
+    public Hand(Collection<Card> cards)
+    {
+        this(cards.size());
+        this.addAll(cards);
+    }
+
+
+    /**
+     * Copy constructor, the copy shares the cards but not the arrays
+     * @param hand Hand to copy
+     */
+    public Hand(Hand hand)
+    {
+        this(hand.Cards.length);
+        this.copyFrom(hand);
+    }
+
+
+    /**
+     * Makes this hand hold the same cards as the given hand, with the same 
+     * counts, the array of cards is only replaced if it is too small
+     * @param hand Hand to copy
+     */
+    public void copyFrom(Hand hand)
+    {
+        if(this.Cards.length < hand.NumberOfCards)
+        {
+            this.Cards = new Card[hand.Cards.length];
+        }
+
+        System.arraycopy(hand.Cards, 0, this.Cards, 0, hand.NumberOfCards);
+
+        //Let go of the cards past the end of the copied hand
+        for(int i = hand.NumberOfCards; i < this.NumberOfCards; ++i)
+        {
+            this.Cards[i] = null;
+        }
+
+        this.NumberOfCards = hand.NumberOfCards;
+        System.arraycopy(hand.ColorCounts, 0, this.ColorCounts, 0, NUMBER_OF_COLORS);
+        System.arraycopy(hand.CardKindCounts, 0, this.CardKindCounts, 0, 
+            Card.NUMBER_OF_CARD_KINDS);
+        this.ColorMask = hand.ColorMask;
+        this.CardKindMask = hand.CardKindMask;
+        this.Hash = hand.Hash;
+        this.modCount += 1;
+    }
+
+
+    @Override
+    public Card get(int index)
+    {
+        this.checkIndex(index, this.NumberOfCards);
+        return this.Cards[index];
+    }
+
+
+    @Override
+    public int size()
+    {
+        return this.NumberOfCards;
+    }
+
+
+    @Override
+    public Card set(int index, Card card)
+    {
+        this.checkIndex(index, this.NumberOfCards);
+        Card oldCard = this.Cards[index];
+        this.countCard(oldCard, -1);
+        this.countCard(card, 1);
+        this.Cards[index] = card;
+        return oldCard;
+    }
+
+
+    @Override
+    public void add(int index, Card card)
+    {
+        this.checkIndex(index, this.NumberOfCards + 1);
+
+        if(this.NumberOfCards == this.Cards.length)
+        {
+            Card[] cards = new Card[this.Cards.length * 2];
+            System.arraycopy(this.Cards, 0, cards, 0, this.NumberOfCards);
+            this.Cards = cards;
+        }
+
+        System.arraycopy(this.Cards, index, this.Cards, index + 1,
+            this.NumberOfCards - index);
+        this.Cards[index] = card;
+        this.NumberOfCards += 1;
+        this.countCard(card, 1);
+        this.modCount += 1;
+    }
+
+
+    @Override
+    public Card remove(int index)
+    {
+        this.checkIndex(index, this.NumberOfCards);
+        Card card = this.Cards[index];
+        System.arraycopy(this.Cards, index + 1, this.Cards, index,
+            this.NumberOfCards - index - 1);
+        this.Cards[--this.NumberOfCards] = null;
+        this.countCard(card, -1);
+        this.modCount += 1;
+        return card;
+    }
+
+
+    @Override
+    public void clear()
+    {
+        for(int i = 0; i < this.NumberOfCards; ++i)
+        {
+            this.Cards[i] = null;
+        }
+
+        this.NumberOfCards = 0;
+        this.ColorMask = 0;
+        this.CardKindMask = 0;
+        this.Hash = 0;
+        Arrays.fill(this.ColorCounts, 0);
+        Arrays.fill(this.CardKindCounts, 0);
+        this.modCount += 1;
+    }
+
+
+    /**
+     * @param index Index to check
+     * @param bound Index must be less than the bound
+     * @throws IndexOutOfBoundsException If the index is invalid
+     */
+    private void checkIndex(int index, int bound) throws IndexOutOfBoundsException
+    {
+        if(index < 0 || index >= bound)
+        {
+            throw new IndexOutOfBoundsException("Index " + Integer.toString(index)
+                + " out of bounds for length " + Integer.toString(this.NumberOfCards));
+        }
+    }
+
+
+    /**
+     * Updates the color and kind counts when a card enters or leaves the hand
+     * @param card Card entering or leaving the hand
+     * @param change 1 if the card enters the hand, -1 if it leaves
+     */
+    private void countCard(Card card, int change)
+    {
+        int color = card.getCardColor().ordinal();
+        int count = this.CardKindCounts[card.getCardCode()];
+        this.ColorCounts[color] += change;
+        this.CardKindCounts[card.getCardCode()] += change;
+        this.Hash ^= ZobristKeys.getHandKey(card.getCardCode(), count) 
+            ^ ZobristKeys.getHandKey(card.getCardCode(), count + change);
+
+        if(this.CardKindCounts[card.getCardCode()] == 0)
+        {
+            this.CardKindMask &= ~(1L << card.getCardCode());
+        }
+        else
+        {
+            this.CardKindMask |= (1L << card.getCardCode());
+        }
+
+        if(card.getCardColor() != CardColors.WILD)
+        {
+            if(this.ColorCounts[color] == 0)
+            {
+                this.ColorMask &= ~Card.getColorBit(card.getCardColor());
+            }
+            else
+            {
+                this.ColorMask |= Card.getColorBit(card.getCardColor());
+            }
+        }
+    }
+
+
+    /**
+     * @return Color bit of each non wild color in the hand, see Card.getColorBit
+     */
+    public int getColorMask()
+    {
+        return this.ColorMask;
+    }
+
+
+    /**
+     * @param color Card color
+     * @return Number of cards of the color in the hand
+     */
+    public int getColorCount(CardColors color)
+    {
+        return this.ColorCounts[color.ordinal()];
+    }
+
+
+    /**
+     * @param cardCode Code of the kind of card
+     * @return Number of cards of the kind in the hand
+     */
+    public int getCardCount(int cardCode)
+    {
+        return this.CardKindCounts[cardCode];
+    }
+
+
+    /**
+     * @return Bit (1L << card code) is set for each kind of card in the hand
+     */
+    public long getCardKindMask()
+    {
+        return this.CardKindMask;
+    }
+
+
+    /**
+     * @return Zobrist hash of the count of each kind of card in the hand, 
+     * equal for hands holding the same cards in any order
+     */
+    public long getHash()
+    {
+        return this.Hash;
+    }
+
+
+    /**
+     * @param cardCode Code of the kind of card
+     * @return Index of the first card of the kind in the hand, -1 if the 
+     * hand has no card of the kind
+     */
+    public int indexOfCardCode(int cardCode)
+    {
+        if(this.CardKindCounts[cardCode] == 0)
+        {
+            return -1;
+        }
+
+        for(int i = 0; i < this.NumberOfCards; ++i)
+        {
+            if(this.Cards[i].getCardCode() == cardCode)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,422 @@
+package src.Model.GamePlay;
+
+/**
+ * HandSampler deals the cards one player cannot see, the other players'
+ * hands and the card deck, at random but consistent with everything that
+ * player has seen. The unseen cards are every card of the game less the
+ * discard deck and the observer's hand, and the count of each kind is kept
+ * up to date turn by turn. When a player draws instead of playing, the
+ * player held no legal card, so the kinds that were legal are excluded from
+ * that player's hand until the player takes a card blind again. Deals put
+ * the excluded kinds aside instead of dealing again until a hand fits, so
+ * every deal is one pass of a partial shuffle over about a hundred bytes.
+ * A sampler is not thread safe, each thread deals with its own copy.
+ */
+
+import java.util.random.RandomGenerator;
+
+import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.ChangeColorCard;
+import src.Model.Card.Card.CardColors;
+
+public class HandSampler
+{
+    /** Bit (1L << card code) of each ChangeColorCard, a drawn ChangeColorCard
+     * is always kept so it is never excluded */
+    private static final long CHANGE_COLOR_CARD_KINDS;
+
+    static
+    {
+        long changeColorCardKinds = 0;
+
+        for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+        {
+            if(CardTable.getCard(i) instanceof ChangeColorCard)
+            {
+                changeColorCardKinds |= (1L << i);
+            }
+        }
+
+        CHANGE_COLOR_CARD_KINDS = changeColorCardKinds;
+    }
+
+    /** Game the sampler deals for */
+    private final Game SampledGame;
+    /** Index of the player whose view the deals keep */
+    private final int ObserverIndex;
+    /** Number of cards of each kind in the whole game */
+    private final int[] TotalCardCounts;
+    /** Number of cards of each kind in the discard deck */
+    private final int[] DiscardCardCounts;
+    /** Kinds of cards each player is known not to hold, as card code bits */
+    private final long[] ExcludedCardKinds;
+    /** Number of cards of each player after the last observed turn */
+    private final int[] LastHandSizes;
+    /** Card codes of the unseen cards being dealt */
+    private final byte[] UnseenCards;
+    /** Number of cards in the discard deck after the last observed turn */
+    private int LastDiscardSize;
+    /** Number of reshuffles after the last observed turn */
+    private int LastNumberOfReshuffles;
+    /** Index of the current player after the last observed turn */
+    private int LastPlayerIndex;
+    /** Top card after the last observed turn */
+    private Card LastTopCard;
+    /** Current color after the last observed turn */
+    private CardColors LastColor;
+    /** Number of cards due for drawing after the last observed turn */
+    private int LastDrawCardsNumber;
+
+
+    /**
+     * Starts tracking the game as it is now, with nothing known about the
+     * other players' hands
+     * @param game Game to deal for
+     * @param observerIdx Index of the player whose view the deals keep
+     * @throws IllegalArgumentException If there is no player at the index
+     */
+    public HandSampler(Game game, int observerIdx) throws IllegalArgumentException
+    {
+        int numPlayers = game.getAllPlayers().size();
+
+        if(observerIdx < 0 || observerIdx >= numPlayers)
+        {
+            throw new IllegalArgumentException("Invalid Observer Index!");
+        }
+
+        this.SampledGame = game;
+        this.ObserverIndex = observerIdx;
+        this.TotalCardCounts = new int[Card.NUMBER_OF_CARD_KINDS];
+        this.DiscardCardCounts = new int[Card.NUMBER_OF_CARD_KINDS];
+        this.ExcludedCardKinds = new long[numPlayers];
+        this.LastHandSizes = new int[numPlayers];
+        int numberOfCards = 0;
+
+        for(CardPile pile : new CardPile[] {game.getCardDeck(), game.getDiscardDeck()})
+        {
+            for(int i = 0; i < pile.size(); ++i)
+            {
+                this.TotalCardCounts[pile.getCard(i).getCardCode()] += 1;
+                ++numberOfCards;
+            }
+        }
+
+        for(Player player : game.getAllPlayers())
+        {
+            for(Card card : player.getAllCards())
+            {
+                this.TotalCardCounts[card.getCardCode()] += 1;
+                ++numberOfCards;
+            }
+        }
+
+        this.UnseenCards = new byte[numberOfCards];
+        this.LastDiscardSize = -1;
+        this.updateDiscardCardCounts();
+        this.rememberTurnState();
+    }
+
+
+    /**
+     * Copy constructor, the copy tracks the same game with its own arrays
+     * @param sampler Sampler to copy
+     */
+    public HandSampler(HandSampler sampler)
+    {
+        this(sampler, sampler.SampledGame);
+    }
+
+
+    /**
+     * Copies the sampler to track a copy of its game instead, so the copy
+     * can deal on another thread while the game itself goes on
+     * @param sampler Sampler to copy
+     * @param game Copy of the sampler's game as it is now
+     */
+    public HandSampler(HandSampler sampler, Game game)
+    {
+        this.SampledGame = game;
+        this.ObserverIndex = sampler.ObserverIndex;
+        this.TotalCardCounts = sampler.TotalCardCounts.clone();
+        this.DiscardCardCounts = sampler.DiscardCardCounts.clone();
+        this.ExcludedCardKinds = sampler.ExcludedCardKinds.clone();
+        this.LastHandSizes = sampler.LastHandSizes.clone();
+        this.UnseenCards = new byte[sampler.UnseenCards.length];
+        this.LastDiscardSize = sampler.LastDiscardSize;
+        this.LastNumberOfReshuffles = sampler.LastNumberOfReshuffles;
+        this.LastPlayerIndex = sampler.LastPlayerIndex;
+        this.LastTopCard = sampler.LastTopCard;
+        this.LastColor = sampler.LastColor;
+        this.LastDrawCardsNumber = sampler.LastDrawCardsNumber;
+    }
+
+
+    /**
+     * Catches up with exactly one turn, the turn of the player who was the
+     * current player at the last observed turn. A player who drew with no
+     * cards due for drawing held none of the kinds legal at the time,
+     * leaving out ChangeColorCards which a player keeps when drawn. A
+     * player who takes a card in any other way might hold anything again.
+     */
+    public void observeTurn()
+    {
+        int playerIdx = this.LastPlayerIndex;
+        int handSize = this.SampledGame.getPlayer(playerIdx).getNumberOfCards();
+        boolean turnPassed = this.SampledGame.getCurrentPlayerIndex() != playerIdx;
+
+        //Playing a card from the hand keeps what is known of the rest
+        if(handSize >= this.LastHandSizes[playerIdx])
+        {
+            //The player drew, and a kept card was not legal either
+            this.ExcludedCardKinds[playerIdx] = (this.LastDrawCardsNumber == 0 && turnPassed
+                && handSize <= this.LastHandSizes[playerIdx] + 1) ? (Game.getLegalCardKinds(
+                    this.LastTopCard, this.LastColor, 0) & ~CHANGE_COLOR_CARD_KINDS) : (0);
+        }
+
+        this.ExcludedCardKinds[this.ObserverIndex] = 0;
+        this.updateDiscardCardCounts();
+        this.rememberTurnState();
+    }
+
+
+    /**
+     * Catches up with any number of turns. Which player did what is not
+     * known, so everything inferred about the other players is forgotten.
+     */
+    public void synchronize()
+    {
+        for(int i = 0; i < this.ExcludedCardKinds.length; ++i)
+        {
+            this.ExcludedCardKinds[i] = 0;
+        }
+
+        this.updateDiscardCardCounts();
+        this.rememberTurnState();
+    }
+
+
+    /**
+     * Counts the cards put on the discard deck since the last observed turn,
+     * or the whole discard deck after a reshuffle
+     */
+    private void updateDiscardCardCounts()
+    {
+        CardPile discardDeck = this.SampledGame.getDiscardDeck();
+        int start = this.LastDiscardSize;
+
+        if(this.SampledGame.getNumberOfReshuffles() != this.LastNumberOfReshuffles
+            || start < 0 || start > discardDeck.size())
+        {
+            for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+            {
+                this.DiscardCardCounts[i] = 0;
+            }
+
+            start = 0;
+        }
+
+        for(int i = start; i < discardDeck.size(); ++i)
+        {
+            this.DiscardCardCounts[discardDeck.getCard(i).getCardCode()] += 1;
+        }
+    }
+
+
+    /**
+     * Remembers the state of the game the next turn is taken in
+     */
+    private void rememberTurnState()
+    {
+        Game game = this.SampledGame;
+
+        for(int i = 0; i < this.LastHandSizes.length; ++i)
+        {
+            this.LastHandSizes[i] = game.getPlayer(i).getNumberOfCards();
+        }
+
+        this.LastDiscardSize = game.getNumberOfCardsInDiscardDeck();
+        this.LastNumberOfReshuffles = game.getNumberOfReshuffles();
+        this.LastPlayerIndex = game.getCurrentPlayerIndex();
+        this.LastTopCard = game.getTopCard();
+        this.LastColor = game.getCurrentColor();
+        this.LastDrawCardsNumber = game.getDrawCardsNumber();
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @return Kinds of cards the player is known not to hold, bit
+     * (1L << card code) is set for each kind
+     */
+    public long getExcludedCardKinds(int playerIdx)
+    {
+        return this.ExcludedCardKinds[playerIdx];
+    }
+
+
+    /**
+     * @param cardCode Code of the kind of card
+     * @return Number of cards of the kind the observer cannot see
+     */
+    public int getUnseenCardCount(int cardCode)
+    {
+        return this.TotalCardCounts[cardCode] - this.DiscardCardCounts[cardCode]
+            - this.SampledGame.getPlayer(this.ObserverIndex).getAllCards().getCardCount(cardCode);
+    }
+
+
+    /**
+     * Makes the target game a deal of the tracked game: the discard deck,
+     * the observer's hand, the turn, color, direction and draw stack are
+     * copied, and the unseen cards are dealt to the other players in their
+     * hand sizes with the rest shuffled into the card deck. Players with
+     * excluded kinds are dealt first from the cards they may hold. If an
+     * exclusion cannot be met, because a player drew while holding a legal
+     * card, that player is dealt from all the cards left.
+     * @param target A copy of the tracked game, its piles, hands and state
+     * are overwritten and its moves can no longer be unmade
+     * @param random Source of randomness for the deal
+     * @throws IllegalArgumentException If the target is the tracked game or
+     * has a different number of players
+     * @throws IllegalStateException If the game changed since the last
+     * observed turn, or its cards do not add up to the cards it started with
+     */
+    public void sample(Game target, RandomGenerator random)
+        throws IllegalArgumentException, IllegalStateException
+    {
+        Game game = this.SampledGame;
+
+        if(target == game || target.getAllPlayers().size() != this.LastHandSizes.length)
+        {
+            throw new IllegalArgumentException("Game Does Not Match!");
+        }
+
+        if(game.getNumberOfCardsInDiscardDeck() != this.LastDiscardSize
+            || game.getNumberOfReshuffles() != this.LastNumberOfReshuffles)
+        {
+            throw new IllegalStateException("Sampler Is Out Of Date!");
+        }
+
+        Hand observerHand = game.getPlayer(this.ObserverIndex).getAllCards();
+        int numberOfCards = 0;
+
+        for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+        {
+            for(int j = this.TotalCardCounts[i] - this.DiscardCardCounts[i]
+                - observerHand.getCardCount(i); j > 0; --j)
+            {
+                this.UnseenCards[numberOfCards++] = (byte) i;
+            }
+        }
+
+        int numberOfHiddenCards = game.getNumberOfCardsInCardDeck();
+
+        for(int i = 0; i < this.LastHandSizes.length; ++i)
+        {
+            numberOfHiddenCards += (i == this.ObserverIndex) ?
+                (0) : (game.getPlayer(i).getNumberOfCards());
+        }
+
+        if(numberOfCards != numberOfHiddenCards)
+        {
+            throw new IllegalStateException("Cards Do Not Add Up!");
+        }
+
+        target.getDiscardDeck().copyFrom(game.getDiscardDeck());
+        target.getPlayer(this.ObserverIndex).getAllCards().copyFrom(observerHand);
+        target.setGameState(game.getCurrentPlayerIndex(), game.getCurrentDirection(),
+            game.getCurrentColor(), game.getDrawCardsNumber(), game.isGameOver());
+        target.clearUndoLog();
+        int numberDealt = 0;
+
+        //Players with exclusions first, while the cards they may hold are left
+        for(int i = 0; i < this.LastHandSizes.length; ++i)
+        {
+            if(i != this.ObserverIndex && this.ExcludedCardKinds[i] != 0)
+            {
+                numberDealt = this.dealHand(target.getPlayer(i).getAllCards(),
+                    game.getPlayer(i).getNumberOfCards(), numberDealt, numberOfCards,
+                        this.ExcludedCardKinds[i], random);
+            }
+        }
+
+        for(int i = 0; i < this.LastHandSizes.length; ++i)
+        {
+            if(i != this.ObserverIndex && this.ExcludedCardKinds[i] == 0)
+            {
+                numberDealt = this.dealHand(target.getPlayer(i).getAllCards(),
+                    game.getPlayer(i).getNumberOfCards(), numberDealt, numberOfCards,
+                        0, random);
+            }
+        }
+
+        //The cards left make up the card deck
+        CardPile cardDeck = target.getCardDeck();
+        cardDeck.clear();
+
+        for(int i = numberDealt; i < numberOfCards; ++i)
+        {
+            this.swapUnseenCards(i, i + random.nextInt(numberOfCards - i));
+            cardDeck.addTopCard(CardTable.getCard(this.UnseenCards[i]));
+        }
+    }
+
+
+    /**
+     * Deals a hand from the unseen cards not dealt yet
+     * @param hand Hand to replace with the dealt cards
+     * @param handSize Number of cards to deal
+     * @param start Index of the first unseen card not dealt yet
+     * @param end Number of unseen cards
+     * @param excludedCardKinds Kinds of cards the hand should not get
+     * @param random Source of randomness for the deal
+     * @return Index of the first unseen card not dealt yet after this hand
+     */
+    private int dealHand(Hand hand, int handSize, int start, int end,
+        long excludedCardKinds, RandomGenerator random)
+    {
+        int numberAllowed = end - start;
+
+        if(excludedCardKinds != 0)
+        {
+            //Move the cards the player may hold to the front
+            numberAllowed = 0;
+
+            for(int i = start; i < end; ++i)
+            {
+                if(((excludedCardKinds >>> this.UnseenCards[i]) & 1) == 0)
+                {
+                    this.swapUnseenCards(start + numberAllowed++, i);
+                }
+            }
+
+            if(numberAllowed < handSize)
+            {
+                numberAllowed = end - start;
+            }
+        }
+
+        hand.clear();
+
+        for(int i = 0; i < handSize; ++i)
+        {
+            this.swapUnseenCards(start + i, start + i + random.nextInt(numberAllowed - i));
+            hand.add(CardTable.getCard(this.UnseenCards[start + i]));
+        }
+
+        return start + handSize;
+    }
+
+
+    /**
+     * @param i Index of an unseen card
+     * @param j Index of the unseen card to swap it with
+     */
+    private void swapUnseenCards(int i, int j)
+    {
+        byte cardCode = this.UnseenCards[i];
+        this.UnseenCards[i] = this.UnseenCards[j];
+        this.UnseenCards[j] = cardCode;
+    }
+}
@@ -0,0 +1,77 @@
+package src.Model.GamePlay;
+
+/**
+ * Move is the choice a player makes in a turn: the index of the card to 
+ * play from the hand, and the next color and next direction of the game 
+ * when the card is a ChangeColorCard. Moves are immutable values.
+ */
+
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game.Direction;
+
+public class Move 
+{
+    /** Draw cards from the card deck instead of playing a card */
+    public static final Move DRAW = new Move(-1);
+    /** No move, the game is over or it is not the player's turn */
+    public static final Move NONE = new Move(-2);
+
+    /** Index of the card to play from the player's hand, -1 to draw cards */
+    private final int CardIndex;
+    /** Next color chosen by the player, WILD if no color was chosen */
+    private final CardColors NextColor;
+    /** Direction of order chosen by the player */
+    private final Direction NextDirection;
+
+
+    /**
+     * @param cardIndex Index of the card to play from the player's hand, 
+     * -1 to draw cards
+     */
+    public Move(int cardIndex)
+    {
+        this(cardIndex, CardColors.WILD, Direction.DEFAULT);
+    }
+
+
+    /**
+     * @param cardIndex Index of the card to play from the player's hand
+     * @param nextColor Next color to be played after a ChangeColorCard
+     * @param nextDirection Direction of order after a ChangeColorCard, 
+     * DEFAULT to keep the current direction
+     */
+    public Move(int cardIndex, CardColors nextColor, Direction nextDirection)
+    {
+        this.CardIndex = cardIndex;
+        this.NextColor = nextColor;
+        this.NextDirection = nextDirection;
+    }
+
+
+    /**
+     * @return Gets the index of the card to play, -1 to draw cards, -2 if 
+     * there is no move
+     */
+    public int getCardIndex()
+    {
+        return this.CardIndex;
+    }
+
+
+    /**
+     * @return Gets the next color to be played, WILD if no color was chosen
+     */
+    public CardColors getNextColor()
+    {
+        return this.NextColor;
+    }
+
+
+    /**
+     * @return Gets the direction of order chosen by the player
+     */
+    public Direction getNextDirection()
+    {
+        return this.NextDirection;
+    }
+}
@@ -0,0 +1,50 @@
+package src.Model.GamePlay;
+
+/**
+ * MoveResult is the outcome of trying a move. The routine reasons a move
+ * is refused are reported as results rather than exceptions, so callers
+ * that try many moves, like simulations, pay nothing for a refusal.
+ */
+
+public enum MoveResult
+{
+    /** The move was made */
+    SUCCESS("Success!"),
+    /** It is not this player's turn */
+    NOT_PLAYER_TURN("Not This Player's Turn!"),
+    /** A player has already won */
+    GAME_OVER("Game Over!"),
+    /** The card cannot be played now, the player draws 1 card as a penalty */
+    ILLEGAL_MOVE("Illegal Move! 1 Card Penalty!");
+
+
+    /** Message shown to the player for this result */
+    private final String Message;
+
+
+    /**
+     * @param message Message shown to the player for this result
+     */
+    private MoveResult(String message)
+    {
+        this.Message = message;
+    }
+
+
+    /**
+     * @return Gets the message shown to the player for this result
+     */
+    public String getMessage()
+    {
+        return this.Message;
+    }
+
+
+    /**
+     * @return If the move was made then true
+     */
+    public boolean isSuccess()
+    {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,336 @@
+package src.Model.GamePlay;
+
+/**
+ * PackedGameState is a compact copy of a game made only of primitive arrays.
+ * Every card is stored as its one byte card code, every hand as the count of
+ * each kind of card, and the current player, direction, color, number of
+ * cards to draw and game over flag are packed into one int, kept with the
+ * number of reshuffles in another. Copying a packed state is a handful of
+ * array copies, which makes it cheap to keep many states for simulation and
+ * search.
+ */
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game.Direction;
+import src.Model.GamePlay.Player.PlayerType;
+
+public class PackedGameState
+{
+    /** Bits of the packed state holding the current player index */
+    private static final int CURRENT_PLAYER_BITS = 4;
+    /** Bits of the packed state holding the direction */
+    private static final int DIRECTION_BITS = 2;
+    /** Bits of the packed state holding the current color */
+    private static final int COLOR_BITS = 3;
+    /** Bits of the packed state holding the game over flag */
+    private static final int GAME_OVER_BITS = 1;
+    /** Position of the direction in the packed state */
+    private static final int DIRECTION_SHIFT = CURRENT_PLAYER_BITS;
+    /** Position of the current color in the packed state */
+    private static final int COLOR_SHIFT = DIRECTION_SHIFT + DIRECTION_BITS;
+    /** Position of the game over flag in the packed state */
+    private static final int GAME_OVER_SHIFT = COLOR_SHIFT + COLOR_BITS;
+    /** Position of the number of cards to draw in the packed state */
+    private static final int DRAW_CARDS_SHIFT = GAME_OVER_SHIFT + GAME_OVER_BITS;
+    /** Largest number of cards to draw the packed state can hold */
+    private static final int MAXIMUM_DRAW_CARDS_NUMBER = (1 << (32 - DRAW_CARDS_SHIFT)) - 1;
+
+    /** Current player, direction, color, game over flag and number of cards to draw */
+    private int PackedState;
+    /** Number of times the discard deck was reshuffled into the card deck */
+    private int NumberOfReshuffles;
+    /** Card codes of the card deck, from the bottom to the top of the deck */
+    private byte[] CardDeck;
+    /** Card codes of the discard deck, from the bottom to the top of the deck */
+    private byte[] DiscardDeck;
+    /** Count of each kind of card in each hand, NUMBER_OF_CARD_KINDS per player */
+    private byte[] HandCardCounts;
+    /** Number of cards in each hand */
+    private byte[] HandSizes;
+    /** ID of each player */
+    private byte[] PlayerIDs;
+    /** Type of each player */
+    private byte[] PlayerTypes;
+
+
+    /**
+     * Packs the state of the game
+     * @param game Game to pack
+     * @throws IllegalArgumentException If the game cannot be packed, such as
+     * more than 127 cards of a kind in one hand
+     */
+    public PackedGameState(Game game) throws IllegalArgumentException
+    {
+        int numPlayers = game.getAllPlayers().size();
+
+        if(game.getDrawCardsNumber() > MAXIMUM_DRAW_CARDS_NUMBER)
+        {
+            throw new IllegalArgumentException("Too Many Cards To Draw To Pack!");
+        }
+
+        this.PackedState = game.getCurrentPlayerIndex()
+            | (game.getCurrentDirection().ordinal() << DIRECTION_SHIFT)
+                | (game.getCurrentColor().ordinal() << COLOR_SHIFT)
+                    | ((game.isGameOver() ? 1 : 0) << GAME_OVER_SHIFT)
+                        | (game.getDrawCardsNumber() << DRAW_CARDS_SHIFT);
+        this.NumberOfReshuffles = game.getNumberOfReshuffles();
+        this.CardDeck = packCardPile(game.getCardDeck());
+        this.DiscardDeck = packCardPile(game.getDiscardDeck());
+        this.HandCardCounts = new byte[numPlayers * Card.NUMBER_OF_CARD_KINDS];
+        this.HandSizes = new byte[numPlayers];
+        this.PlayerIDs = new byte[numPlayers];
+        this.PlayerTypes = new byte[numPlayers];
+
+        for(int i = 0; i < numPlayers; ++i)
+        {
+            Player player = game.getPlayer(i);
+
+            if(player.getNumberOfCards() > Byte.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("Too Many Cards In A Hand To Pack!");
+            }
+
+            this.HandSizes[i] = (byte) player.getNumberOfCards();
+            this.PlayerIDs[i] = (byte) player.getPlayerID();
+            this.PlayerTypes[i] = (byte) player.getPlayerType().ordinal();
+
+            for(Card card : player.getAllCards())
+            {
+                this.HandCardCounts[i * Card.NUMBER_OF_CARD_KINDS + card.getCardCode()] += 1;
+            }
+        }
+    }
+
+
+    /**
+     * Copy constructor, the copy shares no arrays with the original
+     * @param state Packed state to copy
+     */
+    public PackedGameState(PackedGameState state)
+    {
+        this.PackedState = state.PackedState;
+        this.NumberOfReshuffles = state.NumberOfReshuffles;
+        this.CardDeck = state.CardDeck.clone();
+        this.DiscardDeck = state.DiscardDeck.clone();
+        this.HandCardCounts = state.HandCardCounts.clone();
+        this.HandSizes = state.HandSizes.clone();
+        this.PlayerIDs = state.PlayerIDs.clone();
+        this.PlayerTypes = state.PlayerTypes.clone();
+    }
+
+
+    /**
+     * @param pile Card pile to pack
+     * @return Card codes of the pile from the bottom to the top
+     */
+    private static byte[] packCardPile(CardPile pile)
+    {
+        byte[] cardCodes = new byte[pile.size()];
+
+        for(int i = 0; i < cardCodes.length; ++i)
+        {
+            cardCodes[i] = (byte) pile.getCard(i).getCardCode();
+        }
+
+        return cardCodes;
+    }
+
+
+    /**
+     * @param cardCodes Card codes of a pile from the bottom to the top
+     * @param pile Pile to put the shared cards of the codes on
+     */
+    private static void unpackCardPile(byte[] cardCodes, CardPile pile)
+    {
+        for(byte cardCode : cardCodes)
+        {
+            pile.addTopCard(CardTable.getCard(cardCode));
+        }
+    }
+
+
+    /**
+     * Unpacks the state into a new game with a new random number generator
+     * @return A game in this state
+     */
+    public Game toGame()
+    {
+        return this.toGame(new SplittableRandom());
+    }
+
+
+    /**
+     * Unpacks the state into a new game. The order of the cards within each
+     * hand is not kept, each hand is ordered by card code.
+     * @param random Generator for every shuffle and random choice in the game
+     * @return A game in this state
+     */
+    public Game toGame(RandomGenerator random)
+    {
+        Game game = new Game(random);
+        unpackCardPile(this.CardDeck, game.getCardDeck());
+        unpackCardPile(this.DiscardDeck, game.getDiscardDeck());
+
+        for(int i = 0; i < this.getNumberOfPlayers(); ++i)
+        {
+            ArrayList<Card> playerCards = new ArrayList<Card>(this.HandSizes[i]);
+
+            for(int j = 0; j < Card.NUMBER_OF_CARD_KINDS; ++j)
+            {
+                for(int k = this.getCardCount(i, j); k > 0; --k)
+                {
+                    playerCards.add(CardTable.getCard(j));
+                }
+            }
+
+            game.getAllPlayers().add(new Player(game, this.PlayerIDs[i], playerCards,
+                PlayerType.values()[this.PlayerTypes[i]]));
+        }
+
+        game.setGameState(this.getCurrentPlayerIndex(), this.getCurrentDirection(),
+            this.getCurrentColor(), this.getDrawCardsNumber(), this.isGameOver());
+        game.setNumberOfReshuffles(this.NumberOfReshuffles);
+        return game;
+    }
+
+
+    /**
+     * @return Gets the number of players
+     */
+    public int getNumberOfPlayers()
+    {
+        return this.PlayerIDs.length;
+    }
+
+
+    /**
+     * @return Gets the index of the current player
+     */
+    public int getCurrentPlayerIndex()
+    {
+        return this.PackedState & ((1 << CURRENT_PLAYER_BITS) - 1);
+    }
+
+
+    /**
+     * @return Gets the direction of the game
+     */
+    public Direction getCurrentDirection()
+    {
+        return Direction.values()[(this.PackedState >>> DIRECTION_SHIFT)
+            & ((1 << DIRECTION_BITS) - 1)];
+    }
+
+
+    /**
+     * @return Gets the current color being played
+     */
+    public CardColors getCurrentColor()
+    {
+        return CardColors.values()[(this.PackedState >>> COLOR_SHIFT)
+            & ((1 << COLOR_BITS) - 1)];
+    }
+
+
+    /**
+     * @return If a player has won, then true
+     */
+    public boolean isGameOver()
+    {
+        return ((this.PackedState >>> GAME_OVER_SHIFT) & 1) == 1;
+    }
+
+
+    /**
+     * @return Gets the number of cards the player needs to draw
+     */
+    public int getDrawCardsNumber()
+    {
+        return this.PackedState >>> DRAW_CARDS_SHIFT;
+    }
+
+
+    /**
+     * @return Gets the number of times the discard deck was reshuffled into 
+     * the card deck
+     */
+    public int getNumberOfReshuffles()
+    {
+        return this.NumberOfReshuffles;
+    }
+
+
+    /**
+     * @return Gets the code of the top card in the discard deck
+     */
+    public int getTopCardCode()
+    {
+        return this.DiscardDeck[this.DiscardDeck.length - 1];
+    }
+
+
+    /**
+     * @return Gets the number of cards left in the card deck
+     */
+    public int getNumberOfCardsInCardDeck()
+    {
+        return this.CardDeck.length;
+    }
+
+
+    /**
+     * @return Gets the number of cards in the discard deck
+     */
+    public int getNumberOfCardsInDiscardDeck()
+    {
+        return this.DiscardDeck.length;
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @return Gets the ID of the player
+     */
+    public int getPlayerID(int playerIdx)
+    {
+        return this.PlayerIDs[playerIdx];
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @return Gets the number of cards the player has
+     */
+    public int getNumberOfCards(int playerIdx)
+    {
+        return this.HandSizes[playerIdx];
+    }
+
+
+    /**
+     * @param playerIdx Index of the player
+     * @param cardCode Code of the kind of card
+     * @return Gets the number of cards of the kind the player has
+     */
+    public int getCardCount(int playerIdx, int cardCode)
+    {
+        return this.HandCardCounts[playerIdx * Card.NUMBER_OF_CARD_KINDS + cardCode];
+    }
+
+
+    /**
+     * @return Gets the number of bytes held in the arrays of this state
+     */
+    public int getSizeInBytes()
+    {
+        return 2 * Integer.BYTES + this.CardDeck.length + this.DiscardDeck.length
+            + this.HandCardCounts.length + this.HandSizes.length
+                + this.PlayerIDs.length + this.PlayerTypes.length;
+    }
+}
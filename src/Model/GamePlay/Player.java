@@ -7,6 +7,7 @@ package src.Model.GamePlay;
  */
 
 import java.util.ArrayList;
+import java.util.List;
 
 import src.Model.Card.Card;
 import src.Model.Card.Card.CardColors;
@@ -16,7 +17,7 @@ public class Player
     /** Each player has unique ID */
 	private int PlayerID;
     /** Cards each player has */
-    private ArrayList<Card> PlayerCards;
+    private Hand PlayerCards;
     /** Game that a player belongs to */
     private Game CurrentGame;
     /** AI or human player */
@@ -35,14 +36,16 @@ public class Player
     /**
      * @param currentGame Game that a player belongs to
      * @param PID Each player has unique ID
-     * @param playerCards Cards each player has
+     * @param playerCards Cards each player has, a Hand is used as is and any 
+     * other list is copied into a new Hand
      * @param playerType Type of player
      */
-    public Player(Game currentGame, int PID, ArrayList<Card> playerCards, PlayerType playerType)
+    public Player(Game currentGame, int PID, List<Card> playerCards, PlayerType playerType)
     {
         this.CurrentGame = currentGame;
         this.PlayerID = PID;
-        this.PlayerCards = playerCards;
+        this.PlayerCards = (playerCards instanceof Hand) ? 
+            ((Hand) playerCards) : (new Hand(playerCards));
         this.PlayerKind = playerType;
     }
 
@@ -73,18 +76,11 @@ public class Player
         ArrayList<CardColors> cardColors = new ArrayList<CardColors>();
 
         //Get the colors the players has except including wild color
-        for(Card card : this.PlayerCards)
+        for(CardColors c : CardColors.values())
         {
-            //Add no duplicates
-            if(card.getCardColor() != CardColors.WILD 
-                && !cardColors.contains(card.getCardColor())) 
+            if(c != CardColors.WILD && this.PlayerCards.getColorCount(c) > 0)
             {
-                cardColors.add(card.getCardColor());
-
-                if(cardColors.size() == 4)
-                {
-                    break;
-                }
+                cardColors.add(c);
             }
         }
 
@@ -92,40 +88,91 @@ public class Player
     }
 
 
+    /**
+     * @return Gets the color bits of all the colored cards the player has, 
+     * see Card.getColorBit
+     */
+    public int getCardColorMask()
+    {
+        return this.PlayerCards.getColorMask();
+    }
+
+
     /**
      * @param cardIndex The card index player wants to play, -1 if the player 
-     * does not want to play any card
+     * does not want to play any card. A ChangeColorCard played this way has 
+     * no next color and is illegal.
      * @throws IllegalArgumentException If the cardindex is illegal
      */
     public void playCard(int cardIndex) 
         throws IllegalArgumentException, IllegalAccessException
     {
-        if(cardIndex < -1 || cardIndex > this.PlayerCards.size())
+        this.playCard(new Move(cardIndex));
+    }
+
+
+    /**
+     * @param move The move the player wants to make, with the card index 
+     * -1 if the player does not want to play any card
+     * @throws IllegalArgumentException If the cardindex is illegal
+     * @throws IllegalAccessException If it is not this player's turn, or the 
+     * game is over, or the move is illegal, the player is penalized first
+     */
+    public void playCard(Move move) 
+        throws IllegalArgumentException, IllegalAccessException
+    {
+        Game.throwIfNotSuccess(this.tryPlayCard(move));
+    }
+
+
+    /**
+     * Makes the move without throwing for a refused move. If the move is 
+     * refused the player draws 1 card as a penalty.
+     * @param move The move the player wants to make, with the card index 
+     * -1 if the player does not want to play any card
+     * @return SUCCESS if the move was made, otherwise NOT_PLAYER_TURN, 
+     * GAME_OVER or ILLEGAL_MOVE
+     * @throws IllegalArgumentException If the cardindex is illegal
+     */
+    public MoveResult tryPlayCard(Move move) throws IllegalArgumentException
+    {
+        int cardIndex = move.getCardIndex();
+
+        if(cardIndex < -1 || cardIndex >= this.PlayerCards.size())
         {
             throw new IllegalArgumentException("Invalid Card Index!");
         }
 
-        try
+        MoveResult result;
+
+        //If the player decides not to play any card
+        if(cardIndex == -1)
         {
-            //If the player decides not to play any card
-            if(cardIndex == -1)
-            {
-                this.PlayerCards.addAll
-                    (CurrentGame.drawCardsFromDeck(this.PlayerID));
-            }
-            else
+            result = CurrentGame.tryDraw(this.PlayerID, this.PlayerCards);
+        }
+        else
+        {
+            result = CurrentGame.tryPlay(this.getPlayerID(), 
+                this.PlayerCards.get(cardIndex), move, this.getCardColorMask());
+
+            if(result.isSuccess())
             {
-                CurrentGame.updateGameState(this.getPlayerID(), 
-                    this.PlayerCards.get(cardIndex), this.getCardColors());
-                this.PlayerCards.remove(cardIndex);
+                CurrentGame.removeCardFromHand(this, cardIndex);
             }
         }
-        catch(IllegalArgumentException | IllegalAccessException ex)
+
+        if(!result.isSuccess())
         {
             //If the move was illegal, then punish the player
-            this.PlayerCards.add(CurrentGame.penalizePlayer());
-            throw ex;
+            Card penaltyCard = CurrentGame.penalizePlayer();
+
+            if(penaltyCard != null)
+            {
+                CurrentGame.addCardToHand(this, penaltyCard);
+            }
         }
+
+        return result;
     }
 
 
@@ -160,9 +207,9 @@ public class Player
 
 
     /**
-     * @return ArrayList of all the cards of the player
+     * @return Hand of all the cards of the player
      */
-    public ArrayList<Card> getAllCards() 
+    public Hand getAllCards() 
     {
         return this.PlayerCards;
     }
@@ -173,31 +220,22 @@ public class Player
      */
     public CardColors getMaximumCardColor() 
     {
-        int[] cardColorCount = new int[CardColors.values().length];
+        CardColors[] cardColors = CardColors.values();
+        int maxIdx = 0;
+        int maxCount = -1;
 
-        for(CardColors c : CardColors.values())
+        for(int i = 0; i < cardColors.length; ++i)
         {
-            cardColorCount[c.ordinal()] = 0;
-        }
+            int count = (cardColors[i] == CardColors.WILD) ? 
+                (-1) : (this.PlayerCards.getColorCount(cardColors[i]));
 
-        cardColorCount[CardColors.WILD.ordinal()] = -1;
-
-        for(Card card : this.PlayerCards)
-        {
-            if(card.getCardColor() != CardColors.WILD)
+            if(count > maxCount)
             {
-                cardColorCount[card.getCardColor().ordinal()] += 1;
-            } 
-        }
-
-        int maxIdx = 0;
-
-        for(int i = 0; i < cardColorCount.length; ++i)
-        {
-            maxIdx = (cardColorCount[i] > cardColorCount[maxIdx]) ? 
-                (i) : (maxIdx);
+                maxIdx = i;
+                maxCount = count;
+            }
         }
 
-        return CardColors.values()[maxIdx];
+        return cardColors[maxIdx];
     }
 }
@@ -0,0 +1,115 @@
+package src.Model.GamePlay;
+
+/**
+ * ZobristKeys holds the random keys game states are hashed with. A hash is
+ * the exclusive or of the keys of every part of the state, so a change to
+ * one part updates the hash with the keys of the old and the new value.
+ * The keys are drawn from a fixed seed, so hashes are the same in every run.
+ */
+
+import java.util.SplittableRandom;
+
+import src.Model.Card.Card;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game.Direction;
+
+final class ZobristKeys
+{
+    /** Seed of the keys */
+    private static final long SEED = 0x5DEECE66DL;
+    /** Number of card counts of a kind in a hand with their own key, counts
+     * wrap around past it */
+    static final int NUMBER_OF_COUNT_KEYS = 8;
+    /** Number of positions in a pile with their own key, positions wrap
+     * around past it */
+    static final int NUMBER_OF_POSITION_KEYS = 128;
+    /** Number of player indexes with their own key */
+    static final int NUMBER_OF_PLAYER_KEYS = 16;
+    /** Number of draw stack sizes with their own key, sizes wrap around
+     * past it */
+    static final int NUMBER_OF_DRAW_KEYS = 64;
+
+    /** Key of each card code and count in a hand, a count of 0 has key 0 */
+    static final long[][] HAND_KEYS =
+        new long[Card.NUMBER_OF_CARD_KINDS][NUMBER_OF_COUNT_KEYS];
+    /** Key of each position in a pile and card code */
+    static final long[][] PILE_KEYS =
+        new long[NUMBER_OF_POSITION_KEYS][Card.NUMBER_OF_CARD_KINDS];
+    /** Key of each current player index */
+    static final long[] PLAYER_KEYS = new long[NUMBER_OF_PLAYER_KEYS];
+    /** Key of each direction */
+    static final long[] DIRECTION_KEYS = new long[Direction.values().length];
+    /** Key of each current color */
+    static final long[] COLOR_KEYS = new long[CardColors.values().length];
+    /** Key of each draw stack size */
+    static final long[] DRAW_KEYS = new long[NUMBER_OF_DRAW_KEYS];
+    /** Key of the game being over */
+    static final long GAME_OVER_KEY;
+
+    static
+    {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for(long[] keys : HAND_KEYS)
+        {
+            for(int i = 1; i < NUMBER_OF_COUNT_KEYS; ++i)
+            {
+                keys[i] = random.nextLong();
+            }
+        }
+
+        for(long[] keys : PILE_KEYS)
+        {
+            fill(keys, random);
+        }
+
+        fill(PLAYER_KEYS, random);
+        fill(DIRECTION_KEYS, random);
+        fill(COLOR_KEYS, random);
+        fill(DRAW_KEYS, random);
+        GAME_OVER_KEY = random.nextLong();
+    }
+
+
+    /**
+     * Keys are only read through the static tables
+     */
+    private ZobristKeys()
+    {
+    }
+
+
+    /**
+     * @param keys Keys to fill
+     * @param random Source of the keys
+     */
+    private static void fill(long[] keys, SplittableRandom random)
+    {
+        for(int i = 0; i < keys.length; ++i)
+        {
+            keys[i] = random.nextLong();
+        }
+    }
+
+
+    /**
+     * @param cardCode Code of the kind of card
+     * @param count Number of cards of the kind in a hand
+     * @return Key of the count of the kind in a hand
+     */
+    static long getHandKey(int cardCode, int count)
+    {
+        return HAND_KEYS[cardCode][count & (NUMBER_OF_COUNT_KEYS - 1)];
+    }
+
+
+    /**
+     * @param position Index of the card counted from the bottom of a pile
+     * @param cardCode Code of the card
+     * @return Key of the card at the position in a pile
+     */
+    static long getPileKey(int position, int cardCode)
+    {
+        return PILE_KEYS[position & (NUMBER_OF_POSITION_KEYS - 1)][cardCode];
+    }
+}
@@ -0,0 +1,735 @@
+package src.Simulation;
+
+/**
+ * BatchedGameEngine plays many games between AI players in lockstep, one
+ * turn of every game per step, for simulations too large to play one Game
+ * object at a time. The games are lanes of a struct of arrays: the top
+ * cards, current colors, draw stacks and current players are an array each
+ * with one entry per lane, and every hand is a row of card counts in one
+ * matrix. A step is three passes over the lanes: the legal kinds of cards
+ * of every current player, the move of every policy, then the moves made.
+ * The first two passes are straight loops over primitive arrays with no
+ * objects and little branching, which the JIT compiles tight, and a lane
+ * whose game ends is dealt the next game at once so every lane stays busy.
+ *
+ * The rules are those of Game and the policies are those of BaselineAI and
+ * StrategicAI, except that a hand has no order: where those AIs pick the
+ * first legal card of a hand, the policies here pick the legal card with
+ * the lowest card code. Every game has its own seed, but it is a different
+ * game from the Game of the same seed.
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.ChangeColorCard;
+import src.Model.Card.DrawTwoCard;
+import src.Model.Card.ReverseCard;
+import src.Model.Card.SkipCard;
+import src.Model.Card.Card.CardColors;
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Game.Direction;
+import src.Model.GamePlay.Player.PlayerType;
+
+public class BatchedGameEngine
+{
+    /** Default number of games played at once */
+    public static final int DEFAULT_NUMBER_OF_LANES = 1024;
+    /** Maximum number of turns before a game is called off, as in GameSimulator */
+    private static final int MAXIMUM_TURNS = 10000;
+    /** Number of cards each player is dealt, as in Game */
+    private static final int INITIAL_NUMBER_OF_CARDS = 7;
+    /** Number of cards in the game */
+    private static final int NUMBER_OF_CARDS = CardTable.NUMBER_OF_CARDS_IN_DECK;
+    /** Number of kinds of cards */
+    private static final int NUMBER_OF_KINDS = Card.NUMBER_OF_CARD_KINDS;
+    /** Number of card colors, wild included */
+    private static final int NUMBER_OF_COLORS = CardColors.values().length;
+    /** Action of drawing cards, any other action is a card code, the next
+     * color shifted by COLOR_SHIFT and the next direction by DIRECTION_SHIFT */
+    private static final int DRAW_ACTION = -1;
+    /** Position of the next color in an action */
+    private static final int COLOR_SHIFT = 6;
+    /** Position of the next direction in an action */
+    private static final int DIRECTION_SHIFT = 9;
+    /** Mask of the card code in an action */
+    private static final int CARD_CODE_MASK = (1 << COLOR_SHIFT) - 1;
+    /** Mask of the next color in an action once shifted */
+    private static final int COLOR_MASK = (1 << (DIRECTION_SHIFT - COLOR_SHIFT)) - 1;
+    /** Lane seat type of a baseline AI player */
+    private static final byte BASELINE_SEAT = 0;
+    /** Lane seat type of a strategic AI player */
+    private static final byte STRATEGIC_SEAT = 1;
+
+    /** Code of the wild draw four card */
+    private static final int WILD_DRAW_FOUR_CODE = CardTable.getWildDrawFourCard().getCardCode();
+    /** Color ordinal of each kind of card */
+    private static final int[] CARD_COLORS = new int[NUMBER_OF_KINDS];
+    /** Card code of each card of a full deck */
+    private static final byte[] DECK_CARD_CODES = new byte[NUMBER_OF_CARDS];
+    /** Legal kinds of cards for each top card, current color and whether
+     * cards are due for drawing, without the wild draw four card which
+     * also depends on the colors of the player, see Game.legalMoves */
+    private static final long[] LEGAL_CARD_KINDS = new long[NUMBER_OF_KINDS * NUMBER_OF_COLORS * 2];
+    /** Bit (1L << card code) of each ChangeColorCard */
+    private static final long CHANGE_COLOR_KINDS;
+    /** Bit (1L << card code) of each DrawTwoCard */
+    private static final long DRAW_TWO_KINDS;
+    /** Bit (1L << card code) of each SkipCard */
+    private static final long SKIP_KINDS;
+    /** Bit (1L << card code) of each ReverseCard */
+    private static final long REVERSE_KINDS;
+
+    static
+    {
+        long changeColorKinds = 0;
+        long drawTwoKinds = 0;
+        long skipKinds = 0;
+        long reverseKinds = 0;
+
+        for(int i = 0; i < NUMBER_OF_KINDS; ++i)
+        {
+            Card card = CardTable.getCard(i);
+            CARD_COLORS[i] = card.getCardColor().ordinal();
+            changeColorKinds |= (card instanceof ChangeColorCard) ? (1L << i) : (0);
+            drawTwoKinds |= (card instanceof DrawTwoCard) ? (1L << i) : (0);
+            skipKinds |= (card instanceof SkipCard) ? (1L << i) : (0);
+            reverseKinds |= (card instanceof ReverseCard) ? (1L << i) : (0);
+
+            for(CardColors c : CardColors.values())
+            {
+                for(int j = 0; j < 2; ++j)
+                {
+                    for(int k = 0; k < NUMBER_OF_KINDS; ++k)
+                    {
+                        if(k != WILD_DRAW_FOUR_CODE && CardTable.getCard(k).isLegal(card, c, j, 0))
+                        {
+                            LEGAL_CARD_KINDS[getLegalCardKindsIndex(i, c.ordinal(), j)] |= (1L << k);
+                        }
+                    }
+                }
+            }
+        }
+
+        for(int i = 0; i < NUMBER_OF_CARDS; ++i)
+        {
+            DECK_CARD_CODES[i] = (byte) CardTable.getDeckCard(i).getCardCode();
+        }
+
+        CHANGE_COLOR_KINDS = changeColorKinds;
+        DRAW_TWO_KINDS = drawTwoKinds;
+        SKIP_KINDS = skipKinds;
+        REVERSE_KINDS = reverseKinds;
+    }
+
+    /** Number of players in each game */
+    private final int NumberOfPlayers;
+    /** Number of strategic AI players in each game */
+    private final int NumberOfStrategicAIPlayers;
+    /** Number of games played at once */
+    private final int NumberOfLanes;
+    /** Generates the seed of each game */
+    private final SplittableRandom SeedGenerator;
+
+    /** If a game is being played in the lane */
+    private final boolean[] Active;
+    /** Seed of the game in each lane */
+    private final long[] GameSeeds;
+    /** State of the random number generator of each lane */
+    private final long[] RandomStates;
+    /** Code of the top card of the discard deck of each lane */
+    private final int[] TopCards;
+    /** Current color ordinal of each lane */
+    private final int[] CurrentColors;
+    /** Number of cards due for drawing in each lane */
+    private final int[] DrawStacks;
+    /** Index of the current player of each lane */
+    private final int[] CurrentPlayers;
+    /** If the game of each lane goes counterclockwise */
+    private final boolean[] Counterclockwise;
+    /** Number of turns taken in each lane */
+    private final int[] NumberOfTurns;
+    /** Number of reshuffles in each lane */
+    private final int[] NumberOfReshuffles;
+    /** Seat type of each player of each lane, NumberOfPlayers per lane */
+    private final byte[] SeatTypes;
+    /** Count of each kind of card in each hand, NUMBER_OF_KINDS per player */
+    private final byte[] HandCardCounts;
+    /** Count of each color in each hand, NUMBER_OF_COLORS per player */
+    private final int[] HandColorCounts;
+    /** Kinds of cards in each hand, as card code bits */
+    private final long[] HandKinds;
+    /** Number of cards in each hand */
+    private final int[] HandSizes;
+    /** Card codes of the card deck of each lane, from the bottom to the top,
+     * NUMBER_OF_CARDS per lane */
+    private final byte[] CardDecks;
+    /** Number of cards in the card deck of each lane */
+    private final int[] CardDeckSizes;
+    /** Card codes of the discard deck of each lane, from the bottom to the
+     * top, NUMBER_OF_CARDS per lane */
+    private final byte[] DiscardDecks;
+    /** Number of cards in the discard deck of each lane */
+    private final int[] DiscardDeckSizes;
+    /** Legal kinds of cards of the current player of each lane */
+    private final long[] LegalKinds;
+    /** Action of the current player of each lane */
+    private final int[] Actions;
+
+    /** Statistics of the games played */
+    private TournamentStatistics Statistics;
+    /** Number of games left to deal */
+    private long NumberOfGamesToDeal;
+    /** Number of lanes with a game being played */
+    private int NumberOfActiveLanes;
+
+
+    /**
+     * @param numBaselineAIPlayers Number of baseline AI players in each game
+     * @param numStrategicAIPlayers Number of strategic AI players in each game
+     * @param numberOfLanes Number of games played at once
+     * @param seed Seed for the seeds of the games, the same seed and number
+     * of lanes play the same games
+     * @throws IllegalArgumentException If the number of players or lanes
+     * is invalid
+     */
+    public BatchedGameEngine(int numBaselineAIPlayers, int numStrategicAIPlayers,
+        int numberOfLanes, long seed) throws IllegalArgumentException
+    {
+        int numPlayers = numBaselineAIPlayers + numStrategicAIPlayers;
+
+        if(numBaselineAIPlayers < 0 || numStrategicAIPlayers < 0
+            || numPlayers < Game.getMinimumPlayers() || numPlayers > Game.getMaximumPlayers())
+        {
+            throw new IllegalArgumentException("Number Of Players Cannot Be Less Than " +
+                Integer.toString(Game.getMinimumPlayers()) + " and cannot be more than " +
+                    Integer.toString(Game.getMaximumPlayers()));
+        }
+
+        if(numberOfLanes < 1)
+        {
+            throw new IllegalArgumentException("Number Of Lanes Must Be At Least 1!");
+        }
+
+        this.NumberOfPlayers = numPlayers;
+        this.NumberOfStrategicAIPlayers = numStrategicAIPlayers;
+        this.NumberOfLanes = numberOfLanes;
+        this.SeedGenerator = new SplittableRandom(seed);
+        this.Active = new boolean[numberOfLanes];
+        this.GameSeeds = new long[numberOfLanes];
+        this.RandomStates = new long[numberOfLanes];
+        this.TopCards = new int[numberOfLanes];
+        this.CurrentColors = new int[numberOfLanes];
+        this.DrawStacks = new int[numberOfLanes];
+        this.CurrentPlayers = new int[numberOfLanes];
+        this.Counterclockwise = new boolean[numberOfLanes];
+        this.NumberOfTurns = new int[numberOfLanes];
+        this.NumberOfReshuffles = new int[numberOfLanes];
+        this.SeatTypes = new byte[numberOfLanes * numPlayers];
+        this.HandCardCounts = new byte[numberOfLanes * numPlayers * NUMBER_OF_KINDS];
+        this.HandColorCounts = new int[numberOfLanes * numPlayers * NUMBER_OF_COLORS];
+        this.HandKinds = new long[numberOfLanes * numPlayers];
+        this.HandSizes = new int[numberOfLanes * numPlayers];
+        this.CardDecks = new byte[numberOfLanes * NUMBER_OF_CARDS];
+        this.CardDeckSizes = new int[numberOfLanes];
+        this.DiscardDecks = new byte[numberOfLanes * NUMBER_OF_CARDS];
+        this.DiscardDeckSizes = new int[numberOfLanes];
+        this.LegalKinds = new long[numberOfLanes];
+        this.Actions = new int[numberOfLanes];
+    }
+
+
+    /**
+     * @return Gets the total number of players in each game
+     */
+    public int getNumberOfPlayers()
+    {
+        return this.NumberOfPlayers;
+    }
+
+
+    /**
+     * @return Gets the number of games played at once
+     */
+    public int getNumberOfLanes()
+    {
+        return this.NumberOfLanes;
+    }
+
+
+    /**
+     * Plays games in every lane until the number of games is played
+     * @param numberOfGames Number of games to play
+     * @return Statistics of the games played
+     * @throws IllegalArgumentException If the number of games is negative
+     */
+    public TournamentStatistics run(long numberOfGames) throws IllegalArgumentException
+    {
+        if(numberOfGames < 0)
+        {
+            throw new IllegalArgumentException("Number Of Games Cannot Be Negative!");
+        }
+
+        long startTime = System.nanoTime();
+        this.Statistics = new TournamentStatistics();
+        this.NumberOfGamesToDeal = numberOfGames;
+        this.NumberOfActiveLanes = 0;
+
+        for(int lane = 0; lane < this.NumberOfLanes; ++lane)
+        {
+            this.dealNextGame(lane);
+        }
+
+        while(this.NumberOfActiveLanes > 0)
+        {
+            this.findLegalKinds();
+            this.chooseActions();
+            this.makeActions();
+        }
+
+        this.Statistics.setElapsedNanoseconds(System.nanoTime() - startTime);
+        return this.Statistics;
+    }
+
+
+    /**
+     * Finds the legal kinds of cards of the current player of every lane
+     */
+    private void findLegalKinds()
+    {
+        for(int lane = 0; lane < this.NumberOfLanes; ++lane)
+        {
+            int hand = lane * this.NumberOfPlayers + this.CurrentPlayers[lane];
+            int drawStack = this.DrawStacks[lane];
+            int topCard = this.TopCards[lane];
+            int color = this.CurrentColors[lane];
+
+            //The wild draw four card needs no card of the current color
+            boolean wildDrawFourLegal = (drawStack == 0
+                && this.HandColorCounts[hand * NUMBER_OF_COLORS + color] == 0)
+                    || topCard == WILD_DRAW_FOUR_CODE;
+            long legalKinds = LEGAL_CARD_KINDS[getLegalCardKindsIndex(topCard, color,
+                (drawStack == 0) ? 0 : 1)] | ((wildDrawFourLegal) ? (1L << WILD_DRAW_FOUR_CODE) : 0);
+
+            this.LegalKinds[lane] = (this.Active[lane]) ? (legalKinds & this.HandKinds[hand]) : (0);
+        }
+    }
+
+
+    /**
+     * Chooses the action of the current player of every lane, with the
+     * policy of BaselineAI or StrategicAI by the player's seat
+     */
+    private void chooseActions()
+    {
+        for(int lane = 0; lane < this.NumberOfLanes; ++lane)
+        {
+            int hand = lane * this.NumberOfPlayers + this.CurrentPlayers[lane];
+            long legalKinds = this.LegalKinds[lane];
+            boolean strategic = this.SeatTypes[hand] == STRATEGIC_SEAT;
+
+            if(this.DrawStacks[lane] != 0)
+            {
+                //Only a strategic AI passes the cards due for drawing on
+                long passKinds = legalKinds & ((this.TopCards[lane] == WILD_DRAW_FOUR_CODE) ?
+                    (1L << WILD_DRAW_FOUR_CODE) : (DRAW_TWO_KINDS));
+                this.Actions[lane] = (!strategic || passKinds == 0) ? (DRAW_ACTION) :
+                    (this.getStrategicAction(lane, hand, Long.numberOfTrailingZeros(passKinds)));
+                continue;
+            }
+
+            //Any legal colored card before a ChangeColorCard
+            long coloredKinds = legalKinds & ~CHANGE_COLOR_KINDS;
+            int cardCode = Long.numberOfTrailingZeros((coloredKinds != 0) ?
+                (coloredKinds) : (legalKinds));
+
+            if(legalKinds == 0)
+            {
+                this.Actions[lane] = DRAW_ACTION;
+            }
+            else if(strategic)
+            {
+                this.Actions[lane] = this.getStrategicAction(lane, hand, cardCode);
+            }
+            else
+            {
+                //Keep the current color and the current direction
+                this.Actions[lane] = cardCode | (this.CurrentColors[lane] << COLOR_SHIFT);
+            }
+        }
+    }
+
+
+    /**
+     * @param lane Lane of the game
+     * @param hand Index of the current player's hand
+     * @param cardCode Card to play
+     * @return Action playing the card, a ChangeColorCard with the most
+     * popular color of the hand and a random direction
+     */
+    private int getStrategicAction(int lane, int hand, int cardCode)
+    {
+        if(((CHANGE_COLOR_KINDS >>> cardCode) & 1) == 0)
+        {
+            return cardCode;
+        }
+
+        int colors = hand * NUMBER_OF_COLORS;
+        int maximumColor = 1;
+
+        for(int c = 2; c < NUMBER_OF_COLORS; ++c)
+        {
+            maximumColor = (this.HandColorCounts[colors + c] > this.HandColorCounts[colors + maximumColor]) ?
+                (c) : (maximumColor);
+        }
+
+        return cardCode | (maximumColor << COLOR_SHIFT)
+            | (this.nextInt(lane, Direction.values().length) << DIRECTION_SHIFT);
+    }
+
+
+    /**
+     * Makes the action of the current player of every lane, and deals the
+     * next game into every lane whose game ended
+     */
+    private void makeActions()
+    {
+        for(int lane = 0; lane < this.NumberOfLanes; ++lane)
+        {
+            if(!this.Active[lane])
+            {
+                continue;
+            }
+
+            int action = this.Actions[lane];
+            boolean gameOver = (action == DRAW_ACTION) ?
+                (this.draw(lane)) : (this.play(lane, action, true));
+            this.NumberOfTurns[lane] += 1;
+
+            if(gameOver || this.NumberOfTurns[lane] >= MAXIMUM_TURNS)
+            {
+                this.finishGame(lane, gameOver);
+            }
+        }
+    }
+
+
+    /**
+     * Plays a card, see Game.tryPlay
+     * @param lane Lane of the game
+     * @param action Action of the card, its next color and its next direction
+     * @param fromHand If the card is played from the current player's hand,
+     * else it was just drawn and is played at once
+     * @return If the current player won
+     */
+    private boolean play(int lane, int action, boolean fromHand)
+    {
+        int cardCode = action & CARD_CODE_MASK;
+        long cardBit = 1L << cardCode;
+        int hand = lane * this.NumberOfPlayers + this.CurrentPlayers[lane];
+
+        if((CHANGE_COLOR_KINDS & cardBit) != 0)
+        {
+            this.DrawStacks[lane] += (cardCode == WILD_DRAW_FOUR_CODE) ? 4 : 0;
+            this.CurrentColors[lane] = (action >>> COLOR_SHIFT) & COLOR_MASK;
+            int direction = action >>> DIRECTION_SHIFT;
+
+            if(direction != Direction.DEFAULT.ordinal())
+            {
+                this.Counterclockwise[lane] = direction == Direction.COUNTERCLOCKWISE.ordinal();
+            }
+        }
+        else
+        {
+            this.DrawStacks[lane] += ((DRAW_TWO_KINDS & cardBit) != 0) ? 2 : 0;
+            this.CurrentColors[lane] = CARD_COLORS[cardCode];
+        }
+
+        if((REVERSE_KINDS & cardBit) != 0)
+        {
+            this.Counterclockwise[lane] = !this.Counterclockwise[lane];
+        }
+
+        this.DiscardDecks[lane * NUMBER_OF_CARDS + this.DiscardDeckSizes[lane]++] = (byte) cardCode;
+        this.TopCards[lane] = cardCode;
+
+        if(fromHand)
+        {
+            this.removeCard(hand, cardCode);
+
+            if(this.HandSizes[hand] == 0)
+            {
+                return true;
+            }
+        }
+
+        this.nextPlayer(lane, ((SKIP_KINDS & cardBit) != 0) ? 2 : 1);
+        return false;
+    }
+
+
+    /**
+     * Draws cards for the current player, see Game.tryDraw
+     * @param lane Lane of the game
+     * @return If the current player won, never true
+     */
+    private boolean draw(int lane)
+    {
+        int hand = lane * this.NumberOfPlayers + this.CurrentPlayers[lane];
+
+        if(this.DrawStacks[lane] == 0)
+        {
+            int cardCode = this.drawCard(lane);
+            long legalKinds = LEGAL_CARD_KINDS[getLegalCardKindsIndex(this.TopCards[lane],
+                this.CurrentColors[lane], 0)] & ~CHANGE_COLOR_KINDS;
+
+            //A drawn card is played at once if it is legal, a drawn
+            //ChangeColorCard always goes back to the player
+            if(cardCode != -1 && ((legalKinds >>> cardCode) & 1) != 0)
+            {
+                return this.play(lane, cardCode, false);
+            }
+
+            if(cardCode != -1)
+            {
+                this.addCard(hand, cardCode);
+            }
+        }
+        else
+        {
+            //Penalties beyond the cards left in the game are forgiven
+            for(; this.DrawStacks[lane] != 0; --this.DrawStacks[lane])
+            {
+                int cardCode = this.drawCard(lane);
+
+                if(cardCode == -1)
+                {
+                    this.DrawStacks[lane] = 0;
+                    break;
+                }
+
+                this.addCard(hand, cardCode);
+            }
+        }
+
+        this.nextPlayer(lane, 1);
+        return false;
+    }
+
+
+    /**
+     * @param lane Lane of the game
+     * @param increment Number of players to move on by in the direction of
+     * the game
+     */
+    private void nextPlayer(int lane, int increment)
+    {
+        int numPlayers = this.NumberOfPlayers;
+        this.CurrentPlayers[lane] = (this.Counterclockwise[lane]) ?
+            ((this.CurrentPlayers[lane] - increment + numPlayers) % numPlayers) :
+                ((this.CurrentPlayers[lane] + increment) % numPlayers);
+    }
+
+
+    /**
+     * Draws the top card of the card deck, the discard deck below its top
+     * card is shuffled into the card deck if the card deck is empty
+     * @param lane Lane of the game
+     * @return Code of the card drawn, -1 if every other card is in a hand
+     */
+    private int drawCard(int lane)
+    {
+        int deck = lane * NUMBER_OF_CARDS;
+
+        if(this.CardDeckSizes[lane] == 0)
+        {
+            int numberOfCards = this.DiscardDeckSizes[lane] - 1;
+
+            //Keep the top card in the discard deck and take the rest
+            System.arraycopy(this.DiscardDecks, deck, this.CardDecks, deck, numberOfCards);
+            this.DiscardDecks[deck] = this.DiscardDecks[deck + numberOfCards];
+            this.DiscardDeckSizes[lane] = 1;
+            this.CardDeckSizes[lane] = numberOfCards;
+            this.shuffleCardDeck(lane);
+            this.NumberOfReshuffles[lane] += 1;
+        }
+
+        return (this.CardDeckSizes[lane] == 0) ?
+            (-1) : (this.CardDecks[deck + --this.CardDeckSizes[lane]]);
+    }
+
+
+    /**
+     * @param hand Index of the hand
+     * @param cardCode Card to add to the hand
+     */
+    private void addCard(int hand, int cardCode)
+    {
+        this.HandCardCounts[hand * NUMBER_OF_KINDS + cardCode] += 1;
+        this.HandColorCounts[hand * NUMBER_OF_COLORS + CARD_COLORS[cardCode]] += 1;
+        this.HandKinds[hand] |= (1L << cardCode);
+        this.HandSizes[hand] += 1;
+    }
+
+
+    /**
+     * @param hand Index of the hand
+     * @param cardCode Card to remove from the hand, the hand holds one
+     */
+    private void removeCard(int hand, int cardCode)
+    {
+        if(--this.HandCardCounts[hand * NUMBER_OF_KINDS + cardCode] == 0)
+        {
+            this.HandKinds[hand] &= ~(1L << cardCode);
+        }
+
+        this.HandColorCounts[hand * NUMBER_OF_COLORS + CARD_COLORS[cardCode]] -= 1;
+        this.HandSizes[hand] -= 1;
+    }
+
+
+    /**
+     * Records the result of the game in the lane and deals the next game
+     * into it
+     * @param lane Lane of the game
+     * @param gameOver If the current player won, else the game was called off
+     */
+    private void finishGame(int lane, boolean gameOver)
+    {
+        //The player who played the last card stays the current player
+        int winner = this.CurrentPlayers[lane];
+        PlayerType winnerType = (!gameOver) ? (null) :
+            ((this.SeatTypes[lane * this.NumberOfPlayers + winner] == STRATEGIC_SEAT) ?
+                (PlayerType.STRATEGIC_AI) : (PlayerType.BASELINE_AI));
+
+        this.Statistics.addResult(new SimulationResult(this.GameSeeds[lane],
+            (gameOver) ? (winner + 1) : (-1),
+            winnerType, this.NumberOfTurns[lane], 0, this.NumberOfReshuffles[lane]));
+        this.Active[lane] = false;
+        this.NumberOfActiveLanes -= 1;
+        this.dealNextGame(lane);
+    }
+
+
+    /**
+     * Deals a new game into the lane if there are games left to deal, see
+     * the constructor of Game
+     * @param lane Lane of the game
+     */
+    private void dealNextGame(int lane)
+    {
+        if(this.NumberOfGamesToDeal == 0)
+        {
+            return;
+        }
+
+        int numPlayers = this.NumberOfPlayers;
+        int deck = lane * NUMBER_OF_CARDS;
+        int firstHand = lane * numPlayers;
+        this.NumberOfGamesToDeal -= 1;
+        this.NumberOfActiveLanes += 1;
+        this.Active[lane] = true;
+        this.GameSeeds[lane] = this.SeedGenerator.nextLong();
+        this.RandomStates[lane] = this.GameSeeds[lane];
+        this.DrawStacks[lane] = 0;
+        this.Counterclockwise[lane] = false;
+        this.NumberOfTurns[lane] = 0;
+        this.NumberOfReshuffles[lane] = 0;
+
+        System.arraycopy(DECK_CARD_CODES, 0, this.CardDecks, deck, NUMBER_OF_CARDS);
+        this.CardDeckSizes[lane] = NUMBER_OF_CARDS;
+        this.shuffleCardDeck(lane);
+
+        //Seat the players in a random order
+        for(int i = 0; i < numPlayers; ++i)
+        {
+            this.SeatTypes[firstHand + i] = (i < numPlayers - this.NumberOfStrategicAIPlayers) ?
+                (BASELINE_SEAT) : (STRATEGIC_SEAT);
+        }
+
+        for(int i = numPlayers - 1; i > 0; --i)
+        {
+            int j = this.nextInt(lane, i + 1);
+            byte seatType = this.SeatTypes[firstHand + i];
+            this.SeatTypes[firstHand + i] = this.SeatTypes[firstHand + j];
+            this.SeatTypes[firstHand + j] = seatType;
+        }
+
+        this.CurrentPlayers[lane] = this.nextInt(lane, numPlayers);
+
+        for(int hand = firstHand; hand < firstHand + numPlayers; ++hand)
+        {
+            Arrays.fill(this.HandCardCounts, hand * NUMBER_OF_KINDS,
+                (hand + 1) * NUMBER_OF_KINDS, (byte) 0);
+            Arrays.fill(this.HandColorCounts, hand * NUMBER_OF_COLORS,
+                (hand + 1) * NUMBER_OF_COLORS, 0);
+            this.HandKinds[hand] = 0;
+            this.HandSizes[hand] = 0;
+
+            for(int i = 0; i < INITIAL_NUMBER_OF_CARDS; ++i)
+            {
+                this.addCard(hand, this.drawCard(lane));
+            }
+        }
+
+        //Make sure the top card in the discard deck is not a ChangeColorCard
+        this.DiscardDeckSizes[lane] = 0;
+
+        do
+        {
+            int cardCode = this.drawCard(lane);
+            this.DiscardDecks[deck + this.DiscardDeckSizes[lane]++] = (byte) cardCode;
+            this.TopCards[lane] = cardCode;
+            this.CurrentColors[lane] = CARD_COLORS[cardCode];
+        } while(((CHANGE_COLOR_KINDS >>> this.TopCards[lane]) & 1) != 0);
+    }
+
+
+    /**
+     * Fisher-Yates shuffle of the card deck of the lane
+     * @param lane Lane of the game
+     */
+    private void shuffleCardDeck(int lane)
+    {
+        int deck = lane * NUMBER_OF_CARDS;
+
+        for(int i = this.CardDeckSizes[lane] - 1; i > 0; --i)
+        {
+            int j = deck + this.nextInt(lane, i + 1);
+            byte cardCode = this.CardDecks[deck + i];
+            this.CardDecks[deck + i] = this.CardDecks[j];
+            this.CardDecks[j] = cardCode;
+        }
+    }
+
+
+    /**
+     * SplitMix64 step of the random number generator of the lane, kept as
+     * a long per lane instead of an object per game
+     * @param lane Lane of the game
+     * @param bound Bound of the number
+     * @return Random number from 0 up to the bound
+     */
+    private int nextInt(int lane, int bound)
+    {
+        long z = (this.RandomStates[lane] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= (z >>> 31);
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+
+
+    /**
+     * @param topCard Code of the top card
+     * @param color Current color ordinal
+     * @param drawing 1 if cards are due for drawing, else 0
+     * @return Index of the legal kinds of cards in LEGAL_CARD_KINDS
+     */
+    private static int getLegalCardKindsIndex(int topCard, int color, int drawing)
+    {
+        return (topCard * NUMBER_OF_COLORS + color) * 2 + drawing;
+    }
+}
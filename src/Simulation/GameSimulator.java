@@ -0,0 +1,176 @@
+package src.Simulation;
+
+/**
+ * GameSimulator plays complete games between AI players without any view, 
+ * so AI changes can be rated on a large number of games. Every game is 
+ * created from its own seed, so any game can be replayed exactly.
+ */
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import src.AI.BaselineAI;
+import src.AI.GameAI;
+import src.AI.StrategicAI;
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.Player;
+import src.Model.GamePlay.Player.PlayerType;
+
+public class GameSimulator 
+{
+    /** Number of baseline AI players in each game */
+    private final int NumberOfBaselineAIPlayers;
+    /** Number of strategic AI players in each game */
+    private final int NumberOfStrategicAIPlayers;
+    /** Generates the seed of each game */
+    private final SplittableRandom SeedGenerator;
+    /** Creates the random number generator of each game from its seed */
+    private RandomGeneratorFactory<RandomGenerator> GameRandomFactory = 
+        RandomGeneratorFactory.of(DEFAULT_RANDOM_ALGORITHM);
+    /** Random number generator algorithm used by default */
+    public static final String DEFAULT_RANDOM_ALGORITHM = "SplittableRandom";
+    /** Maximum number of turns before a game is called off */
+    private static final int MAXIMUM_TURNS = 10000;
+
+
+    /**
+     * @param numBaselineAIPlayers Number of baseline AI players in each game
+     * @param numStrategicAIPlayers Number of strategic AI players in each game
+     * @throws IllegalArgumentException If the number of players is invalid
+     */
+    public GameSimulator(int numBaselineAIPlayers, int numStrategicAIPlayers) 
+        throws IllegalArgumentException
+    {
+        this(numBaselineAIPlayers, numStrategicAIPlayers, new SplittableRandom());
+    }
+
+
+    /**
+     * @param numBaselineAIPlayers Number of baseline AI players in each game
+     * @param numStrategicAIPlayers Number of strategic AI players in each game
+     * @param seed Seed for the seeds of the games, the same seed plays the same games
+     * @throws IllegalArgumentException If the number of players is invalid
+     */
+    public GameSimulator(int numBaselineAIPlayers, int numStrategicAIPlayers, long seed) 
+        throws IllegalArgumentException
+    {
+        this(numBaselineAIPlayers, numStrategicAIPlayers, new SplittableRandom(seed));
+    }
+
+
+    /**
+     * @param numBaselineAIPlayers Number of baseline AI players in each game
+     * @param numStrategicAIPlayers Number of strategic AI players in each game
+     * @param seedGenerator Generates the seed of each game
+     * @throws IllegalArgumentException If the number of players is invalid
+     */
+    private GameSimulator(int numBaselineAIPlayers, int numStrategicAIPlayers, 
+        SplittableRandom seedGenerator) throws IllegalArgumentException
+    {
+        int numPlayers = numBaselineAIPlayers + numStrategicAIPlayers;
+
+        if(numBaselineAIPlayers < 0 || numStrategicAIPlayers < 0 
+            || numPlayers < Game.getMinimumPlayers() || numPlayers > Game.getMaximumPlayers())
+        {
+            throw new IllegalArgumentException("Number Of Players Cannot Be Less Than " + 
+                Integer.toString(Game.getMinimumPlayers()) + " and cannot be more than " + 
+                    Integer.toString(Game.getMaximumPlayers()));
+        }
+
+        this.NumberOfBaselineAIPlayers = numBaselineAIPlayers;
+        this.NumberOfStrategicAIPlayers = numStrategicAIPlayers;
+        this.SeedGenerator = seedGenerator;
+    }
+
+
+    /**
+     * @param algorithm Name of the random number generator algorithm for each 
+     * game, such as SplittableRandom or L64X128MixRandom
+     * @throws IllegalArgumentException If the algorithm is not available
+     */
+    public void setRandomAlgorithm(String algorithm) throws IllegalArgumentException
+    {
+        this.GameRandomFactory = RandomGeneratorFactory.of(algorithm);
+    }
+
+
+    /**
+     * @return Gets the total number of players in each game
+     */
+    public int getNumberOfPlayers()
+    {
+        return this.NumberOfBaselineAIPlayers + this.NumberOfStrategicAIPlayers;
+    }
+
+
+    /**
+     * @return Gets the number of strategic AI players in each game
+     */
+    public int getNumberOfStrategicAIPlayers()
+    {
+        return this.NumberOfStrategicAIPlayers;
+    }
+
+
+    /**
+     * @param seed Seed of the game
+     * @return A new game with only AI players
+     */
+    public Game createGame(long seed)
+    {
+        return new Game(this.getNumberOfPlayers(), this.getNumberOfPlayers(), 
+            this.NumberOfStrategicAIPlayers, this.GameRandomFactory.create(seed));
+    }
+
+
+    /**
+     * Play a new game with the next seed to completion
+     * @return Result of the game
+     */
+    public SimulationResult simulateGame()
+    {
+        return this.simulateGame(this.SeedGenerator.nextLong());
+    }
+
+
+    /**
+     * Play the game with the given seed to completion, the same seed always 
+     * plays the same game
+     * @param seed Seed of the game
+     * @return Result of the game
+     */
+    public SimulationResult simulateGame(long seed)
+    {
+        Game game = this.createGame(seed);
+        GameAI baselineAIPlayer = new BaselineAI(game);
+        GameAI strategicAIPlayer = new StrategicAI(game);
+        int numberOfTurns = 0;
+        int numberOfPenalties = 0;
+
+        for(; !game.isGameOver() && numberOfTurns < MAXIMUM_TURNS; ++numberOfTurns)
+        {
+            Player player = game.getCurrentPlayer();
+            GameAI aiPlayer = (player.getPlayerType() == PlayerType.STRATEGIC_AI) ? 
+                strategicAIPlayer : baselineAIPlayer;
+
+            //A refused move was already penalized by the game
+            if(!player.tryPlayCard(aiPlayer.chooseMove(player)).isSuccess())
+            {
+                numberOfPenalties += 1;
+            }
+        }
+
+        if(!game.isGameOver())
+        {
+            return new SimulationResult(seed, -1, null, numberOfTurns, 
+                numberOfPenalties, game.getNumberOfReshuffles());
+        }
+
+        //The player who played the last card stays the current player
+        Player winner = game.getCurrentPlayer();
+
+        return new SimulationResult(seed, winner.getPlayerID(), winner.getPlayerType(), 
+            numberOfTurns, numberOfPenalties, game.getNumberOfReshuffles());
+    }
+}
@@ -0,0 +1,108 @@
+package src.Simulation;
+
+/**
+ * SimulationResult holds the outcome of one simulated game: its seed, who 
+ * won, how many turns it took, and how many penalties and reshuffles happened
+ */
+
+import src.Model.GamePlay.Player.PlayerType;
+
+public class SimulationResult 
+{
+    /** Seed the game was created from */
+    private final long GameSeed;
+    /** ID of the winning player, -1 if the game hit the turn limit */
+    private final int WinnerID;
+    /** Type of the winning player, null if the game hit the turn limit */
+    private final PlayerType WinnerType;
+    /** Number of turns taken in the game */
+    private final int NumberOfTurns;
+    /** Number of illegal moves that were penalized */
+    private final int NumberOfPenalties;
+    /** Number of times the discard deck was reshuffled into the card deck */
+    private final int NumberOfReshuffles;
+
+
+    /**
+     * @param gameSeed Seed the game was created from
+     * @param winnerID ID of the winning player, -1 if there is no winner
+     * @param winnerType Type of the winning player, null if there is no winner
+     * @param numberOfTurns Number of turns taken in the game
+     * @param numberOfPenalties Number of illegal moves that were penalized
+     * @param numberOfReshuffles Number of reshuffles of the discard deck
+     */
+    public SimulationResult(long gameSeed, int winnerID, PlayerType winnerType, int numberOfTurns, 
+        int numberOfPenalties, int numberOfReshuffles)
+    {
+        this.GameSeed = gameSeed;
+        this.WinnerID = winnerID;
+        this.WinnerType = winnerType;
+        this.NumberOfTurns = numberOfTurns;
+        this.NumberOfPenalties = numberOfPenalties;
+        this.NumberOfReshuffles = numberOfReshuffles;
+    }
+
+
+    /**
+     * @return Gets the seed the game was created from, simulating this seed 
+     * again replays the game
+     */
+    public long getGameSeed()
+    {
+        return this.GameSeed;
+    }
+
+
+    /**
+     * @return Gets the ID of the winning player, -1 if there is no winner
+     */
+    public int getWinnerID()
+    {
+        return this.WinnerID;
+    }
+
+
+    /**
+     * @return Gets the type of the winning player, null if there is no winner
+     */
+    public PlayerType getWinnerType()
+    {
+        return this.WinnerType;
+    }
+
+
+    /**
+     * @return If a player won the game then true
+     */
+    public boolean hasWinner()
+    {
+        return this.WinnerID != -1;
+    }
+
+
+    /**
+     * @return Gets the number of turns taken in the game
+     */
+    public int getNumberOfTurns()
+    {
+        return this.NumberOfTurns;
+    }
+
+
+    /**
+     * @return Gets the number of illegal moves that were penalized
+     */
+    public int getNumberOfPenalties()
+    {
+        return this.NumberOfPenalties;
+    }
+
+
+    /**
+     * @return Gets the number of times the discard deck was reshuffled
+     */
+    public int getNumberOfReshuffles()
+    {
+        return this.NumberOfReshuffles;
+    }
+}
@@ -0,0 +1,205 @@
+package src.Simulation;
+
+/**
+ * TournamentRunner splits a number of simulated games across all cores. 
+ * Every worker plays its share of games with its own simulator, games, 
+ * AIs and random number stream, and the statistics of the workers are 
+ * merged once they are done, so the workers never share a lock. The 
+ * random number streams are split from the tournament seed in the same 
+ * way on any number of threads, so a seeded tournament always plays the 
+ * same games.
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGeneratorFactory;
+
+public class TournamentRunner 
+{
+    /** Number of players in each game */
+    private final int NumberOfPlayers;
+    /** Number of strategic AI players in each game */
+    private final int NumberOfStrategicAIPlayers;
+    /** Seed every tournament is played from */
+    private final long Seed;
+    /** Random number generator algorithm for each game */
+    private String RandomAlgorithm = GameSimulator.DEFAULT_RANDOM_ALGORITHM;
+    /** Games played by a worker without splitting the work any further */
+    private static final int GAMES_PER_WORKER_TASK = 1024;
+
+
+    /**
+     * @param numPlayers Number of players in each game
+     * @param numAIPlayers Number of AI players in each game, must match numPlayers
+     * @param numStrategicAIPlayers Number of Strategic AI players in each game
+     * @throws IllegalArgumentException If the seat configuration is invalid or 
+     * has human players
+     */
+    public TournamentRunner(int numPlayers, int numAIPlayers, int numStrategicAIPlayers) 
+        throws IllegalArgumentException
+    {
+        this(numPlayers, numAIPlayers, numStrategicAIPlayers, new SplittableRandom().nextLong());
+    }
+
+
+    /**
+     * @param numPlayers Number of players in each game
+     * @param numAIPlayers Number of AI players in each game, must match numPlayers
+     * @param numStrategicAIPlayers Number of Strategic AI players in each game
+     * @param seed Seed every tournament is played from
+     * @throws IllegalArgumentException If the seat configuration is invalid or 
+     * has human players
+     */
+    public TournamentRunner(int numPlayers, int numAIPlayers, int numStrategicAIPlayers, 
+        long seed) throws IllegalArgumentException
+    {
+        if(numPlayers != numAIPlayers || numStrategicAIPlayers > numAIPlayers)
+        {
+            throw new IllegalArgumentException("Tournaments Can Only Have AI Players!");
+        }
+
+        //Validate the seat configuration once before any worker starts
+        new GameSimulator(numAIPlayers - numStrategicAIPlayers, numStrategicAIPlayers);
+        this.NumberOfPlayers = numPlayers;
+        this.NumberOfStrategicAIPlayers = numStrategicAIPlayers;
+        this.Seed = seed;
+    }
+
+
+    /**
+     * @param algorithm Name of the random number generator algorithm for each 
+     * game, such as SplittableRandom or L64X128MixRandom
+     * @throws IllegalArgumentException If the algorithm is not available
+     */
+    public void setRandomAlgorithm(String algorithm) throws IllegalArgumentException
+    {
+        RandomGeneratorFactory.of(algorithm);
+        this.RandomAlgorithm = algorithm;
+    }
+
+
+    /**
+     * Play the games on all cores
+     * @param numGames Number of games to play
+     * @return Merged statistics of all games
+     */
+    public TournamentStatistics runTournament(long numGames)
+    {
+        return this.runTournament(numGames, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Play the games on the given number of threads
+     * @param numGames Number of games to play
+     * @param parallelism Number of worker threads
+     * @return Merged statistics of all games
+     * @throws IllegalArgumentException If numGames or parallelism is invalid
+     */
+    public TournamentStatistics runTournament(long numGames, int parallelism) 
+        throws IllegalArgumentException
+    {
+        if(numGames < 0 || parallelism < 1)
+        {
+            throw new IllegalArgumentException("Invalid Number Of Games Or Threads!");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try
+        {
+            long startTime = System.nanoTime();
+            TournamentStatistics statistics = pool.invoke
+                (new GameBatchTask(numGames, new SplittableRandom(this.Seed)));
+            statistics.setElapsedNanoseconds(System.nanoTime() - startTime);
+            return statistics;
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+
+    /**
+     * Plays a batch of games, splitting it in half until each half is small 
+     * enough for one worker
+     */
+    private class GameBatchTask extends RecursiveTask<TournamentStatistics>
+    {
+        private static final long serialVersionUID = 1L;
+        /** Number of games in this batch */
+        private final long NumberOfGames;
+        /** Random number stream of this batch */
+        private final SplittableRandom Random;
+
+
+        /**
+         * @param numGames Number of games in this batch
+         * @param random Random number stream of this batch
+         */
+        public GameBatchTask(long numGames, SplittableRandom random)
+        {
+            this.NumberOfGames = numGames;
+            this.Random = random;
+        }
+
+
+        @Override
+        protected TournamentStatistics compute()
+        {
+            if(this.NumberOfGames > GAMES_PER_WORKER_TASK)
+            {
+                GameBatchTask firstHalf = 
+                    new GameBatchTask(this.NumberOfGames / 2, this.Random.split());
+                GameBatchTask secondHalf = new GameBatchTask
+                    (this.NumberOfGames - this.NumberOfGames / 2, this.Random.split());
+                firstHalf.fork();
+                return secondHalf.compute().merge(firstHalf.join());
+            }
+
+            //Each batch has its own simulator and statistics
+            GameSimulator simulator = new GameSimulator(NumberOfPlayers - 
+                NumberOfStrategicAIPlayers, NumberOfStrategicAIPlayers, this.Random.nextLong());
+            simulator.setRandomAlgorithm(RandomAlgorithm);
+            TournamentStatistics statistics = new TournamentStatistics();
+
+            for(long i = 0; i < this.NumberOfGames; ++i)
+            {
+                statistics.addResult(simulator.simulateGame());
+            }
+
+            return statistics;
+        }
+    }
+
+
+    /**
+     * Run a tournament on one thread and on all cores, and report the speed-up
+     * @param args Number of games, number of players, number of strategic AI players, 
+     * random number generator algorithm
+     */
+    public static void main(String[] args)
+    {
+        long numGames = (args.length > 0) ? Long.parseLong(args[0]) : 1000000;
+        int numPlayers = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+        int numStrategicAIPlayers = (args.length > 2) ? Integer.parseInt(args[2]) : numPlayers / 2;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+
+        TournamentRunner runner = new TournamentRunner(numPlayers, numPlayers, numStrategicAIPlayers);
+
+        if(args.length > 3)
+        {
+            runner.setRandomAlgorithm(args[3]);
+        }
+
+        TournamentStatistics singleThreadStatistics = runner.runTournament(numGames, 1);
+        TournamentStatistics allThreadsStatistics = runner.runTournament(numGames, numThreads);
+
+        System.out.println("1 Thread: " + singleThreadStatistics);
+        System.out.println(Integer.toString(numThreads) + " Threads: " + allThreadsStatistics);
+        System.out.println(String.format("Speed-Up: %.2fx", allThreadsStatistics.getGamesPerSecond() 
+            / singleThreadStatistics.getGamesPerSecond()));
+    }
+}
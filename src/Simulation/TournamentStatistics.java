@@ -0,0 +1,173 @@
+package src.Simulation;
+
+/**
+ * TournamentStatistics accumulates the results of simulated games. Each 
+ * worker fills its own statistics and the runner merges them at the end.
+ */
+
+import src.Model.GamePlay.Player.PlayerType;
+
+public class TournamentStatistics 
+{
+    /** Number of games played */
+    private long NumberOfGames = 0;
+    /** Number of games called off at the turn limit */
+    private long NumberOfUnfinishedGames = 0;
+    /** Number of games won by a baseline AI */
+    private long BaselineAIWins = 0;
+    /** Number of games won by a strategic AI */
+    private long StrategicAIWins = 0;
+    /** Number of turns taken over all games */
+    private long NumberOfTurns = 0;
+    /** Number of penalties over all games */
+    private long NumberOfPenalties = 0;
+    /** Number of reshuffles over all games */
+    private long NumberOfReshuffles = 0;
+    /** Wall clock time taken to play all games */
+    private long ElapsedNanoseconds = 0;
+
+
+    /**
+     * @param result Result of a game to add to the statistics
+     */
+    public void addResult(SimulationResult result)
+    {
+        this.NumberOfGames += 1;
+        this.NumberOfTurns += result.getNumberOfTurns();
+        this.NumberOfPenalties += result.getNumberOfPenalties();
+        this.NumberOfReshuffles += result.getNumberOfReshuffles();
+
+        if(!result.hasWinner())
+        {
+            this.NumberOfUnfinishedGames += 1;
+        }
+        else if(result.getWinnerType() == PlayerType.STRATEGIC_AI)
+        {
+            this.StrategicAIWins += 1;
+        }
+        else
+        {
+            this.BaselineAIWins += 1;
+        }
+    }
+
+
+    /**
+     * @param statistics Statistics of another worker to add to these statistics
+     * @return These statistics
+     */
+    public TournamentStatistics merge(TournamentStatistics statistics)
+    {
+        this.NumberOfGames += statistics.NumberOfGames;
+        this.NumberOfUnfinishedGames += statistics.NumberOfUnfinishedGames;
+        this.BaselineAIWins += statistics.BaselineAIWins;
+        this.StrategicAIWins += statistics.StrategicAIWins;
+        this.NumberOfTurns += statistics.NumberOfTurns;
+        this.NumberOfPenalties += statistics.NumberOfPenalties;
+        this.NumberOfReshuffles += statistics.NumberOfReshuffles;
+        return this;
+    }
+
+
+    /**
+     * @param elapsedNanoseconds Wall clock time taken to play all games
+     */
+    public void setElapsedNanoseconds(long elapsedNanoseconds)
+    {
+        this.ElapsedNanoseconds = elapsedNanoseconds;
+    }
+
+
+    /**
+     * @return Gets the wall clock time taken to play all games
+     */
+    public long getElapsedNanoseconds()
+    {
+        return this.ElapsedNanoseconds;
+    }
+
+
+    /**
+     * @return Gets the number of games played per second
+     */
+    public double getGamesPerSecond()
+    {
+        return (this.ElapsedNanoseconds == 0) ? 0 : 
+            this.NumberOfGames * 1e9 / this.ElapsedNanoseconds;
+    }
+
+
+    /**
+     * @return Gets the number of games played
+     */
+    public long getNumberOfGames()
+    {
+        return this.NumberOfGames;
+    }
+
+
+    /**
+     * @return Gets the number of games called off at the turn limit
+     */
+    public long getNumberOfUnfinishedGames()
+    {
+        return this.NumberOfUnfinishedGames;
+    }
+
+
+    /**
+     * @return Gets the number of games won by a baseline AI
+     */
+    public long getBaselineAIWins()
+    {
+        return this.BaselineAIWins;
+    }
+
+
+    /**
+     * @return Gets the number of games won by a strategic AI
+     */
+    public long getStrategicAIWins()
+    {
+        return this.StrategicAIWins;
+    }
+
+
+    /**
+     * @return Gets the average number of turns per game
+     */
+    public double getAverageNumberOfTurns()
+    {
+        return (this.NumberOfGames == 0) ? 0 : 
+            (double) this.NumberOfTurns / this.NumberOfGames;
+    }
+
+
+    /**
+     * @return Gets the number of penalties over all games
+     */
+    public long getNumberOfPenalties()
+    {
+        return this.NumberOfPenalties;
+    }
+
+
+    /**
+     * @return Gets the number of reshuffles over all games
+     */
+    public long getNumberOfReshuffles()
+    {
+        return this.NumberOfReshuffles;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("Games: %d, Unfinished: %d, Baseline AI Wins: %d, " + 
+            "Strategic AI Wins: %d, Average Turns: %.2f, Penalties: %d, Reshuffles: %d, " + 
+                "Games Per Second: %.0f", this.NumberOfGames, this.NumberOfUnfinishedGames, 
+                    this.BaselineAIWins, this.StrategicAIWins, this.getAverageNumberOfTurns(), 
+                        this.NumberOfPenalties, this.NumberOfReshuffles, this.getGamesPerSecond());
+    }
+}
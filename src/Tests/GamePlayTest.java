@@ -9,16 +9,43 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+
 import org.junit.Test;
 
 import src.AI.BaselineAI;
+import src.AI.GameAI;
 import src.AI.StrategicAI;
+import src.Controller.AITurnScheduler;
 import src.Controller.GameController;
+import src.Controller.GameLoop;
+import src.Controller.HandImages;
+import src.Controller.RingBuffer;
 import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.ChangeColorCard;
 import src.Model.Card.DrawTwoCard;
 import src.Model.Card.NumberCard;
 import src.Model.Card.ReverseCard;
@@ -29,7 +56,10 @@ import src.Model.Card.Card.CardColors;
 import src.Model.GamePlay.*;
 import src.Model.GamePlay.Game.Direction;
 import src.Model.GamePlay.Player.PlayerType;
+import src.View.CardImageCache;
 import src.View.ChoosePlayerView;
+import src.View.SpriteSheet;
+import src.View.SpriteSheetPacker;
 import src.View.GameOverView;
 import src.View.GameView;
 
@@ -89,13 +119,16 @@ public class GamePlayTest
         for(int i = 0; i < NUMBER_OF_TESTS; ++i)
         {
             WildCard card1 = new WildCard();
-            card1.setNextColor(CardColors.BLUE);
-            card1.setNextDirection(Direction.CLOCKWISE);
+            Move move1 = new Move(0, CardColors.BLUE, Direction.CLOCKWISE);
             assertEquals(CardColors.WILD, card1.getCardColor());
-            assertEquals(CardColors.BLUE, card1.getNextColor());
-            assertEquals(Direction.CLOCKWISE, card1.getNextDirection());
+            assertEquals(CardColors.BLUE, move1.getNextColor());
+            assertEquals(Direction.CLOCKWISE, move1.getNextDirection());
+            assertEquals(CardColors.WILD, new Move(0).getNextColor());
+            assertEquals(Direction.DEFAULT, new Move(0).getNextDirection());
+            assert(card1.isLegal(new WildCard(), CardColors.RED, 
+                0, 0));
             assertFalse(card1.isLegal(new WildCard(), CardColors.RED, 
-                2, new ArrayList<CardColors>()));
+                2, 0));
         }
 	}
 
@@ -111,7 +144,7 @@ public class GamePlayTest
             SkipCard card1 = new SkipCard(CardColors.YELLOW);
             assertEquals(CardColors.YELLOW, card1.getCardColor());
             assertFalse(card1.isLegal(new WildCard(), CardColors.RED, 
-                0, new ArrayList<CardColors>()));
+                0, 0));
         }
 	}
 	
@@ -127,7 +160,7 @@ public class GamePlayTest
             ReverseCard card1 = new ReverseCard(CardColors.GREEN);
             assertEquals(CardColors.GREEN, card1.getCardColor());
             assertFalse(card1.isLegal(new DrawTwoCard(CardColors.GREEN), 
-                CardColors.GREEN, 4, new ArrayList<CardColors>()));
+                CardColors.GREEN, 4, 0));
         }
 	}
 	
@@ -143,7 +176,7 @@ public class GamePlayTest
             DrawTwoCard card1 = new DrawTwoCard(CardColors.BLUE);
             assertEquals(CardColors.BLUE, card1.getCardColor());
             assertFalse(card1.isLegal(new WildDrawFourCard(), 
-                CardColors.BLUE, 4, new ArrayList<CardColors>()));
+                CardColors.BLUE, 4, 0));
         }
 	}
 	
@@ -157,17 +190,19 @@ public class GamePlayTest
         for(int i = 0; i < NUMBER_OF_TESTS; ++i)
         {
             WildDrawFourCard card1 = new WildDrawFourCard();
-            card1.setNextColor(CardColors.GREEN);
-            card1.setNextDirection(Direction.COUNTERCLOCKWISE);
+            Move move1 = new Move(0, CardColors.GREEN, Direction.COUNTERCLOCKWISE);
             assertEquals(CardColors.WILD, card1.getCardColor());
-            assertEquals(CardColors.GREEN, card1.getNextColor());
-            assertEquals(Direction.COUNTERCLOCKWISE, card1.getNextDirection());
+            assertEquals(CardColors.GREEN, move1.getNextColor());
+            assertEquals(Direction.COUNTERCLOCKWISE, move1.getNextDirection());
             assertFalse(card1.isLegal(new DrawTwoCard(CardColors.GREEN), 
-                CardColors.GREEN, 2, new ArrayList<CardColors>()));
-            ArrayList<CardColors> playerCardColors = new ArrayList<CardColors>();
-            playerCardColors.add(CardColors.BLUE);
+                CardColors.GREEN, 2, 0));
+            int playerColorMask = Card.getColorBit(CardColors.BLUE);
             assert(card1.isLegal(new WildDrawFourCard(), 
-                CardColors.BLUE, 0, playerCardColors));
+                CardColors.BLUE, 0, playerColorMask));
+            assertFalse(card1.isLegal(new NumberCard(CardColors.BLUE, 3), 
+                CardColors.BLUE, 0, playerColorMask));
+            assert(card1.isLegal(new NumberCard(CardColors.RED, 3), 
+                CardColors.RED, 0, playerColorMask));
         }
 	}
 	
@@ -184,13 +219,13 @@ public class GamePlayTest
             assertEquals(CardColors.BLUE, card1.getCardColor());
             assertEquals(9, card1.getCardNumber());
             assert(card1.isLegal(new WildDrawFourCard(), CardColors.BLUE, 
-                0, new ArrayList<CardColors>()));
+                0, 0));
             assertFalse(card1.isLegal(new DrawTwoCard(CardColors.BLUE), 
-                CardColors.BLUE, 2, new ArrayList<CardColors>()));
+                CardColors.BLUE, 2, 0));
             assert(card1.isLegal(new NumberCard(CardColors.BLUE, 1), 
-                CardColors.BLUE, 0, new ArrayList<CardColors>()));
+                CardColors.BLUE, 0, 0));
             assert(card1.isLegal(new NumberCard(CardColors.RED, 9), 
-                CardColors.RED, 0, new ArrayList<CardColors>()));
+                CardColors.RED, 0, 0));
         }
 	}
 	
@@ -255,22 +290,67 @@ public class GamePlayTest
             Game Game1 = new Game(2, 0, 0);
             int discardPileNumber = Game1.getNumberOfCardsInDiscardDeck();
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                new NumberCard(Game1.getCurrentColor(), 1), new ArrayList<CardColors>());
+                new NumberCard(Game1.getCurrentColor(), 1), new Move(0), 
+                    0);
             discardPileNumber += 1;
             assertEquals(discardPileNumber, Game1.getNumberOfCardsInDiscardDeck());
             assertEquals(Direction.CLOCKWISE, Game1.getCurrentDirection());
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                new ReverseCard(Game1.getCurrentColor()), new ArrayList<CardColors>());
+                new ReverseCard(Game1.getCurrentColor()), new Move(0), 
+                    0);
             assertEquals(discardPileNumber + 1, Game1.getNumberOfCardsInDiscardDeck());
             assertEquals(Direction.COUNTERCLOCKWISE, Game1.getCurrentDirection());
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                new DrawTwoCard(Game1.getCurrentColor()), new ArrayList<CardColors>());
+                new DrawTwoCard(Game1.getCurrentColor()), new Move(0), 
+                    0);
             
             Game Game2 = new Game(2, 0, 0);
             WildDrawFourCard card1 = new WildDrawFourCard();
-            card1.setNextColor(CardColors.BLUE);
+            assertThrows(IllegalAccessException.class, () -> {Game2.updateGameState(
+                Game2.getCurrentPlayer().getPlayerID(), card1, new Move(0), 
+                    0);});
             Game2.updateGameState(Game2.getCurrentPlayer().getPlayerID(), 
-                card1, new ArrayList<CardColors>());
+                card1, new Move(0, CardColors.BLUE, Direction.DEFAULT), 
+                    0);
+            assertEquals(CardColors.BLUE, Game2.getCurrentColor());
+        }
+    }
+
+
+    /**
+     * Test the results of tried moves and the penalty for a refused move
+     */
+    @Test
+    public void testMoveResult()
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game Game1 = new Game(2, 0, 0, new SplittableRandom(i));
+            Player player = Game1.getCurrentPlayer();
+            Player otherPlayer = Game1.getPlayer((Game1.getCurrentPlayerIndex() + 1) % 2);
+
+            assertEquals(MoveResult.NOT_PLAYER_TURN, Game1.tryPlay(otherPlayer.getPlayerID(),
+                new NumberCard(Game1.getCurrentColor(), 1), new Move(0), 0));
+            assertEquals(MoveResult.ILLEGAL_MOVE, Game1.tryPlay(player.getPlayerID(),
+                new WildCard(), new Move(0), 0));
+
+            //A wild card without a next color is illegal
+            player.getAllCards().add(0, new WildCard());
+            int numberOfCards = player.getNumberOfCards();
+            assertEquals(MoveResult.ILLEGAL_MOVE, player.tryPlayCard(new Move(0)));
+            assertEquals(numberOfCards + 1, player.getNumberOfCards());
+
+            player.getAllCards().add(0, new NumberCard(Game1.getCurrentColor(), 1));
+            assertEquals(MoveResult.SUCCESS, player.tryPlayCard(new Move(0)));
+            assertEquals(numberOfCards + 1, player.getNumberOfCards());
+            assertEquals(MoveResult.NOT_PLAYER_TURN, Game1.tryDraw(player.getPlayerID(),
+                new ArrayList<Card>()));
+
+            Game1.setGameOver();
+            assertEquals(MoveResult.GAME_OVER, otherPlayer.tryPlayCard(Move.DRAW));
+            IllegalAccessException ex = assertThrows(IllegalAccessException.class,
+                () -> {otherPlayer.playCard(Move.DRAW);});
+            assertEquals(MoveResult.GAME_OVER.getMessage(), ex.getMessage());
         }
     }
 
@@ -285,15 +365,16 @@ public class GamePlayTest
         for(int i = 0; i < NUMBER_OF_TESTS; ++i)
         {
             Game Game1 = new Game(2, 0, 0);
-            WildCard Card1 = new WildCard();
-            Card1.setNextColor(CardColors.RED);
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                Card1, new ArrayList<CardColors>());
+                CardTable.getWildCard(), new Move(0, CardColors.RED, Direction.DEFAULT), 
+                    0);
             // Consequtive stacking of reverse cards
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                new ReverseCard(CardColors.RED), new ArrayList<CardColors>());
+                new ReverseCard(CardColors.RED), new Move(0), 
+                    0);
             Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                new ReverseCard(CardColors.RED), new ArrayList<CardColors>());
+                new ReverseCard(CardColors.RED), new Move(0), 
+                    0);
             int CurrentPlayerIndex = Game1.getCurrentPlayerIndex();
             int currPlayerCards;
             int j = 0;
@@ -302,7 +383,8 @@ public class GamePlayTest
             for(int k = 0; k < 10; ++k)
             {
                 Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                    new SkipCard(CardColors.RED), new ArrayList<CardColors>());
+                    new SkipCard(CardColors.RED), new Move(0), 
+                        0);
                 assertEquals(CurrentPlayerIndex, Game1.getCurrentPlayerIndex());
             }
             
@@ -310,10 +392,9 @@ public class GamePlayTest
             for(; j < Game1.getNumberOfCardsInCardDeck(); j += 4)
             {
                 assertEquals(j, Game1.getDrawCardsNumber());
-                WildDrawFourCard Card2 = new WildDrawFourCard();
-                Card2.setNextColor(CardColors.RED);
                 Game1.updateGameState(Game1.getCurrentPlayer().getPlayerID(), 
-                    Card2, new ArrayList<CardColors>());
+                    CardTable.getWildDrawFourCard(), new Move(0, CardColors.RED, 
+                        Direction.DEFAULT), 0);
             }
 
             assertEquals(j, Game1.drawCardsFromDeck
@@ -325,10 +406,12 @@ public class GamePlayTest
                 CurrentPlayerIndex = Game1.getCurrentPlayerIndex();
                 currPlayerCards = Game1.getCurrentPlayer().getNumberOfCards();
 
-                //Check if the player gets a penalty when an illegal card is played
+                //Check if the player gets a penalty when an illegal card is played, 
+                //a ChangeColorCard played without a next color is illegal
                 if(Game1.getCurrentPlayer().getCard(j).isLegal(Game1.getTopCard(), 
                     Game1.getCurrentColor(), Game1.getDrawCardsNumber(), 
-                        Game1.getCurrentPlayer().getCardColors()))
+                        Game1.getCurrentPlayer().getCardColorMask()) 
+                            && !(Game1.getCurrentPlayer().getCard(j) instanceof ChangeColorCard))
                 {
                     try { Game1.getCurrentPlayer().playCard(j); } catch(Exception ex) {}
                     assertEquals(currPlayerCards, 
@@ -345,6 +428,415 @@ public class GamePlayTest
     }
 
 
+    /**
+     * Test games created with the same seed are the same
+     */
+    @Test
+    public void testSeededGame()
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game Game1 = new Game(4, 2, 1, new SplittableRandom(i));
+            Game Game2 = new Game(4, 2, 1, new SplittableRandom(i));
+            assertEquals(Game1.getCurrentPlayerIndex(), Game2.getCurrentPlayerIndex());
+            assertEquals(Game1.getCurrentColor(), Game2.getCurrentColor());
+            assertEquals(Game1.getNumberOfCardsInDiscardDeck(), Game2.getNumberOfCardsInDiscardDeck());
+
+            for(int j = 0; j < 4; ++j)
+            {
+                assertEquals(Game1.getPlayer(j).getPlayerID(), Game2.getPlayer(j).getPlayerID());
+                assertEquals(Game1.getPlayer(j).getMaximumCardColor(), 
+                    Game2.getPlayer(j).getMaximumCardColor());
+            }
+        }
+    }
+
+
+    /**
+     * Test there is one shared card of each kind and a full deck of shared cards
+     */
+    @Test
+    public void testCardTable()
+    {
+        boolean[] seenCardCodes = new boolean[Card.NUMBER_OF_CARD_KINDS];
+
+        for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+        {
+            assertEquals(i, CardTable.getCard(i).getCardCode());
+        }
+
+        for(int i = 0; i < CardTable.NUMBER_OF_CARDS_IN_DECK; ++i)
+        {
+            Card card = CardTable.getDeckCard(i);
+            assert(card == CardTable.getCard(card.getCardCode()));
+            seenCardCodes[card.getCardCode()] = true;
+        }
+
+        for(boolean seenCardCode : seenCardCodes)
+        {
+            assert(seenCardCode);
+        }
+
+        assertEquals(new NumberCard(CardColors.GREEN, 7).getCardCode(), 
+            CardTable.getNumberCard(CardColors.GREEN, 7).getCardCode());
+        assertEquals(new SkipCard(CardColors.BLUE).getCardCode(), 
+            CardTable.getSkipCard(CardColors.BLUE).getCardCode());
+        assertEquals(new ReverseCard(CardColors.RED).getCardCode(), 
+            CardTable.getReverseCard(CardColors.RED).getCardCode());
+        assertEquals(new DrawTwoCard(CardColors.YELLOW).getCardCode(), 
+            CardTable.getDrawTwoCard(CardColors.YELLOW).getCardCode());
+        assertEquals(new WildCard().getCardCode(), CardTable.getWildCard().getCardCode());
+        assertEquals(new WildDrawFourCard().getCardCode(), 
+            CardTable.getWildDrawFourCard().getCardCode());
+        assertThrows(IllegalArgumentException.class, () -> {new NumberCard(CardColors.WILD, 1);});
+        assertThrows(IllegalArgumentException.class, () -> {CardTable.getNumberCard(CardColors.RED, 10);});
+
+        //Games share the cards of the table
+        Game Game1 = new Game(2, 0, 0);
+        assert(Game1.getTopCard() == CardTable.getCard(Game1.getTopCard().getCardCode()));
+    }
+
+
+    /**
+     * Test packing a game and unpacking it into a game in the same state
+     */
+    @Test
+    public void testPackedGameState() throws IllegalAccessException
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game Game1 = new Game(5, 3, 1, new SplittableRandom(i));
+            Game1.getCurrentPlayer().playCard(-1);
+            Game1.setDrawCardNumber(6);
+            PackedGameState state = new PackedGameState(Game1);
+            PackedGameState stateCopy = new PackedGameState(state);
+            Game Game2 = stateCopy.toGame();
+
+            assertEquals(Game1.getCurrentPlayerIndex(), state.getCurrentPlayerIndex());
+            assertEquals(Game1.getCurrentDirection(), state.getCurrentDirection());
+            assertEquals(Game1.getCurrentColor(), state.getCurrentColor());
+            assertEquals(6, state.getDrawCardsNumber());
+            assertFalse(state.isGameOver());
+            assertEquals(Game1.getTopCard().getCardCode(), state.getTopCardCode());
+            //The two header ints, a byte a card in the decks, and per player a count 
+            //of each kind of card, the hand size, ID and type
+            assertEquals(2 * Integer.BYTES + Game1.getNumberOfCardsInCardDeck() 
+                + Game1.getNumberOfCardsInDiscardDeck() + 5 * (Card.NUMBER_OF_CARD_KINDS + 3), 
+                    state.getSizeInBytes());
+
+            assertEquals(Game1.getCurrentPlayerIndex(), Game2.getCurrentPlayerIndex());
+            assertEquals(Game1.getCurrentDirection(), Game2.getCurrentDirection());
+            assertEquals(Game1.getCurrentColor(), Game2.getCurrentColor());
+            assertEquals(Game1.getDrawCardsNumber(), Game2.getDrawCardsNumber());
+            assertEquals(Game1.getTopCard(), Game2.getTopCard());
+            assertEquals(Game1.getNumberOfCardsInCardDeck(), Game2.getNumberOfCardsInCardDeck());
+            assertEquals(Game1.getNumberOfCardsInDiscardDeck(), 
+                Game2.getNumberOfCardsInDiscardDeck());
+
+            for(int j = 0; j < 5; ++j)
+            {
+                Player player1 = Game1.getPlayer(j);
+                Player player2 = Game2.getPlayer(j);
+                assertEquals(player1.getPlayerID(), player2.getPlayerID());
+                assertEquals(player1.getPlayerType(), player2.getPlayerType());
+                assertEquals(player1.getNumberOfCards(), player2.getNumberOfCards());
+                assertEquals(player1.getCardColors().size(), player2.getCardColors().size());
+                assertEquals(player1.getMaximumCardColor(), player2.getMaximumCardColor());
+                assertTrue(player2.getNumberOfCards() == 0 || player2.getCard(0) == 
+                    CardTable.getCard(player2.getCard(0).getCardCode()));
+            }
+
+            //Unpacked games can be played on
+            Game2.getCurrentPlayer().playCard(-1);
+        }
+
+        //Drawing more cards than the card deck holds reshuffles the discard deck
+        Game game = new Game(2, 2, 0, new SplittableRandom(1));
+        game.setDrawCardNumber(100);
+        game.getCurrentPlayer().playCard(-1);
+        assertTrue(game.getNumberOfReshuffles() > 0);
+        PackedGameState state = new PackedGameState(game);
+        assertEquals(game.getNumberOfReshuffles(), state.getNumberOfReshuffles());
+        assertEquals(game.getNumberOfReshuffles(), state.toGame().getNumberOfReshuffles());
+    }
+
+
+    /**
+     * Test card pile draw, play, top card and reshuffle functions
+     */
+    @Test
+    public void testCardPile()
+    {
+        CardPile pile = new CardPile(1);
+        assert(pile.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> {pile.getTopCard();});
+
+        for(int i = 0; i < 10; ++i)
+        {
+            pile.addTopCard(new NumberCard(CardColors.RED, i));
+        }
+
+        assertEquals(10, pile.size());
+        assertEquals(9, ((NumberCard) pile.getTopCard()).getCardNumber());
+        assertEquals(9, ((NumberCard) pile.drawTopCard()).getCardNumber());
+        assertEquals(8, ((NumberCard) pile.getTopCard()).getCardNumber());
+
+        CardPile otherPile = new CardPile(1);
+        pile.moveCardsBelowTopCardTo(otherPile);
+        assertEquals(1, pile.size());
+        assertEquals(8, otherPile.size());
+        assertEquals(8, ((NumberCard) pile.getTopCard()).getCardNumber());
+
+        otherPile.shuffle(new Random(1));
+        assertEquals(8, otherPile.size());
+        assertNotNull(otherPile.getCard(7));
+    }
+
+
+    /**
+     * Test a game goes back to its snapshot after turns are played, and 
+     * playing a copy does not change the game
+     */
+    @Test
+    public void testSnapshotAndCopy()
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(4, 4, 2, new SplittableRandom(i));
+            GameSnapshot snapshot = game.snapshot();
+            Game copy = game.copy(new SplittableRandom(i));
+            this.assertSameGameState(copy, game);
+
+            this.playTurns(game, 200);
+            game.restore(snapshot);
+            this.assertSameGameState(copy, game);
+
+            //Restoring twice works, and the copy is untouched by the game
+            this.playTurns(game, 200);
+            game.restore(snapshot);
+            this.assertSameGameState(copy, game);
+            Game otherCopy = game.copy(new SplittableRandom(i));
+            this.playTurns(copy, 200);
+            this.assertSameGameState(otherCopy, game);
+            assertThrows(IllegalArgumentException.class, () -> {copy.restore(snapshot);});
+        }
+    }
+
+
+    /**
+     * Test every move made, including draws, penalties and reshuffles, is 
+     * unmade back to the exact state before it
+     */
+    @Test
+    public void testMakeAndUnmake()
+    {
+        int numberOfReshuffles = 0;
+
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            SplittableRandom random = new SplittableRandom(i);
+            Game game = new Game(9, 9, 0, new SplittableRandom(i));
+            GameAI ai = new BaselineAI(game);
+            ArrayList<Game> copies = new ArrayList<Game>();
+
+            for(int turns = 0; turns < 300 && !game.isGameOver(); ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                int choice = random.nextInt(4);
+                Move move = (choice == 0) ? (Move.DRAW) : ((choice == 1) 
+                    ? (new Move(random.nextInt(player.getNumberOfCards()))) 
+                        : (ai.chooseMove(player)));
+                copies.add(game.copy(new SplittableRandom(i)));
+                game.makeMove(move);
+            }
+
+            numberOfReshuffles += game.getNumberOfReshuffles();
+            assertEquals(copies.size(), game.getNumberOfMoves());
+
+            for(int j = copies.size() - 1; j >= 0; --j)
+            {
+                game.unmake();
+                this.assertSameGameState(copies.get(j), game);
+            }
+
+            assertThrows(IllegalStateException.class, () -> {game.unmake();});
+            assertThrows(IllegalArgumentException.class, () -> {game.makeMove(new Move(-3));});
+            assertEquals(0, game.getNumberOfMoves());
+
+            //Moves are not recorded once the log is cleared
+            game.makeMove(Move.DRAW);
+            game.clearUndoLog();
+            assertThrows(IllegalStateException.class, () -> {game.unmake();});
+        }
+
+        assertNotEquals(0, numberOfReshuffles);
+    }
+
+
+    /**
+     * Test the hash kept up to date by every move is the hash of the state 
+     * built from scratch, and goes back with unmade moves
+     */
+    @Test
+    public void testHash()
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(9, 9, 0, new SplittableRandom(i));
+            GameAI ai = new BaselineAI(game);
+            ArrayList<Long> hashes = new ArrayList<Long>();
+
+            for(int turns = 0; turns < 200 && !game.isGameOver(); ++turns)
+            {
+                hashes.add(game.getHash());
+                game.makeMove(ai.chooseMove(game.getCurrentPlayer()));
+                assertEquals(new PackedGameState(game).toGame().getHash(), game.getHash());
+                assertEquals(game.copy(new SplittableRandom(i)).getHash(), game.getHash());
+                assertNotEquals((long) hashes.get(hashes.size() - 1), game.getHash());
+            }
+
+            for(int j = hashes.size() - 1; j >= 0; --j)
+            {
+                game.unmake();
+                assertEquals((long) hashes.get(j), game.getHash());
+            }
+        }
+
+        //The order of the cards in a hand does not change its hash
+        Hand hand = new Hand(2);
+        Hand otherHand = new Hand(2);
+        hand.add(CardTable.getWildCard());
+        hand.add(CardTable.getSkipCard(CardColors.RED));
+        otherHand.add(CardTable.getSkipCard(CardColors.RED));
+        otherHand.add(CardTable.getWildCard());
+        assertEquals(hand.getHash(), otherHand.getHash());
+        otherHand.add(CardTable.getWildCard());
+        assertNotEquals(hand.getHash(), otherHand.getHash());
+        otherHand.remove(2);
+        assertEquals(hand.getHash(), otherHand.getHash());
+    }
+
+
+    /**
+     * @param game Game to play
+     * @param numberOfTurns Most turns to play with baseline AI players
+     */
+    private void playTurns(Game game, int numberOfTurns)
+    {
+        GameAI ai = new BaselineAI(game);
+
+        for(int i = 0; i < numberOfTurns && !game.isGameOver(); ++i)
+        {
+            game.getCurrentPlayer().tryPlayCard(ai.chooseMove(game.getCurrentPlayer()));
+        }
+    }
+
+
+    /**
+     * @param expected Game in the expected state
+     * @param actual Game to check
+     */
+    private void assertSameGameState(Game expected, Game actual)
+    {
+        assertEquals(expected.getCurrentPlayerIndex(), actual.getCurrentPlayerIndex());
+        assertEquals(expected.getCurrentDirection(), actual.getCurrentDirection());
+        assertEquals(expected.getCurrentColor(), actual.getCurrentColor());
+        assertEquals(expected.getDrawCardsNumber(), actual.getDrawCardsNumber());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.getNumberOfReshuffles(), actual.getNumberOfReshuffles());
+        assertEquals(expected.getTopCard(), actual.getTopCard());
+        assertEquals(expected.getNumberOfCardsInCardDeck(), actual.getNumberOfCardsInCardDeck());
+        assertEquals(expected.getNumberOfCardsInDiscardDeck(), actual.getNumberOfCardsInDiscardDeck());
+
+        for(int i = 0; i < expected.getAllPlayers().size(); ++i)
+        {
+            Player expectedPlayer = expected.getPlayer(i);
+            Player actualPlayer = actual.getPlayer(i);
+            assertEquals(expectedPlayer.getPlayerID(), actualPlayer.getPlayerID());
+            assertEquals(expectedPlayer.getAllCards(), actualPlayer.getAllCards());
+            assertEquals(expectedPlayer.getCardColorMask(), actualPlayer.getCardColorMask());
+            assertEquals(expectedPlayer.getAllCards().getCardKindMask(), 
+                actualPlayer.getAllCards().getCardKindMask());
+        }
+    }
+
+
+    /**
+     * Test the color and kind counts of a hand as cards enter and leave it
+     */
+    @Test
+    public void testHand()
+    {
+        Hand hand = new Hand(1);
+        assertEquals(0, hand.getColorMask());
+
+        hand.add(CardTable.getNumberCard(CardColors.RED, 5));
+        hand.add(CardTable.getWildCard());
+        hand.add(0, CardTable.getSkipCard(CardColors.BLUE));
+        hand.add(CardTable.getNumberCard(CardColors.RED, 5));
+        assertEquals(4, hand.size());
+        assertEquals(CardTable.getSkipCard(CardColors.BLUE), hand.get(0));
+        assertEquals(Card.getColorBit(CardColors.RED) | Card.getColorBit(CardColors.BLUE),
+            hand.getColorMask());
+        assertEquals(2, hand.getColorCount(CardColors.RED));
+        assertEquals(1, hand.getColorCount(CardColors.WILD));
+        assertEquals(2, hand.getCardCount(CardTable.getNumberCard(CardColors.RED, 5).getCardCode()));
+
+        hand.remove(0);
+        assertEquals(Card.getColorBit(CardColors.RED), hand.getColorMask());
+        hand.set(0, CardTable.getDrawTwoCard(CardColors.GREEN));
+        assertEquals(Card.getColorBit(CardColors.RED) | Card.getColorBit(CardColors.GREEN),
+            hand.getColorMask());
+        hand.removeIf(card -> card.getCardColor() == CardColors.RED);
+        assertEquals(Card.getColorBit(CardColors.GREEN), hand.getColorMask());
+        assertEquals(0, hand.getCardCount(CardTable.getNumberCard(CardColors.RED, 5).getCardCode()));
+        assertThrows(IndexOutOfBoundsException.class, () -> {hand.get(2);});
+
+        hand.clear();
+        assertEquals(0, hand.size());
+        assertEquals(0, hand.getColorMask());
+        assertEquals(0, hand.getColorCount(CardColors.WILD));
+    }
+
+
+    /**
+     * Test the legal moves of the current player against the legality of 
+     * each card in the hand, before and after the draw stack changes
+     */
+    @Test
+    public void testLegalMoves()
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(3, 0, 0, new SplittableRandom(i));
+            Player player = game.getCurrentPlayer();
+            player.getAllCards().add(CardTable.getWildDrawFourCard());
+            player.getAllCards().add(CardTable.getDrawTwoCard(game.getCurrentColor()));
+
+            for(int drawCardsNumber = 0; drawCardsNumber <= 2; drawCardsNumber += 2)
+            {
+                game.setDrawCardNumber(drawCardsNumber);
+                long legalMoves = game.legalMoves(player);
+
+                for(Card card : player.getAllCards())
+                {
+                    assertEquals(card.isLegal(game.getTopCard(), game.getCurrentColor(), 
+                        game.getDrawCardsNumber(), player.getCardColorMask()), 
+                            ((legalMoves >>> card.getCardCode()) & 1L) != 0);
+                }
+
+                assertEquals(0, legalMoves & ~player.getAllCards().getCardKindMask());
+            }
+
+            assertEquals(0, game.legalMoves(game.getPlayer((game.getCurrentPlayerIndex() + 1) % 3)));
+            int cardCode = CardTable.getWildDrawFourCard().getCardCode();
+            int cardIdx = player.getAllCards().indexOfCardCode(cardCode);
+            assert(cardIdx <= player.getNumberOfCards() - 2);
+            assertEquals(cardCode, player.getCard(cardIdx).getCardCode());
+        }
+    }
+
+
     /**
      * Test the choose player view frame and components
      */
@@ -476,14 +968,405 @@ public class GamePlayTest
     }
 
 
+    /**Test card images are read, scaled once per size and shared */
+    @Test
+    public void testCardImageCache() throws IOException
+    {
+        CompletableFuture<?> preload = CardImageCache.preload(
+            GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT);
+        SpriteSheet sheet = SpriteSheet.read(CardImageCache.SPRITE_SHEET_IMAGE, 
+            CardImageCache.SPRITE_SHEET_INDEX);
+        assertEquals(Card.NUMBER_OF_CARD_KINDS + 1, sheet.getSpriteNames().size());
+        preload.join();
+
+        for(int i = 0; i < Card.NUMBER_OF_CARD_KINDS; ++i)
+        {
+            Card card = CardTable.getCard(i);
+            ImageIcon image = CardImageCache.getCardImageIcon(card, 
+                GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT);
+            assertEquals(GameView.CARD_IMAGE_WIDTH, image.getIconWidth());
+            assertEquals(GameView.CARD_IMAGE_HEIGHT, image.getIconHeight());
+            assertTrue(image == CardImageCache.getCardImageIcon(card, 
+                GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT));
+            assertTrue(sheet.hasSprite(CardImageCache.getCardImageName(card)));
+
+            //The middle of every card is drawn
+            BufferedImage pixels = (BufferedImage) image.getImage();
+            assertNotEquals(0, pixels.getRGB(GameView.CARD_IMAGE_WIDTH / 2, 
+                GameView.CARD_IMAGE_HEIGHT / 2) >>> 24);
+        }
+
+        assertEquals("WILDD", CardImageCache.getCardImageName(new WildDrawFourCard()));
+        assertEquals("RED7", CardImageCache.getCardImageName(
+            CardTable.getNumberCard(CardColors.RED, 7)));
+        assertEquals("BLUER", CardImageCache.getCardImageName(
+            CardTable.getReverseCard(CardColors.BLUE)));
+
+        ImageIcon blankImage = CardImageCache.getBlankCardImageIcon(80, 120);
+        assertEquals(80, blankImage.getIconWidth());
+        assertEquals(120, blankImage.getIconHeight());
+        assertTrue(blankImage != CardImageCache.getBlankCardImageIcon(
+            GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT));
+        assertEquals(1000, CardImageCache.getBlankCardImageIcon(700, 1000).getIconHeight());
+        assertThrows(IllegalArgumentException.class, 
+            () -> { CardImageCache.getBlankCardImageIcon(0, 240); });
+    }
+
+
+    /**Test only the cards that changed in a hand have their images fetched */
+    @Test
+    public void testHandImages()
+    {
+        HandImages handImages = new HandImages(GameView.CARD_IMAGE_WIDTH, 
+            GameView.CARD_IMAGE_HEIGHT);
+        ArrayList<Card> hand = new ArrayList<Card>();
+
+        for(int i = 0; i < 7; ++i)
+        {
+            hand.add(CardTable.getNumberCard(CardColors.RED, i));
+        }
+
+        assertEquals(7, handImages.update(hand));
+        assertEquals(0, handImages.update(hand));
+
+        //A card played from the middle, then one drawn, then the same kind of card
+        //played from elsewhere in a run of them
+        hand.remove(3);
+        assertEquals(0, handImages.update(hand));
+        hand.add(CardTable.getSkipCard(CardColors.BLUE));
+        assertEquals(1, handImages.update(hand));
+        hand.add(0, CardTable.getNumberCard(CardColors.RED, 0));
+        assertEquals(1, handImages.update(hand));
+        hand.remove(1);
+        assertEquals(0, handImages.update(hand));
+
+        //Two cards drawn as a penalty, then every card changed
+        hand.add(new WildDrawFourCard());
+        hand.add(CardTable.getDrawTwoCard(CardColors.GREEN));
+        assertEquals(2, handImages.update(hand));
+        hand.replaceAll(card -> CardTable.getReverseCard(CardColors.YELLOW));
+        assertEquals(hand.size(), handImages.update(hand));
+        hand.clear();
+        assertEquals(0, handImages.update(hand));
+        assertEquals(0, handImages.size());
+
+        //After every change the images are the ones of the hand
+        hand.add(CardTable.getNumberCard(CardColors.GREEN, 9));
+        hand.add(CardTable.getNumberCard(CardColors.BLUE, 2));
+        hand.add(CardTable.getNumberCard(CardColors.GREEN, 9));
+        handImages.update(hand);
+        hand.remove(1);
+        handImages.update(hand);
+        assertEquals(hand.size(), handImages.size());
+
+        for(int i = 0; i < hand.size(); ++i)
+        {
+            assertTrue(handImages.getImage(i) == CardImageCache.getCardImageIcon(
+                hand.get(i), GameView.CARD_IMAGE_WIDTH, GameView.CARD_IMAGE_HEIGHT));
+        }
+
+        assertThrows(IllegalArgumentException.class, 
+            () -> { new HandImages(0, GameView.CARD_IMAGE_HEIGHT); });
+    }
+
+
+    /**Test images are packed into a sprite sheet and read back with its index */
+    @Test
+    public void testSpriteSheet() throws IOException
+    {
+        LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<String, BufferedImage>();
+
+        for(int i = 0; i < 10; ++i)
+        {
+            BufferedImage image = new BufferedImage(10 + i, 20 - i, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(i % image.getWidth(), 0, 0xFF000000 | i);
+            images.put("IMAGE" + i, image);
+        }
+
+        SpriteSheet sheet = SpriteSheetPacker.pack(images, 40);
+        assertTrue(sheet.getSheetImage().getWidth() <= 40);
+        File imageFile = File.createTempFile("sprites", ".png");
+        File indexFile = File.createTempFile("sprites", ".txt");
+        imageFile.deleteOnExit();
+        indexFile.deleteOnExit();
+        sheet.write(imageFile.getPath(), indexFile.getPath());
+        SpriteSheet readSheet = SpriteSheet.read(imageFile.getPath(), indexFile.getPath());
+        assertEquals(new ArrayList<String>(images.keySet()), 
+            new ArrayList<String>(readSheet.getSpriteNames()));
+
+        for(int i = 0; i < 10; ++i)
+        {
+            BufferedImage sprite = readSheet.getSprite("IMAGE" + i);
+            assertEquals(10 + i, sprite.getWidth());
+            assertEquals(20 - i, sprite.getHeight());
+            assertEquals(0xFF000000 | i, sprite.getRGB(i % sprite.getWidth(), 0));
+            assertEquals(0, sprite.getRGB((i + 1) % sprite.getWidth(), 1));
+        }
+
+        assertFalse(readSheet.hasSprite("IMAGE10"));
+        assertThrows(IllegalArgumentException.class, () -> { readSheet.getSprite("IMAGE10"); });
+        assertThrows(IllegalArgumentException.class, () -> { SpriteSheetPacker.pack(images, 15); });
+        assertThrows(IOException.class, () -> { SpriteSheet.read("NoSuchSheet.png", "NoSuchSheet.txt"); });
+    }
+
+
+    /**Test elements put by many threads are all taken once, in each thread's order */
+    @Test
+    public void testRingBuffer() throws InterruptedException
+    {
+        RingBuffer<Integer> buffer = new RingBuffer<Integer>(4);
+        assertEquals(4, buffer.getCapacity());
+        assertTrue(buffer.isEmpty());
+        assertEquals(null, buffer.poll());
+
+        for(int i = 0; i < 4; ++i)
+        {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+
+        for(int i = 1; i <= 4; ++i)
+        {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+
+        assertTrue(buffer.isEmpty());
+        assertThrows(NullPointerException.class, () -> { buffer.offer(null); });
+        assertThrows(IllegalArgumentException.class, () -> { new RingBuffer<Integer>(6); });
+        assertThrows(IllegalArgumentException.class, () -> { new RingBuffer<Integer>(0); });
+
+        //Each producer puts its own increasing numbers
+        RingBuffer<Integer> sharedBuffer = new RingBuffer<Integer>(64);
+        int numberOfProducers = 4;
+        int numberOfElements = 100000;
+        Thread[] producers = new Thread[numberOfProducers];
+
+        for(int p = 0; p < numberOfProducers; ++p)
+        {
+            int producer = p;
+            producers[p] = new Thread(() -> 
+            {
+                for(int i = 0; i < numberOfElements; ++i)
+                {
+                    while(!sharedBuffer.offer(i * numberOfProducers + producer))
+                    {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+
+        int[] lastElements = new int[numberOfProducers];
+        Arrays.fill(lastElements, -1);
+
+        for(int taken = 0; taken < numberOfProducers * numberOfElements;)
+        {
+            Integer element = sharedBuffer.poll();
+
+            if(element == null)
+            {
+                Thread.yield();
+                continue;
+            }
+
+            assertTrue(element / numberOfProducers > lastElements[element % numberOfProducers]);
+            lastElements[element % numberOfProducers] = element / numberOfProducers;
+            ++taken;
+        }
+
+        for(int p = 0; p < numberOfProducers; ++p)
+        {
+            producers[p].join();
+            assertEquals(numberOfElements - 1, lastElements[p]);
+        }
+
+        assertTrue(sharedBuffer.isEmpty());
+    }
+
+
+    /**Test the game loop makes the moves of AIs on other threads like the game itself */
+    @Test
+    public void testGameLoop() throws InterruptedException
+    {
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(4, 4, 2, new SplittableRandom(i));
+            Game replay = new Game(4, 4, 2, new SplittableRandom(i));
+            GameAI aiPlayer = new StrategicAI(game);
+            GameLoop gameLoop = new GameLoop(game, 16);
+            LinkedBlockingQueue<MoveResult> results = new LinkedBlockingQueue<MoveResult>();
+            gameLoop.start();
+
+            //Each move is read off the game once the last result is back
+            for(int turns = 0; turns < 1000 && !game.isGameOver(); ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                Move move = aiPlayer.chooseMove(player);
+                assertTrue(gameLoop.submit(player.getPlayerID(), move, results::add));
+                MoveResult result = results.poll(5, TimeUnit.SECONDS);
+                assertEquals(replay.getCurrentPlayer().tryPlayCard(move), result);
+                assertEquals(replay.getHash(), game.getHash());
+                assertEquals(replay.getCurrentPlayerIndex(), 
+                    gameLoop.getSnapshot().getCurrentPlayerIndex());
+                assertEquals(replay.getTopCard(), gameLoop.getSnapshot().getTopCard());
+                assertEquals(replay.getCurrentPlayer().getNumberOfCards(), gameLoop.getSnapshot()
+                    .getNumberOfCards(replay.getCurrentPlayerIndex()));
+            }
+
+            assertEquals(game.isGameOver(), gameLoop.getSnapshot().isGameOver());
+            assertEquals(gameLoop.getNumberOfMoves(), gameLoop.getNumberOfBatches());
+
+            //A move of no player is reported with no result
+            LinkedBlockingQueue<Boolean> noResults = new LinkedBlockingQueue<Boolean>();
+            assertTrue(gameLoop.submit(0, Move.DRAW, result -> noResults.add(result == null)));
+            assertEquals(true, noResults.poll(5, TimeUnit.SECONDS));
+            gameLoop.stop();
+            assertFalse(gameLoop.submit(1, Move.DRAW, results::add));
+        }
+
+        //Moves submitted faster than they are made are made in batches
+        Game game = new Game(2, 2, 0, new SplittableRandom(1));
+        GameLoop gameLoop = new GameLoop(game, 64);
+        LinkedBlockingQueue<MoveResult> results = new LinkedBlockingQueue<MoveResult>();
+
+        for(int i = 0; i < 64; ++i)
+        {
+            assertTrue(gameLoop.submit(game.getPlayer(i % 2).getPlayerID(), Move.DRAW, results::add));
+        }
+
+        assertFalse(gameLoop.submit(1, Move.DRAW, results::add));
+        gameLoop.start();
+
+        for(int i = 0; i < 64; ++i)
+        {
+            assertNotNull(results.poll(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(64, gameLoop.getNumberOfMoves());
+        assertEquals(1, gameLoop.getNumberOfBatches());
+
+        //A card index just past the hand is invalid
+        Game otherGame = new Game(2, 2, 0, new SplittableRandom(2));
+        Player otherPlayer = otherGame.getCurrentPlayer();
+        assertThrows(IllegalArgumentException.class, () -> 
+            { otherPlayer.tryPlayCard(new Move(otherPlayer.getNumberOfCards())); });
+
+        //Neither an invalid card index nor a failing callback ends the loop
+        Player player = game.getCurrentPlayer();
+        LinkedBlockingQueue<Boolean> noResults = new LinkedBlockingQueue<Boolean>();
+        assertTrue(gameLoop.submit(player.getPlayerID(), new Move(player.getNumberOfCards()), 
+            result -> noResults.add(result == null)));
+        assertEquals(true, noResults.poll(5, TimeUnit.SECONDS));
+        assertTrue(gameLoop.submit(player.getPlayerID(), Move.DRAW, 
+            result -> { throw new IllegalStateException(); }));
+        assertTrue(gameLoop.submit(player.getPlayerID(), Move.DRAW, results::add));
+        assertNotNull(results.poll(5, TimeUnit.SECONDS));
+        assertTrue(gameLoop.isAlive());
+        assertEquals(67, gameLoop.getNumberOfMoves());
+        assertNull(gameLoop.getFailure());
+
+        //A failing move stops the loop and is told apart from an invalid index
+        assertTrue(gameLoop.submit(player.getPlayerID(), null, 
+            result -> noResults.add(result == null)));
+        assertEquals(true, noResults.poll(5, TimeUnit.SECONDS));
+        assertTrue(gameLoop.getFailure() instanceof NullPointerException);
+        assertFalse(gameLoop.submit(player.getPlayerID(), Move.DRAW, results::add));
+        Thread.sleep(100);
+        assertFalse(gameLoop.isAlive());
+    }
+
+
+    /**Test AI turns are made on the event dispatch thread, once the turn time is up */
+    @Test
+    public void testAITurnScheduler() throws InterruptedException, InvocationTargetException
+    {
+        AITurnScheduler scheduler = new AITurnScheduler();
+        LinkedBlockingQueue<Boolean> madeOnDispatchThread = new LinkedBlockingQueue<Boolean>();
+        long startTime = System.nanoTime();
+        scheduler.scheduleTurn(() -> Move.DRAW, 50, 
+            move -> madeOnDispatchThread.add(SwingUtilities.isEventDispatchThread()));
+        assertEquals(true, madeOnDispatchThread.poll(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - startTime >= 50000000);
+
+        //A cancelled turn and a turn replaced by the next turn are never made
+        scheduler.scheduleTurn(() -> Move.DRAW, 50, move -> madeOnDispatchThread.add(false));
+        scheduler.cancelTurn();
+        scheduler.scheduleTurn(() -> Move.DRAW, 50, move -> madeOnDispatchThread.add(false));
+        scheduler.scheduleTurn(() -> Move.DRAW, 50, move -> madeOnDispatchThread.add(true));
+        assertEquals(true, madeOnDispatchThread.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertTrue(madeOnDispatchThread.isEmpty());
+
+        //Turns cancelled on the event dispatch thread as soon as they are scheduled 
+        //are never made
+        SwingUtilities.invokeAndWait(() -> 
+        {
+            for(int i = 0; i < 1000; ++i)
+            {
+                scheduler.scheduleTurn(() -> Move.DRAW, 0, 
+                    move -> madeOnDispatchThread.add(false));
+                scheduler.cancelTurn();
+            }
+        });
+
+        Thread.sleep(100);
+        assertTrue(madeOnDispatchThread.isEmpty());
+
+        //A decision still waiting is interrupted by a cancel, and by a shutdown
+        CountDownLatch interrupted = new CountDownLatch(2);
+        Supplier<Move> waitingDecision = () -> 
+        {
+            try
+            {
+                Thread.sleep(60000);
+            }
+            catch(InterruptedException ex)
+            {
+                interrupted.countDown();
+            }
+
+            return Move.DRAW;
+        };
+        scheduler.scheduleTurn(waitingDecision, 0, move -> madeOnDispatchThread.add(false));
+        Thread.sleep(50);
+        scheduler.cancelTurn();
+        scheduler.scheduleTurn(waitingDecision, 0, move -> madeOnDispatchThread.add(false));
+        Thread.sleep(50);
+        scheduler.shutdown();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.isShutdown());
+        assertThrows(RejectedExecutionException.class, 
+            () -> { scheduler.scheduleTurn(() -> Move.DRAW, 0, move -> {}); });
+        Thread.sleep(100);
+        assertTrue(madeOnDispatchThread.isEmpty());
+    }
+
+
+    /**
+     * Plays the move the AI chooses for the current player
+     * @param ai AI that chooses the move
+     * @throws IllegalAccessException If the move is illegal
+     */
+    private void updateGameStateWithAIMove(GameAI ai) throws IllegalAccessException
+    {
+        Player player = ai.getCurrentGame().getCurrentPlayer();
+        Move move = ai.chooseMove(player);
+        ai.getCurrentGame().updateGameState(player.getPlayerID(), 
+            player.getCard(move.getCardIndex()), move, 0);
+    }
+
+
     /**Test baseline AI gameplay */
     @Test
     public void testBaselineAI() throws IllegalAccessException, IndexOutOfBoundsException
     {
         BaselineAI ai = new BaselineAI(new Game(2,0,0));
-        ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-            ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                new ArrayList<CardColors>());
+        this.updateGameStateWithAIMove(ai);
         ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
         ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildCard());
         ai.playCard(ai.getCurrentGame().getCurrentPlayer());
@@ -505,21 +1388,15 @@ public class GamePlayTest
             ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildCard());
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildCard());
-            ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-                ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                    new ArrayList<CardColors>());
+            this.updateGameStateWithAIMove(ai);
             ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildDrawFourCard());
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildDrawFourCard());
-            ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-                ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                    new ArrayList<CardColors>());
+            this.updateGameStateWithAIMove(ai);
             assertEquals(4, ai.getCurrentGame().getDrawCardsNumber());
             ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new WildDrawFourCard());
-            ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-                ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                    new ArrayList<CardColors>());
+            this.updateGameStateWithAIMove(ai);
             ai.getCurrentGame().setGameOver();
             assertEquals(-2, ai.playCard(ai.getCurrentGame().getCurrentPlayer()));
         }
@@ -536,14 +1413,10 @@ public class GamePlayTest
             ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new DrawTwoCard(ai.getCurrentGame().getCurrentColor()));
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new DrawTwoCard(ai.getCurrentGame().getCurrentColor()));
-            ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-                ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                    new ArrayList<CardColors>());
+            this.updateGameStateWithAIMove(ai);
             ai.getCurrentGame().getCurrentPlayer().getAllCards().clear();
             ai.getCurrentGame().getCurrentPlayer().getAllCards().add(new DrawTwoCard(ai.getCurrentGame().getCurrentColor()));
-            ai.getCurrentGame().updateGameState(ai.getCurrentGame().getCurrentPlayer().getPlayerID(), 
-                ai.getCurrentGame().getCurrentPlayer().getCard(ai.playCard(ai.getCurrentGame().getCurrentPlayer())), 
-                    new ArrayList<CardColors>());
+            this.updateGameStateWithAIMove(ai);
             assertEquals(4, ai.getCurrentGame().getDrawCardsNumber());
             assert(ai.getCurrentGame().isGameOver());
         }
@@ -0,0 +1,548 @@
+package src.Tests;
+
+/**
+ * This class tests the search AI and the game states it searches
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import src.AI.AnytimeGameAI;
+import src.AI.BaselineAI;
+import src.AI.EndgameSolver;
+import src.AI.GameAI;
+import src.AI.LatencyHistogram;
+import src.AI.MonteCarloTreeSearchAI;
+import src.AI.Ponderer;
+import src.AI.StrategicAI;
+import src.AI.TranspositionTable;
+import src.Model.Card.Card;
+import src.Model.GamePlay.Game;
+import src.Model.GamePlay.HandSampler;
+import src.Model.GamePlay.Move;
+import src.Model.GamePlay.MoveResult;
+import src.Model.GamePlay.Player;
+
+public class SearchTest
+{
+    private final int NUMBER_OF_TESTS = 100;
+
+
+    /**
+     * Test the sampler only excludes kinds the baseline AI players do not
+     * hold, and its deals keep what the observer can see, the hand sizes
+     * and the exclusions
+     */
+    @Test
+    public void testHandSampler()
+    {
+        int numberOfExclusions = 0;
+
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(4, 4, 0, new SplittableRandom(i));
+            GameAI aiPlayer = new BaselineAI(game);
+            int observerIdx = game.getCurrentPlayerIndex();
+            HandSampler sampler = new HandSampler(game, observerIdx);
+            Game target = game.copy(new SplittableRandom(i));
+            SplittableRandom random = new SplittableRandom(i);
+
+            for(int turns = 0; turns < 200 && !game.isGameOver(); ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                player.tryPlayCard(aiPlayer.chooseMove(player));
+                sampler.observeTurn();
+                sampler.sample(target, random);
+                int numberExcluded = 0;
+
+                assertEquals(game.getTopCard(), target.getTopCard());
+                assertEquals(game.getCurrentPlayerIndex(), target.getCurrentPlayerIndex());
+                assertEquals(game.getCurrentColor(), target.getCurrentColor());
+                assertEquals(game.getNumberOfCardsInCardDeck(), target.getNumberOfCardsInCardDeck());
+                assertEquals(game.getPlayer(observerIdx).getAllCards(),
+                    target.getPlayer(observerIdx).getAllCards());
+                assertEquals(game.getObservableHash(observerIdx), 
+                    target.getObservableHash(observerIdx));
+
+                for(int j = 0; j < game.getAllPlayers().size(); ++j)
+                {
+                    long excludedCardKinds = sampler.getExcludedCardKinds(j);
+                    numberExcluded += (excludedCardKinds != 0) ? 1 : 0;
+                    assertEquals(game.getPlayer(j).getNumberOfCards(),
+                        target.getPlayer(j).getNumberOfCards());
+                    assertEquals(0, game.getPlayer(j).getAllCards().getCardKindMask()
+                        & excludedCardKinds);
+                }
+
+                //A single exclusion always fits, the actual hand meets it
+                for(int j = 0; j < game.getAllPlayers().size() && numberExcluded == 1; ++j)
+                {
+                    assertEquals(0, target.getPlayer(j).getAllCards().getCardKindMask()
+                        & sampler.getExcludedCardKinds(j));
+                }
+
+                //The unseen cards are the card deck and the other hands
+                int numberOfUnseenCards = 0;
+                int numberOfHiddenCards = game.getNumberOfCardsInCardDeck();
+
+                for(int j = 0; j < Card.NUMBER_OF_CARD_KINDS; ++j)
+                {
+                    int numberDealt = 0;
+
+                    for(int k = 0; k < game.getAllPlayers().size(); ++k)
+                    {
+                        numberDealt += (k == observerIdx) ? 
+                            (0) : (target.getPlayer(k).getAllCards().getCardCount(j));
+                    }
+
+                    assert(numberDealt <= sampler.getUnseenCardCount(j));
+                    numberOfUnseenCards += sampler.getUnseenCardCount(j);
+                }
+
+                for(int j = 0; j < game.getAllPlayers().size(); ++j)
+                {
+                    numberOfHiddenCards += (j == observerIdx) ? 
+                        (0) : (game.getPlayer(j).getNumberOfCards());
+                }
+
+                assertEquals(numberOfHiddenCards, numberOfUnseenCards);
+
+                numberOfExclusions += numberExcluded;
+            }
+
+            sampler.synchronize();
+
+            for(int j = 0; j < game.getAllPlayers().size(); ++j)
+            {
+                assertEquals(0, sampler.getExcludedCardKinds(j));
+            }
+
+            game.setGameOver();
+            assertThrows(IllegalArgumentException.class, () -> {sampler.sample(game, random);});
+        }
+
+        assertNotEquals(0, numberOfExclusions);
+    }
+
+
+    /**
+     * Test the search AI makes legal moves and finishes games against
+     * baseline AI players
+     */
+    @Test
+    public void testMonteCarloTreeSearchAI()
+    {
+        for(int i = 0; i < 5; ++i)
+        {
+            Game game = new Game(3, 3, 0, new SplittableRandom(i));
+            MonteCarloTreeSearchAI searchAIPlayer = new MonteCarloTreeSearchAI(game);
+            searchAIPlayer.setIterationBudget(50);
+            searchAIPlayer.setParallelism(2);
+            GameAI baselineAIPlayer = new BaselineAI(game);
+            Player searchPlayer = game.getCurrentPlayer();
+
+            for(int turns = 0; !game.isGameOver() && turns < 1000; ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                GameAI aiPlayer = (player == searchPlayer) ? searchAIPlayer : baselineAIPlayer;
+                Move move = aiPlayer.chooseMove(player);
+                assertNotEquals(Move.NONE, move);
+                MoveResult result = player.tryPlayCard(move);
+
+                if(player == searchPlayer)
+                {
+                    assertEquals(MoveResult.SUCCESS, result);
+                }
+            }
+
+            assert(game.isGameOver());
+            game.setGameOver();
+            assertEquals(Move.NONE, searchAIPlayer.chooseMove(game.getCurrentPlayer()));
+        }
+
+        //The search leaves the game's random numbers, and so its reshuffles, alone
+        Game game = new Game(2, 2, 0, new SplittableRandom(7));
+        Game otherGame = new Game(2, 2, 0, new SplittableRandom(7));
+        MonteCarloTreeSearchAI seededAIPlayer = new MonteCarloTreeSearchAI(game, new SplittableRandom(7));
+        seededAIPlayer.setIterationBudget(50);
+        seededAIPlayer.setParallelism(1);
+        Move move = seededAIPlayer.chooseMove(game.getCurrentPlayer());
+        assertEquals(otherGame.getRandomGenerator().nextLong(), game.getRandomGenerator().nextLong());
+
+        //The same random numbers give the same move
+        MonteCarloTreeSearchAI otherAIPlayer = new MonteCarloTreeSearchAI(otherGame, new SplittableRandom(7));
+        otherAIPlayer.setIterationBudget(50);
+        otherAIPlayer.setParallelism(1);
+        Move otherMove = otherAIPlayer.chooseMove(otherGame.getCurrentPlayer());
+        assertEquals(move.getCardIndex(), otherMove.getCardIndex());
+        assertEquals(move.getNextColor(), otherMove.getNextColor());
+
+        MonteCarloTreeSearchAI searchAIPlayer = new MonteCarloTreeSearchAI(new Game(2, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> {searchAIPlayer.setTimeBudget(0);});
+        assertThrows(IllegalArgumentException.class, () -> {searchAIPlayer.setParallelism(0);});
+    }
+
+
+    /**
+     * Test the endgame solver only reports wins it can play out against
+     * baseline AI players, and a strategic AI using it plays legal moves
+     */
+    @Test
+    public void testEndgameSolver()
+    {
+        EndgameSolver solver = new EndgameSolver();
+        int numberOfWins = 0;
+
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            Game game = new Game(2 + i % 2, 2 + i % 2, 0, new SplittableRandom(i));
+            GameAI aiPlayer = new BaselineAI(game);
+
+            for(int turns = 0; turns < 1000 && !game.isGameOver()
+                && !EndgameSolver.isEndgame(game); ++turns)
+            {
+                game.getCurrentPlayer().tryPlayCard(aiPlayer.chooseMove(game.getCurrentPlayer()));
+            }
+
+            //A reshuffle in the game would differ from the one searched
+            if(!EndgameSolver.isEndgame(game) || game.getNumberOfCardsInCardDeck()
+                < 2 * EndgameSolver.DEFAULT_MAXIMUM_DEPTH)
+            {
+                continue;
+            }
+
+            Player solvingPlayer = game.getCurrentPlayer();
+            solver.solve(game);
+            assert(solver.getNumberOfNodes() > 0);
+            assert(solver.getNodesPerSecond() > 0);
+
+            if(solver.getValue() != EndgameSolver.WIN)
+            {
+                continue;
+            }
+
+            for(int turns = 0; !game.isGameOver(); ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                Move move = (player == solvingPlayer) ? (solver.solve(game)) : 
+                    (aiPlayer.chooseMove(player));
+
+                if(player == solvingPlayer)
+                {
+                    assertEquals(EndgameSolver.WIN, solver.getValue());
+                }
+
+                assertEquals(MoveResult.SUCCESS, player.tryPlayCard(move));
+                assert(turns < EndgameSolver.DEFAULT_MAXIMUM_DEPTH);
+            }
+
+            assertEquals(solvingPlayer, game.getCurrentPlayer());
+            assertThrows(IllegalArgumentException.class, () -> {solver.solve(game);});
+            ++numberOfWins;
+        }
+
+        assertNotEquals(0, numberOfWins);
+        assertThrows(IllegalArgumentException.class, () -> {solver.setMaximumDepth(0);});
+        assertThrows(IllegalArgumentException.class, () -> {solver.setNodeLimit(0);});
+
+        for(int i = 0; i < 5; ++i)
+        {
+            Game game = new Game(2, 2, 2, new SplittableRandom(i));
+            StrategicAI aiPlayer = new StrategicAI(game);
+            aiPlayer.setEndgameSolver(solver);
+
+            for(int turns = 0; turns < 1000 && !game.isGameOver(); ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+                assertEquals(MoveResult.SUCCESS, player.tryPlayCard(aiPlayer.chooseMove(player)));
+            }
+
+            assert(game.isGameOver());
+        }
+    }
+
+
+    /**
+     * Test the transposition table finds what was stored, replaces the
+     * least worth entry of a full bucket, and is never torn by threads
+     */
+    @Test
+    public void testTranspositionTable()
+    {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        assertEquals(64, table.getNumberOfEntries());
+        assertEquals(1 << 10, table.getSizeInBytes());
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+
+        table.store(42, -7, 12, 3, TranspositionTable.EXACT);
+        long data = table.probe(42);
+        assertEquals(-7, TranspositionTable.getValue(data));
+        assertEquals(12, TranspositionTable.getBestMove(data));
+        assertEquals(3, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.getBound(data));
+        table.store(42, 5, -1, 1000, TranspositionTable.LOWER_BOUND);
+        data = table.probe(42);
+        assertEquals(-1, TranspositionTable.getBestMove(data));
+        assertEquals(TranspositionTable.MAXIMUM_DEPTH, TranspositionTable.getDepth(data));
+        assertEquals(0, table.getCollisions());
+
+        //Fill the bucket of hash 42, there are 16 buckets of 4 entries
+        for(int i = 1; i < 4; ++i)
+        {
+            table.store(42 + 16 * i, i, i, 10 + i, TranspositionTable.UPPER_BOUND);
+        }
+
+        table.store(42 + 16 * 4, 4, 4, 20, TranspositionTable.EXACT);
+        assertEquals(1, table.getCollisions());
+        assertEquals(TranspositionTable.MISS, table.probe(42 + 16));
+        assertNotEquals(TranspositionTable.MISS, table.probe(42));
+
+        //An entry of an older search goes first whatever its depth
+        table.newSearch();
+        table.store(42 + 16 * 5, 5, 5, 0, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(42 + 16 * 2));
+        assertEquals(3, table.getHits());
+        assertEquals(3, table.getMisses());
+
+        assertThrows(IllegalArgumentException.class, () -> {table.store(1, 0, -2, 0,
+            TranspositionTable.EXACT);});
+        assertThrows(IllegalArgumentException.class, () -> {table.store(1, 0, 0, 0, 0);});
+        assertThrows(IllegalArgumentException.class, () -> {new TranspositionTable(63);});
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+        assertEquals(1, table.getMisses());
+
+        //Threads sharing a small table only ever read whole entries
+        TranspositionTable sharedTable = new TranspositionTable(1 << 12);
+        IntStream.range(0, 4).parallel().forEach(thread ->
+        {
+            SplittableRandom random = new SplittableRandom(thread);
+
+            for(int i = 0; i < 100000; ++i)
+            {
+                long hash = random.nextLong();
+                int value = (int) (hash >>> 40);
+                sharedTable.store(hash, value, value & 0x7FF, 1, TranspositionTable.EXACT);
+                long hashData = sharedTable.probe(hash);
+
+                if(hashData != TranspositionTable.MISS)
+                {
+                    assertEquals(value, TranspositionTable.getValue(hashData));
+                }
+            }
+        });
+    }
+
+    /**
+     * Test anytime AI players move by the deadline, finish early when the 
+     * thinking runs out, and record every decision
+     */
+    @Test
+    public void testAnytimeGameAI()
+    {
+        Game game = new Game(2, 2, 0, new SplittableRandom(42));
+        MonteCarloTreeSearchAI searchAIPlayer = new MonteCarloTreeSearchAI(game);
+        searchAIPlayer.setParallelism(2);
+        GameAI baselineAIPlayer = new BaselineAI(game);
+        Player searchPlayer = game.getCurrentPlayer();
+        assertThrows(IllegalStateException.class, () -> {searchAIPlayer.awaitMove(0);});
+
+        //Thinking with no iteration budget goes on until the deadline
+        for(int turns = 0; !game.isGameOver() && turns < 1000; ++turns)
+        {
+            Player player = game.getCurrentPlayer();
+
+            if(player != searchPlayer)
+            {
+                player.tryPlayCard(baselineAIPlayer.chooseMove(player));
+                continue;
+            }
+
+            searchAIPlayer.startThinking(player);
+            assertNotEquals(Move.NONE, searchAIPlayer.getBestMove());
+            assertEquals(MoveResult.SUCCESS, player.tryPlayCard(searchAIPlayer.awaitMove(20)));
+            assertEquals(Move.NONE, searchAIPlayer.getBestMove());
+        }
+
+        assert(game.isGameOver());
+        long numberOfDecisions = searchAIPlayer.getNumberOfDecisions();
+        assertNotEquals(0, numberOfDecisions);
+
+        assertNotEquals(0, searchAIPlayer.getNumberOfDeadlinesHit());
+        assert(searchAIPlayer.getNumberOfLateDecisions() <= numberOfDecisions);
+        assert(searchAIPlayer.getLatencies().getMaximumLatency() >= 20000000);
+
+        //Thinking with an iteration budget ends long before the deadline
+        Game nextGame = new Game(2, 2, 0, new SplittableRandom(42));
+        MonteCarloTreeSearchAI budgetAIPlayer = new MonteCarloTreeSearchAI(nextGame);
+        budgetAIPlayer.setIterationBudget(100);
+        budgetAIPlayer.setParallelism(2);
+        budgetAIPlayer.startThinking(nextGame.getCurrentPlayer());
+        assertNotEquals(Move.NONE, budgetAIPlayer.awaitMove(60000));
+        assertEquals(0, budgetAIPlayer.getNumberOfDeadlinesHit());
+        assert(budgetAIPlayer.getLatencies().getMaximumLatency() < 60000000000L);
+        assertThrows(IllegalArgumentException.class, () -> {budgetAIPlayer.awaitMove(-1);});
+
+        //Nothing to think about when it is not the player's turn
+        budgetAIPlayer.startThinking(nextGame.getPlayer(1 - nextGame.getCurrentPlayerIndex()));
+        assertEquals(Move.NONE, budgetAIPlayer.awaitMove(0));
+        assertEquals(2, budgetAIPlayer.getNumberOfDecisions());
+        budgetAIPlayer.resetStatistics();
+        assertEquals(0, budgetAIPlayer.getNumberOfDecisions());
+
+        //Every decision thinks on the shared threads, none starts a thread of its own
+        Set<Thread> thinkingThreads = ConcurrentHashMap.newKeySet();
+        Game threadGame = new Game(2, 2, 0, new SplittableRandom(42));
+        AnytimeGameAI threadAIPlayer = new AnytimeGameAI(threadGame)
+        {
+            @Override
+            public Move chooseMove(Player player)
+            {
+                return Move.DRAW;
+            }
+
+
+            @Override
+            protected Runnable prepareThinking(Player player, Thought thought)
+            {
+                thought.offer(Move.DRAW);
+                return () -> thinkingThreads.add(Thread.currentThread());
+            }
+        };
+
+        for(int i = 0; i < 100; ++i)
+        {
+            threadAIPlayer.startThinking(threadGame.getCurrentPlayer());
+            assertEquals(Move.DRAW, threadAIPlayer.awaitMove(60000));
+        }
+
+        assertEquals(0, threadAIPlayer.getNumberOfDeadlinesHit());
+        assertTrue(thinkingThreads.size() <= Runtime.getRuntime().availableProcessors());
+
+        //A strategic AI solving endgames while thinking plays legal moves
+        for(int i = 0; i < 5; ++i)
+        {
+            Game strategicGame = new Game(2, 2, 2, new SplittableRandom(i));
+            StrategicAI strategicAIPlayer = new StrategicAI(strategicGame);
+            strategicAIPlayer.setEndgameSolver(new EndgameSolver());
+
+            for(int turns = 0; turns < 1000 && !strategicGame.isGameOver(); ++turns)
+            {
+                Player player = strategicGame.getCurrentPlayer();
+                strategicAIPlayer.startThinking(player);
+                assertEquals(MoveResult.SUCCESS, player.tryPlayCard(
+                    strategicAIPlayer.awaitMove((turns % 2 == 0) ? (0) : (5))));
+            }
+
+            assert(strategicGame.isGameOver());
+        }
+    }
+
+
+    /**
+     * Test the latency histogram counts latencies in powers of two
+     * microseconds and reads percentiles from them
+     */
+    @Test
+    public void testLatencyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMeanLatency(), 0);
+
+        for(int i = 1; i <= 100; ++i)
+        {
+            histogram.record(i * 1000000L);
+        }
+
+        histogram.record(-1);
+        assertEquals(101, histogram.getCount());
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(100000000, histogram.getMaximumLatency());
+        assertEquals(5050000000.0 / 101, histogram.getMeanLatency(), 1);
+        assertEquals(LatencyHistogram.getBucketUpperBound(15), histogram.getPercentile(0.5));
+        assertEquals(100000000, histogram.getPercentile(0.99));
+        assertEquals(100000000, histogram.getPercentile(1));
+        assertThrows(IllegalArgumentException.class, () -> {histogram.getPercentile(1.5);});
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaximumLatency());
+    }
+
+
+
+    /**
+     * Test the ponderer's thoughts are found for the position the game
+     * reaches, give legal moves once taken up, and are stopped otherwise
+     */
+    @Test
+    public void testPonderer()
+    {
+        Ponderer ponderer = new Ponderer(2, 64);
+        Function<Game, AnytimeGameAI> aiFactory = copy ->
+        {
+            MonteCarloTreeSearchAI aiPlayer = new MonteCarloTreeSearchAI(copy);
+            aiPlayer.setIterationBudget(20);
+            aiPlayer.setParallelism(1);
+            return aiPlayer;
+        };
+
+        for(int i = 0; i < 5; ++i)
+        {
+            Game game = new Game(2, 2, 0, new SplittableRandom(i));
+            AnytimeGameAI searchAIPlayer = aiFactory.apply(game);
+            GameAI baselineAIPlayer = new BaselineAI(game);
+            Player humanPlayer = game.getCurrentPlayer();
+
+            for(int turns = 0; !game.isGameOver() && turns < 1000; ++turns)
+            {
+                Player player = game.getCurrentPlayer();
+
+                if(player == humanPlayer)
+                {
+                    ponderer.ponder(game, aiFactory);
+                    player.tryPlayCard(baselineAIPlayer.chooseMove(player));
+                    continue;
+                }
+
+                AnytimeGameAI.Thought thought = ponderer.claim(game);
+
+                if(thought == null)
+                {
+                    searchAIPlayer.startThinking(player);
+                }
+                else
+                {
+                    searchAIPlayer.takeUpThought(thought);
+                }
+
+                assertEquals(MoveResult.SUCCESS, player.tryPlayCard(searchAIPlayer.awaitMove(60000)));
+            }
+
+            assert(game.isGameOver());
+        }
+
+        assertNotEquals(0, ponderer.getNumberOfPositions());
+        assertNotEquals(0, ponderer.getNumberOfHits());
+        assert(ponderer.getNumberOfHits() > ponderer.getNumberOfMisses());
+
+        //A game over has nothing to ponder
+        Game game = new Game(2, 2, 0, new SplittableRandom(42));
+        game.setGameOver();
+        ponderer.ponder(game, aiFactory);
+        assertEquals(null, ponderer.claim(game));
+        ponderer.shutdown();
+        assertThrows(IllegalArgumentException.class, () -> {new Ponderer(0, 1);});
+    }
+}
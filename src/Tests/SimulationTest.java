@@ -0,0 +1,144 @@
+package src.Tests;
+
+/**
+ * This class tests the headless simulation of games between AI players
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import src.Model.GamePlay.Player.PlayerType;
+import src.Simulation.BatchedGameEngine;
+import src.Simulation.GameSimulator;
+import src.Simulation.SimulationResult;
+import src.Simulation.TournamentRunner;
+import src.Simulation.TournamentStatistics;
+
+public class SimulationTest 
+{
+    private final int NUMBER_OF_TESTS = 1000;
+
+
+    /**
+     * Test simulated games finish with a valid winner
+     */
+    @Test
+    public void testGameSimulator()
+    {
+        GameSimulator simulator = new GameSimulator(2, 1);
+        assertEquals(3, simulator.getNumberOfPlayers());
+
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            SimulationResult result = simulator.simulateGame();
+            assert(result.getNumberOfTurns() > 0);
+            assert(result.getNumberOfPenalties() >= 0);
+            assert(result.getNumberOfReshuffles() >= 0);
+
+            if(result.hasWinner())
+            {
+                assertNotEquals(PlayerType.HUMAN, result.getWinnerType());
+                assert(result.getWinnerID() >= 1 && result.getWinnerID() <= 3);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> { new GameSimulator(1, 0); });
+        assertThrows(IllegalArgumentException.class, () -> { new GameSimulator(5, 5); });
+    }
+
+
+    /**
+     * Test games are split across threads and their statistics are merged
+     */
+    @Test
+    public void testTournamentRunner()
+    {
+        TournamentRunner runner = new TournamentRunner(4, 4, 2);
+        TournamentStatistics statistics = runner.runTournament(NUMBER_OF_TESTS * 5, 4);
+        assertEquals(NUMBER_OF_TESTS * 5, statistics.getNumberOfGames());
+        assertEquals(statistics.getNumberOfGames(), statistics.getBaselineAIWins() 
+            + statistics.getStrategicAIWins() + statistics.getNumberOfUnfinishedGames());
+        assert(statistics.getAverageNumberOfTurns() > 0);
+        assert(statistics.getGamesPerSecond() > 0);
+
+        assertEquals(0, runner.runTournament(0, 1).getNumberOfGames());
+        assertThrows(IllegalArgumentException.class, () -> { runner.runTournament(1, 0); });
+        assertThrows(IllegalArgumentException.class, () -> { new TournamentRunner(4, 3, 2); });
+    }
+
+
+    /**
+     * Test seeded games and tournaments replay exactly
+     */
+    @Test
+    public void testSeededSimulation()
+    {
+        GameSimulator simulator = new GameSimulator(1, 2, 42);
+        simulator.setRandomAlgorithm("L64X128MixRandom");
+
+        for(int i = 0; i < NUMBER_OF_TESTS; ++i)
+        {
+            SimulationResult result = simulator.simulateGame();
+            SimulationResult replay = simulator.simulateGame(result.getGameSeed());
+            assertEquals(result.getWinnerID(), replay.getWinnerID());
+            assertEquals(result.getNumberOfTurns(), replay.getNumberOfTurns());
+            assertEquals(result.getNumberOfReshuffles(), replay.getNumberOfReshuffles());
+        }
+
+        assertThrows(IllegalArgumentException.class, 
+            () -> { simulator.setRandomAlgorithm("NoSuchRandom"); });
+
+        //The same seed plays the same games on any number of threads
+        TournamentRunner runner = new TournamentRunner(3, 3, 1, 7);
+        TournamentStatistics statistics1 = runner.runTournament(NUMBER_OF_TESTS * 3, 1);
+        TournamentStatistics statistics2 = runner.runTournament(NUMBER_OF_TESTS * 3, 3);
+        assertEquals(statistics1.getStrategicAIWins(), statistics2.getStrategicAIWins());
+        assertEquals(statistics1.getAverageNumberOfTurns(), 
+            statistics2.getAverageNumberOfTurns(), 0);
+        assertEquals(statistics1.getNumberOfReshuffles(), statistics2.getNumberOfReshuffles());
+    }
+
+
+    /**
+     * Test games played in lockstep finish like the games of the simulator
+     */
+    @Test
+    public void testBatchedGameEngine()
+    {
+        BatchedGameEngine engine = new BatchedGameEngine(2, 2, 64, 7);
+        assertEquals(4, engine.getNumberOfPlayers());
+        TournamentStatistics statistics = engine.run(NUMBER_OF_TESTS * 10);
+        assertEquals(NUMBER_OF_TESTS * 10, statistics.getNumberOfGames());
+        assertEquals(statistics.getNumberOfGames(), statistics.getBaselineAIWins() 
+            + statistics.getStrategicAIWins() + statistics.getNumberOfUnfinishedGames());
+        assertEquals(0, statistics.getNumberOfPenalties());
+
+        //The same seed and number of lanes play the same games
+        TournamentStatistics replay = new BatchedGameEngine(2, 2, 64, 7).run(NUMBER_OF_TESTS * 10);
+        assertEquals(statistics.getStrategicAIWins(), replay.getStrategicAIWins());
+        assertEquals(statistics.getAverageNumberOfTurns(), replay.getAverageNumberOfTurns(), 0);
+        assertEquals(statistics.getNumberOfReshuffles(), replay.getNumberOfReshuffles());
+
+        //The policies win about as often as the AIs they follow
+        GameSimulator simulator = new GameSimulator(2, 2, 7);
+        TournamentStatistics simulated = new TournamentStatistics();
+
+        for(int i = 0; i < NUMBER_OF_TESTS * 10; ++i)
+        {
+            simulated.addResult(simulator.simulateGame());
+        }
+
+        assertEquals((double) simulated.getStrategicAIWins() / simulated.getNumberOfGames(),
+            (double) statistics.getStrategicAIWins() / statistics.getNumberOfGames(), 0.03);
+        assertEquals(simulated.getAverageNumberOfTurns(), statistics.getAverageNumberOfTurns(), 3);
+
+        assertEquals(0, engine.run(0).getNumberOfGames());
+        assertThrows(IllegalArgumentException.class, () -> { engine.run(-1); });
+        assertThrows(IllegalArgumentException.class, () -> { new BatchedGameEngine(1, 0, 64, 7); });
+        assertThrows(IllegalArgumentException.class, () -> { new BatchedGameEngine(5, 5, 64, 7); });
+        assertThrows(IllegalArgumentException.class, () -> { new BatchedGameEngine(2, 2, 0, 7); });
+    }
+}
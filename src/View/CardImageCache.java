@@ -0,0 +1,276 @@
+package src.View;
+
+/**
+ * CardImageCache holds the card images scaled to the sizes the views show
+ * them at. The 55 card images are packed into one sprite sheet, which is
+ * read from the classpath once on a background thread as soon as the cache
+ * is first used, and the first time a size is asked for every image is
+ * scaled to it at once, in parallel, into images compatible with the
+ * screen so drawing them needs no conversion. A size can be preloaded while
+ * nothing is shown yet, and asking for an image waits only if its size is
+ * still loading. After that showing a card is an array lookup, however
+ * often the hand is redrawn. Scaling halves an image with bilinear
+ * filtering until it is less than twice the size and then scales it the
+ * rest of the way, which is much faster than Image.SCALE_SMOOTH and looks
+ * the same at the sizes of the cards.
+ */
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import javax.swing.ImageIcon;
+
+import src.Model.Card.Card;
+import src.Model.Card.CardTable;
+import src.Model.Card.ChangeColorCard;
+import src.Model.Card.DrawTwoCard;
+import src.Model.Card.NumberCard;
+import src.Model.Card.ReverseCard;
+import src.Model.Card.WildDrawFourCard;
+
+public class CardImageCache
+{
+    /** Sprite sheet of the card images, relative to the classpath root */
+    public static final String SPRITE_SHEET_IMAGE = "src/Resources/CardSprites.png";
+    /** Index of the sprite sheet, relative to the classpath root */
+    public static final String SPRITE_SHEET_INDEX = "src/Resources/CardSprites.txt";
+    /** Name of the blank card sprite */
+    private static final String BLANK_IMAGE_NAME = "BLANK";
+    /** Index of the blank card image, after the image of each kind of card */
+    private static final int BLANK_IMAGE_INDEX = Card.NUMBER_OF_CARD_KINDS;
+    /** Number of card images */
+    private static final int NUMBER_OF_IMAGES = BLANK_IMAGE_INDEX + 1;
+    /** Thread the sprite sheet is read on and the scaling is started from */
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "Card Image Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Card images as read from the sprite sheet, by card code and then the
+     * blank card, null for an image that could not be read */
+    private static final CompletableFuture<BufferedImage[]> SOURCE_IMAGES =
+        CompletableFuture.supplyAsync(CardImageCache::readSourceImages, LOADER);
+    /** Card images scaled to each size asked for, by width and height */
+    private static final ConcurrentHashMap<Long, CompletableFuture<ImageIcon[]>> SCALED_IMAGES =
+        new ConcurrentHashMap<Long, CompletableFuture<ImageIcon[]>>();
+
+
+    /**
+     * No CardImageCache objects, the cache is shared
+     */
+    private CardImageCache()
+    {
+    }
+
+
+    /**
+     * @param card Card to show
+     * @param width Width of the image in pixels
+     * @param height Height of the image in pixels
+     * @return Image of the card at the size
+     * @throws IllegalArgumentException If the width or height is not positive
+     */
+    public static ImageIcon getCardImageIcon(Card card, int width, int height)
+        throws IllegalArgumentException
+    {
+        return getScaledImages(width, height).join()[card.getCardCode()];
+    }
+
+
+    /**
+     * @param width Width of the image in pixels
+     * @param height Height of the image in pixels
+     * @return Image of the blank card that masks the player's cards
+     * @throws IllegalArgumentException If the width or height is not positive
+     */
+    public static ImageIcon getBlankCardImageIcon(int width, int height)
+        throws IllegalArgumentException
+    {
+        return getScaledImages(width, height).join()[BLANK_IMAGE_INDEX];
+    }
+
+
+    /**
+     * @param card Card to find the image of
+     * @return Name of the card's sprite, its image file name without .png
+     */
+    public static String getCardImageName(Card card)
+    {
+        String imageName;
+
+        if(card instanceof ChangeColorCard)
+        {
+            imageName = "WILD";
+
+            if(card instanceof WildDrawFourCard)
+            {
+                imageName += "D";
+            }
+        }
+        else
+        {
+            imageName = card.getCardColor().toString();
+
+            if(card instanceof NumberCard)
+            {
+                imageName += Integer.toString(((NumberCard) card).getCardNumber());
+            }
+            else if(card instanceof DrawTwoCard)
+            {
+                imageName += "D";
+            }
+            else if(card instanceof ReverseCard)
+            {
+                imageName += "R";
+            }
+            else
+            {
+                imageName += "S";
+            }
+        }
+
+        return imageName;
+    }
+
+
+    /**
+     * Starts scaling every card image to the size in the background, if it
+     * was not asked for before
+     * @param width Width of the images in pixels
+     * @param height Height of the images in pixels
+     * @return Completes when every card image is at the size
+     * @throws IllegalArgumentException If the width or height is not positive
+     */
+    public static CompletableFuture<?> preload(int width, int height)
+        throws IllegalArgumentException
+    {
+        return getScaledImages(width, height);
+    }
+
+
+    /**
+     * @param width Width of the images in pixels
+     * @param height Height of the images in pixels
+     * @return Every card image at the size, scaled in parallel once the
+     * sprite sheet is read
+     * @throws IllegalArgumentException If the width or height is not positive
+     */
+    private static CompletableFuture<ImageIcon[]> getScaledImages(int width, int height)
+        throws IllegalArgumentException
+    {
+        if(width < 1 || height < 1)
+        {
+            throw new IllegalArgumentException("Invalid Card Image Size!");
+        }
+
+        return SCALED_IMAGES.computeIfAbsent(((long) width << 32) | height, 
+            size -> SOURCE_IMAGES.thenApplyAsync(sourceImages -> 
+        {
+            BufferedImage[] scaledImages = new BufferedImage[NUMBER_OF_IMAGES];
+            IntStream.range(0, NUMBER_OF_IMAGES).parallel().forEach(i -> 
+                scaledImages[i] = scaleImage(sourceImages[i], width, height));
+            ImageIcon[] images = new ImageIcon[NUMBER_OF_IMAGES];
+
+            for(int i = 0; i < NUMBER_OF_IMAGES; ++i)
+            {
+                images[i] = new ImageIcon(scaledImages[i]);
+            }
+
+            return images;
+        }, LOADER));
+    }
+
+
+    /**
+     * @return Card images read from the sprite sheet, by card code and then
+     * the blank card
+     */
+    private static BufferedImage[] readSourceImages()
+    {
+        BufferedImage[] images = new BufferedImage[NUMBER_OF_IMAGES];
+        SpriteSheet sheet;
+
+        try
+        {
+            sheet = SpriteSheet.read(SPRITE_SHEET_IMAGE, SPRITE_SHEET_INDEX);
+        }
+        catch(IOException ex)
+        {
+            //Without the sheet the cards are shown empty, as ImageIcon would
+            return images;
+        }
+
+        for(int i = 0; i < NUMBER_OF_IMAGES; ++i)
+        {
+            String imageName = (i == BLANK_IMAGE_INDEX) ?
+                (BLANK_IMAGE_NAME) : (getCardImageName(CardTable.getCard(i)));
+            images[i] = (sheet.hasSprite(imageName)) ? (sheet.getSprite(imageName)) : (null);
+        }
+
+        return images;
+    }
+
+
+    /**
+     * @param image Image to scale, null for an empty image
+     * @param width Width to scale to
+     * @param height Height to scale to
+     * @return Image scaled to the size, compatible with the screen
+     */
+    private static BufferedImage scaleImage(BufferedImage image, int width, int height)
+    {
+        if(image == null)
+        {
+            return createCompatibleImage(width, height);
+        }
+
+        //Halve the image while it is at least twice the size
+        BufferedImage scaledImage = image;
+        int scaledWidth = image.getWidth();
+        int scaledHeight = image.getHeight();
+
+        do
+        {
+            scaledWidth = (scaledWidth >= width * 2) ? (scaledWidth / 2) : (width);
+            scaledHeight = (scaledHeight >= height * 2) ? (scaledHeight / 2) : (height);
+            BufferedImage nextImage = createCompatibleImage(scaledWidth, scaledHeight);
+            Graphics2D graphics = nextImage.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(scaledImage, 0, 0, scaledWidth, scaledHeight, null);
+            graphics.dispose();
+            scaledImage = nextImage;
+        } while(scaledWidth != width || scaledHeight != height);
+
+        return scaledImage;
+    }
+
+
+    /**
+     * @param width Width of the image
+     * @param height Height of the image
+     * @return Empty translucent image in the screen's format, or in ARGB
+     * without a screen
+     */
+    private static BufferedImage createCompatibleImage(int width, int height)
+    {
+        if(GraphicsEnvironment.isHeadless())
+        {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+            .getDefaultConfiguration().createCompatibleImage(width, height,
+                Transparency.TRANSLUCENT);
+    }
+}
@@ -16,7 +16,6 @@ import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -25,6 +24,11 @@ import java.awt.GridBagConstraints;
 
 public class GameView extends View
 {
+    /**Width of the card images */
+    public static final int CARD_IMAGE_WIDTH = 160;
+    /**Height of the card images */
+    public static final int CARD_IMAGE_HEIGHT = 240;
+
     /**Constraints to specify location of the component in the JFrame */
     private GridBagConstraints contr;
     /**Label to keep track of current player */
@@ -64,9 +68,8 @@ public class GameView extends View
     /**Auto hide check box */
     public JCheckBox autoHideCheckBox;
     /**Blank card to mask the player's cards */
-    public final ImageIcon blankCardImage = new ImageIcon
-        (new ImageIcon("src/Resources/CardImages/BLANK.png").getImage()
-            .getScaledInstance(160, 240, Image.SCALE_SMOOTH));
+    public final ImageIcon blankCardImage = 
+        CardImageCache.getBlankCardImageIcon(CARD_IMAGE_WIDTH, CARD_IMAGE_HEIGHT);
 
 
     /**
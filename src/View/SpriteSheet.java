@@ -0,0 +1,209 @@
+package src.View;
+
+/**
+ * SpriteSheet is many images packed into one image, with an index giving
+ * the name and place of each. Reading one file instead of one per image
+ * saves the opening and decoding overhead of each, and the sheet and its
+ * index are read from the classpath first, so they are found inside a jar
+ * as well as in the project directory. Each line of the index is a name
+ * followed by the x, y, width and height of the image in pixels, and lines
+ * starting with # are comments. SpriteSheetPacker makes the sheet.
+ */
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+public class SpriteSheet
+{
+    /** Image every sprite is packed into */
+    private final BufferedImage SheetImage;
+    /** Place of each sprite in the sheet, by name in the order of the index */
+    private final LinkedHashMap<String, Rectangle> Sprites;
+
+
+    /**
+     * @param sheetImage Image every sprite is packed into
+     * @param sprites Place of each sprite in the sheet, by name
+     * @throws IllegalArgumentException If a sprite is not inside the sheet
+     */
+    SpriteSheet(BufferedImage sheetImage, LinkedHashMap<String, Rectangle> sprites)
+        throws IllegalArgumentException
+    {
+        Rectangle bounds = new Rectangle(0, 0, sheetImage.getWidth(), sheetImage.getHeight());
+
+        for(Rectangle sprite : sprites.values())
+        {
+            if(sprite.isEmpty() || !bounds.contains(sprite))
+            {
+                throw new IllegalArgumentException("Sprite Is Not Inside The Sheet!");
+            }
+        }
+
+        this.SheetImage = sheetImage;
+        this.Sprites = sprites;
+    }
+
+
+    /**
+     * Reads a sheet and its index from the classpath, or from the working
+     * directory if they are not on the classpath
+     * @param imageName Path of the sheet image, relative to the classpath root
+     * @param indexName Path of the index, relative to the classpath root
+     * @return The sheet
+     * @throws IOException If either file cannot be read or the index is invalid
+     */
+    public static SpriteSheet read(String imageName, String indexName) throws IOException
+    {
+        LinkedHashMap<String, Rectangle> sprites = new LinkedHashMap<String, Rectangle>();
+
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(
+            openResource(indexName), StandardCharsets.UTF_8)))
+        {
+            for(String line; (line = reader.readLine()) != null;)
+            {
+                line = line.trim();
+
+                if(line.isEmpty() || line.startsWith("#"))
+                {
+                    continue;
+                }
+
+                String[] fields = line.split("\\s+");
+
+                try
+                {
+                    sprites.put(fields[0], new Rectangle(Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                            Integer.parseInt(fields[4])));
+                }
+                catch(IndexOutOfBoundsException | NumberFormatException ex)
+                {
+                    throw new IOException("Invalid Sprite Index Line: " + line, ex);
+                }
+            }
+        }
+
+        BufferedImage sheetImage;
+
+        //Decode from memory, ImageIO would otherwise cache the stream in a
+        //temporary file, and ImageIO.read closes the image stream itself
+        try(InputStream input = openResource(imageName))
+        {
+            sheetImage = ImageIO.read(new MemoryCacheImageInputStream(input));
+        }
+
+        if(sheetImage == null)
+        {
+            throw new IOException("Unreadable Sprite Sheet: " + imageName);
+        }
+
+        try
+        {
+            return new SpriteSheet(sheetImage, sprites);
+        }
+        catch(IllegalArgumentException ex)
+        {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+
+    /**
+     * Writes the sheet as a PNG image and its index
+     * @param imageName Path to write the sheet image to
+     * @param indexName Path to write the index to
+     * @throws IOException If either file cannot be written
+     */
+    public void write(String imageName, String indexName) throws IOException
+    {
+        if(!ImageIO.write(this.SheetImage, "png", new File(imageName)))
+        {
+            throw new IOException("No PNG Writer!");
+        }
+
+        try(PrintWriter writer = new PrintWriter(indexName, StandardCharsets.UTF_8))
+        {
+            writer.println("#name x y width height");
+
+            for(Map.Entry<String, Rectangle> sprite : this.Sprites.entrySet())
+            {
+                Rectangle place = sprite.getValue();
+                writer.println(sprite.getKey() + " " + place.x + " " + place.y + " "
+                    + place.width + " " + place.height);
+            }
+        }
+    }
+
+
+    /**
+     * @param name Name of the sprite
+     * @return The sprite, sharing its pixels with the sheet
+     * @throws IllegalArgumentException If there is no sprite with the name
+     */
+    public BufferedImage getSprite(String name) throws IllegalArgumentException
+    {
+        Rectangle place = this.Sprites.get(name);
+
+        if(place == null)
+        {
+            throw new IllegalArgumentException("No Such Sprite: " + name);
+        }
+
+        return this.SheetImage.getSubimage(place.x, place.y, place.width, place.height);
+    }
+
+
+    /**
+     * @param name Name of the sprite
+     * @return If the sheet has a sprite with the name
+     */
+    public boolean hasSprite(String name)
+    {
+        return this.Sprites.containsKey(name);
+    }
+
+
+    /**
+     * @return Names of the sprites in the order of the index
+     */
+    public Set<String> getSpriteNames()
+    {
+        return this.Sprites.keySet();
+    }
+
+
+    /**
+     * @return Image every sprite is packed into
+     */
+    public BufferedImage getSheetImage()
+    {
+        return this.SheetImage;
+    }
+
+
+    /**
+     * @param name Path relative to the classpath root
+     * @return Stream of the resource on the classpath, else of the file in
+     * the working directory
+     * @throws IOException If neither exists
+     */
+    private static InputStream openResource(String name) throws IOException
+    {
+        InputStream input = SpriteSheet.class.getClassLoader().getResourceAsStream(name);
+        return (input != null) ? (input) : (new FileInputStream(name));
+    }
+}
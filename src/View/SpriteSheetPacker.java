@@ -0,0 +1,139 @@
+package src.View;
+
+/**
+ * SpriteSheetPacker packs the PNG images of a folder into one sprite sheet
+ * with an index, for SpriteSheet to read. The images are put on shelves,
+ * tallest first, each shelf as wide as the sheet allows. Run it from the
+ * project directory after changing a card image:
+ * java src.View.SpriteSheetPacker
+ * which packs src/Resources/CardImages into CardImageCache.SPRITE_SHEET_IMAGE
+ * and CardImageCache.SPRITE_SHEET_INDEX.
+ */
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+public class SpriteSheetPacker
+{
+    /** Widest sheet made, in pixels */
+    public static final int MAXIMUM_SHEET_WIDTH = 4096;
+    /** Folder of the card images packed */
+    private static final String CARD_IMAGE_FOLDER = "src/Resources/CardImages/";
+
+
+    /**
+     * No SpriteSheetPacker objects, use pack
+     */
+    private SpriteSheetPacker()
+    {
+    }
+
+
+    /**
+     * Packs the card images into the card sprite sheet
+     * @param args Not used
+     * @throws IOException If an image cannot be read or the sheet cannot be
+     * written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        File[] files = new File(CARD_IMAGE_FOLDER).listFiles((folder, name) -> name.endsWith(".png"));
+
+        if(files == null)
+        {
+            throw new IOException("No Folder: " + CARD_IMAGE_FOLDER);
+        }
+
+        Arrays.sort(files);
+        LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<String, BufferedImage>();
+
+        for(File file : files)
+        {
+            BufferedImage image = ImageIO.read(file);
+
+            if(image == null)
+            {
+                throw new IOException("Unreadable Image: " + file);
+            }
+
+            images.put(file.getName().substring(0, file.getName().length() - 4), image);
+        }
+
+        SpriteSheet sheet = pack(images, MAXIMUM_SHEET_WIDTH);
+        sheet.write(CardImageCache.SPRITE_SHEET_IMAGE, CardImageCache.SPRITE_SHEET_INDEX);
+        System.out.println("Packed " + images.size() + " images into a "
+            + sheet.getSheetImage().getWidth() + "x" + sheet.getSheetImage().getHeight() + " sheet");
+    }
+
+
+    /**
+     * @param images Images to pack, by name
+     * @param maximumWidth Widest the sheet may be, in pixels
+     * @return Sheet of the images, indexed in the order given
+     * @throws IllegalArgumentException If an image is wider than the sheet
+     * may be
+     */
+    public static SpriteSheet pack(Map<String, BufferedImage> images, int maximumWidth)
+        throws IllegalArgumentException
+    {
+        ArrayList<String> names = new ArrayList<String>(images.keySet());
+        names.sort((name1, name2) -> Integer.compare(images.get(name2).getHeight(),
+            images.get(name1).getHeight()));
+
+        //Put the images on shelves, a new shelf when the image does not fit
+        LinkedHashMap<String, Rectangle> places = new LinkedHashMap<String, Rectangle>();
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int sheetWidth = 1;
+
+        for(String name : images.keySet())
+        {
+            places.put(name, null);
+        }
+
+        for(String name : names)
+        {
+            BufferedImage image = images.get(name);
+
+            if(image.getWidth() > maximumWidth)
+            {
+                throw new IllegalArgumentException("Image Is Wider Than The Sheet: " + name);
+            }
+
+            if(x + image.getWidth() > maximumWidth)
+            {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+
+            places.put(name, new Rectangle(x, y, image.getWidth(), image.getHeight()));
+            x += image.getWidth();
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+            sheetWidth = Math.max(sheetWidth, x);
+        }
+
+        BufferedImage sheetImage = new BufferedImage(sheetWidth, Math.max(y + shelfHeight, 1),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = sheetImage.createGraphics();
+
+        for(Map.Entry<String, Rectangle> place : places.entrySet())
+        {
+            graphics.drawImage(images.get(place.getKey()), place.getValue().x,
+                place.getValue().y, null);
+        }
+
+        graphics.dispose();
+        return new SpriteSheet(sheetImage, places);
+    }
+}